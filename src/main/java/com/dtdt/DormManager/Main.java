@@ -9,9 +9,22 @@ import javafx.stage.Stage;
 
 
 import com.dtdt.DormManager.controller.config.FirebaseInit;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import com.dtdt.DormManager.service.AllocationBenchmark;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.BillingJob;
+import com.dtdt.DormManager.service.LateFeeSweeper;
+import com.dtdt.DormManager.service.PasswordHashBenchmark;
+import com.dtdt.DormManager.service.RoomAssignmentService;
+import com.dtdt.DormManager.service.RoomStore;
+import com.dtdt.DormManager.service.TenantStore;
+import com.dtdt.DormManager.service.TrendService;
 import com.google.cloud.firestore.Firestore;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
 
 public class Main extends Application {
 
@@ -20,15 +33,7 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) throws IOException {
 
-        // Initialize Firebase
-        try {
-            FirebaseInit.initialize();
-            System.out.println("Main connected to Firebase.");
-            // This line is fine as it confirms the DB is ready
-           Firestore db = FirebaseInit.getDatabase();
-        } catch (IOException e) {
-            System.err.println("Failed to initialize Firebase: " + e.getMessage());
-            e.printStackTrace();
+        if (!configureRepositories()) {
             // If Firebase fails, the app can't run.
             Platform.exit(); // <-- Exit the application
         }
@@ -47,13 +52,124 @@ public class Main extends Application {
     }
 
 
+    @Override
+    public void stop() {
+        // Release the snapshot listeners so their threads don't keep the JVM alive
+        RoomStore.getInstance().stopLiveSync();
+        TenantStore.getInstance().stopLiveSync();
+        TrendService.getInstance().stopLiveSync();
+        LateFeeSweeper.getInstance().stop();
+        AppExecutors.shutdown();
+    }
+
     public void changeScene(String fxml) throws IOException {
         // Use the full, absolute path here too
         FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/" + fxml));
         stg.getScene().setRoot(fxmlLoader.load());
     }
 
+    /**
+     * Picks the repository backend. Runs against an in-memory store (no Firebase) with
+     * -Ddorm.backend=memory; the Firestore client also honours FIRESTORE_EMULATOR_HOST.
+     */
+    private static boolean configureRepositories() {
+        if ("memory".equals(System.getProperty("dorm.backend"))) {
+            Repositories.useInMemory(InMemoryDatabase.withOwnerAccount());
+            System.out.println("Main using in-memory repositories; sign in as "
+                    + InMemoryDatabase.OWNER_USER_ID + " / " + InMemoryDatabase.OWNER_PASSWORD + ".");
+            return true;
+        }
+        // Initialize Firebase
+        try {
+            FirebaseInit.initialize();
+            System.out.println("Main connected to Firebase.");
+            // This line is fine as it confirms the DB is ready
+            Firestore db = FirebaseInit.getDatabase();
+            Repositories.useFirestore(db);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to initialize Firebase: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Headless billing: {@code --billing [--threads=N]} generates missing invoices for all
+     * active contracts, prints a throughput report and exits without opening a window.
+     */
+    private static void runBilling(String[] args) {
+        int threads = 8;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) threads = Integer.parseInt(arg.substring("--threads=".length()));
+        }
+        if (!configureRepositories()) System.exit(1);
+        try {
+            BillingJob.Report report = new BillingJob(threads).run(new Date());
+            System.out.println(report);
+            System.exit(0);
+        } catch (Exception e) {
+            System.err.println("Billing run failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Headless late-fee sweep: {@code --sweep} runs one sweep, prints its report and exits,
+     * e.g. from cron when no admin client is open.
+     */
+    private static void runSweep() {
+        if (!configureRepositories()) System.exit(1);
+        try {
+            System.out.println(LateFeeSweeper.getInstance().sweep(new Date()));
+            System.exit(0);
+        } catch (Exception e) {
+            System.err.println("Late-fee sweep failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /** Headless one-time backfill: {@code --migrate-occupancy} writes occupantCount on every room. */
+    private static void runOccupancyMigration() {
+        if (!configureRepositories()) System.exit(1);
+        try {
+            int rooms = RoomAssignmentService.getInstance().migrateOccupantCounts().get();
+            System.out.println("Occupancy migration: occupantCount written on " + rooms + " rooms");
+            System.exit(0);
+        } catch (Exception e) {
+            System.err.println("Occupancy migration failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--billing")) {
+            runBilling(args);
+            return;
+        }
+        if (Arrays.asList(args).contains("--sweep")) {
+            runSweep();
+            return;
+        }
+        if (Arrays.asList(args).contains("--migrate-occupancy")) {
+            runOccupancyMigration();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--allocation-benchmark")) {
+            int requests = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+            int rooms = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+            AllocationBenchmark.run(requests, rooms);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--hash-benchmark")) {
+            int[] costs = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) costs[i - 1] = Integer.parseInt(args[i]);
+            PasswordHashBenchmark.run(costs);
+            return;
+        }
         launch();
     }
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.dtdt.DormManager.controller;
 
 import com.dtdt.DormManager.model.Tenant;
-import com.dtdt.DormManager.model.User; // To use User.hashPassword
-import com.dtdt.DormManager.controller.config.FirebaseInit;
-import com.google.cloud.firestore.Firestore;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.LoginService;
+import com.dtdt.DormManager.service.PasswordService;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -18,10 +21,8 @@ public class ChangePasswordDialogController {
     @FXML private Label errorMessageLabel;
 
     private Tenant currentTenant;
-    private Firestore db;
 
     public void initialize() {
-        db = FirebaseInit.db;
         errorMessageLabel.managedProperty().bind(errorMessageLabel.visibleProperty());
     }
 
@@ -56,49 +57,64 @@ public class ChangePasswordDialogController {
             return;
         }
 
-        // 2. Verify current password
-        String hashedCurrentPasswordInput = User.hashPassword(currentPassword);
-        if (!currentTenant.getPasswordHash().equals(hashedCurrentPasswordInput)) {
-            errorMessageLabel.setText("Incorrect current password.");
+        if (currentTenant == null) {
+            errorMessageLabel.setText("Tenant not set.");
             errorMessageLabel.setVisible(true);
             return;
         }
 
-        // 3. Hash the new password
-        String hashedNewPassword = User.hashPassword(newPassword);
-
-        // 4. Update password in Firebase
-        if (db != null && currentTenant != null) {
-            db.collection("users").document(currentTenant.getUserId())
-                    .update("passwordHash", hashedNewPassword)
-                    .addListener(() -> {
-                        // This runs after the update is attempted
-                        try {
-                            // Wait for the update to complete
-                            db.collection("users").document(currentTenant.getUserId())
-                                .update("passwordHash", hashedNewPassword).get(); // .get() waits for completion
-
-                            // Update the in-memory tenant object
-                            currentTenant.setPasswordHash(hashedNewPassword); 
-
-                            // Show success message and close dialog
-                            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                            alert.setTitle("Success");
-                            alert.setHeaderText(null);
-                            alert.setContentText("Your password has been changed successfully.");
-                            alert.showAndWait();
-                            closeDialog();
-
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            errorMessageLabel.setText("Failed to change password: " + e.getMessage());
-                            errorMessageLabel.setVisible(true);
-                        }
-                    }, javafx.application.Platform::runLater); // Run UI updates on JavaFX thread
-        } else {
-            errorMessageLabel.setText("Database not initialized or tenant not set.");
-            errorMessageLabel.setVisible(true);
-        }
+        // 2. Verify current password and hash the new one on the hashing pool
+        PasswordService passwords = PasswordService.getInstance();
+        ApiFuture<String> newHash = ApiFutures.transformAsync(
+                passwords.verifyAsync(currentPassword, currentTenant.getPasswordHash()),
+                verification -> verification.isMatched()
+                        ? passwords.hashAsync(newPassword)
+                        : ApiFutures.immediateFuture(null),
+                AppExecutors.cpu());
+
+        newHash.addListener(() -> {
+            try {
+                String hashedNewPassword = newHash.get();
+                if (hashedNewPassword == null) {
+                    errorMessageLabel.setText("Incorrect current password.");
+                    errorMessageLabel.setVisible(true);
+                    return;
+                }
+                savePasswordHash(hashedNewPassword);
+            } catch (Exception e) {
+                e.printStackTrace();
+                errorMessageLabel.setText("Failed to change password: " + e.getMessage());
+                errorMessageLabel.setVisible(true);
+            }
+        }, AppExecutors.fx());
+    }
+
+    // 3. Update password in the database
+    private void savePasswordHash(String hashedNewPassword) {
+        var future = Repositories.users().updatePasswordHash(currentTenant.getUserId(), hashedNewPassword);
+        future.addListener(() -> {
+                    // This runs after the update is attempted
+                    try {
+                        future.get(); // Surfaces any write failure
+
+                        // Update the in-memory tenant object
+                        currentTenant.setPasswordHash(hashedNewPassword);
+                        LoginService.getInstance().forget(currentTenant);
+
+                        // Show success message and close dialog
+                        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                        alert.setTitle("Success");
+                        alert.setHeaderText(null);
+                        alert.setContentText("Your password has been changed successfully.");
+                        alert.showAndWait();
+                        closeDialog();
+
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        errorMessageLabel.setText("Failed to change password: " + e.getMessage());
+                        errorMessageLabel.setVisible(true);
+                    }
+                }, AppExecutors.fx()); // Run UI updates on JavaFX thread
     }
 
     @FXML
@@ -4,9 +4,6 @@ import com.dtdt.DormManager.Main;
 import com.dtdt.DormManager.model.Contract;
 import com.dtdt.DormManager.model.Tenant;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -15,8 +12,9 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
 import javafx.stage.Stage;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
 import com.dtdt.DormManager.controller.TenantProfileController;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.DocumentCache;
 
 import java.io.IOException;
 import java.text.NumberFormat;
@@ -70,15 +68,12 @@ public class ContractViewController {
             return;
         }
 
-        Firestore db = FirebaseInit.db;
-        DocumentReference docRef = db.collection("contracts").document(contractId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
+        ApiFuture<Contract> future = DocumentCache.getInstance().contract(contractId);
 
         future.addListener(() -> {
             try {
-                DocumentSnapshot document = future.get();
-                if (document.exists()) {
-                    Contract contract = document.toObject(Contract.class);
+                Contract contract = future.get();
+                if (contract != null) {
                     Platform.runLater(() -> populateContractFields(contract));
                 } else {
                     Platform.runLater(() -> setAllLabels("Contract not found."));
@@ -87,7 +82,7 @@ public class ContractViewController {
                 e.printStackTrace();
                 Platform.runLater(() -> setAllLabels("Error loading contract."));
             }
-        }, Runnable::run);
+        }, AppExecutors.io());
     }
 
     private void populateContractFields(Contract contract) {
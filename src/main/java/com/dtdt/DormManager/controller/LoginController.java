@@ -12,16 +12,18 @@ import javafx.scene.control.TextField;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import java.io.IOException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import com.dtdt.DormManager.model.Admin;
 import com.dtdt.DormManager.controller.admin.AdminDashboardController;
 import com.dtdt.DormManager.model.Tenant;
 import com.dtdt.DormManager.model.User;
 import com.dtdt.DormManager.Main;
-import com.dtdt.DormManager.controller.config.FirebaseInit; // Import Firebase
-import com.google.cloud.firestore.Firestore;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.DocumentCache;
+import com.dtdt.DormManager.service.LoginService;
+import com.dtdt.DormManager.service.PasswordService;
+import com.google.api.core.ApiFuture;
 // Unused imports from sign-up have been removed
 
 public class LoginController {
@@ -64,102 +66,121 @@ public class LoginController {
         String idInput = studentIdField.getText() == null ? "" : studentIdField.getText().trim();
         String emailInput = emailFieldLogin.getText() == null ? "" : emailFieldLogin.getText().trim();
         String pwInput = passwordFieldLogin.getText() == null ? "" : passwordFieldLogin.getText().trim();
+        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
 
-        Firestore db = FirebaseInit.db;
-        if (db == null) {
+        ApiFuture<User> lookup;
+        try {
+            // ID and email lookups go out together; nothing here blocks the JavaFX thread
+            lookup = LoginService.getInstance().findUser(idInput, emailInput);
+        } catch (IllegalStateException e) {
             loginErrorLabel.setText("Database connection not established.");
             loginErrorLabel.setVisible(true);
             return;
         }
 
-        try {
-            com.google.cloud.firestore.QuerySnapshot querySnapshot;
-
-            // --- THIS IS THE NEW, SMARTER LOGIC ---
-
-            // 1. Try to find user by Student ID first
-            if (!idInput.isEmpty()) {
-                querySnapshot = db.collection("users").whereEqualTo("userId", idInput).get().get();
-            } else {
-                // If ID is empty, create an empty snapshot
-                querySnapshot = null;
-            }
-
-            // 2. If no user was found with the ID, AND the email field is not empty, try email
-            if ((querySnapshot == null || querySnapshot.getDocuments().isEmpty()) && !emailInput.isEmpty()) {
-                System.out.println("No user found with ID. Trying email...");
-                querySnapshot = db.collection("users").whereEqualTo("email", emailInput).get().get();
-            }
-
-            // --- END NEW LOGIC ---
-
-            // 3. If we still have no user, then fail
-            if (querySnapshot == null || querySnapshot.getDocuments().isEmpty()) {
-                loginErrorLabel.setText("Invalid Credentials (user not found)");
+        signInButton.setDisable(true);
+        loginErrorLabel.setVisible(false);
+        lookup.addListener(() -> {
+            signInButton.setDisable(false);
+            try {
+                User user = lookup.get();
+
+                // 1. If we have no user, then fail
+                if (user == null) {
+                    loginErrorLabel.setText("Invalid Credentials (user not found)");
+                    loginErrorLabel.setVisible(true);
+                    return;
+                }
+
+                // 2. Verify password on the hashing pool
+                verifyPassword(user, pwInput, stage);
+
+            } catch (Exception e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                System.err.println("--- LOGIN FAILED ---");
+                System.err.println("Error type: " + cause.getClass().getName());
+                System.err.println("Error message: " + cause.getMessage());
+                e.printStackTrace();
+
+                loginErrorLabel.setText("Login failed: " + cause.getMessage());
                 loginErrorLabel.setVisible(true);
-                return;
             }
+        }, AppExecutors.fx());
+    }
 
-            // 4. Get the user document and verify password
-            var userDoc = querySnapshot.getDocuments().get(0);
-            String storedPasswordHash = userDoc.getString("passwordHash");
-
-            String inputPasswordHash = User.hashPassword(pwInput);
-            //System.out.println("Password Hash: " + inputPasswordHash);
-            //for debug check pass hash
-
-            if (storedPasswordHash == null || !storedPasswordHash.equals(inputPasswordHash)) {
-                loginErrorLabel.setText("Invalid Credentials (password mismatch)");
+    private void verifyPassword(User user, String pwInput, Stage stage) {
+        signInButton.setDisable(true);
+        ApiFuture<PasswordService.Verification> check =
+                PasswordService.getInstance().verifyAsync(pwInput, user.getPasswordHash());
+        check.addListener(() -> {
+            signInButton.setDisable(false);
+            try {
+                PasswordService.Verification verification = check.get();
+                if (!verification.isMatched()) {
+                    loginErrorLabel.setText("Invalid Credentials (password mismatch)");
+                    loginErrorLabel.setVisible(true);
+                    return;
+                }
+                if (verification.getUpgradedHash() != null) upgradePasswordHash(user, verification.getUpgradedHash());
+
+                // 3. Authentication successful! Route the user based on their role.
+                openDashboard(user, stage);
+            } catch (Exception e) {
+                e.printStackTrace();
+                loginErrorLabel.setText("Login failed: " + e.getMessage());
                 loginErrorLabel.setVisible(true);
-                return;
             }
+        }, AppExecutors.fx());
+    }
 
-            // 5. Authentication successful! Check user's role.
-            String userType = userDoc.getString("userType");
-            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            loginErrorLabel.setVisible(false);
-
-            // 6. Route user based on their role
-            if ("Admin".equals(userType) || "Owner".equals(userType)) {
-                // --- LOAD ADMIN DASHBOARD ---
-                Admin admin = userDoc.toObject(Admin.class);
+    /** Replaces a legacy or lower-cost hash; sign-in doesn't wait for the write. */
+    private void upgradePasswordHash(User user, String upgradedHash) {
+        ApiFuture<Void> update = Repositories.users().updatePasswordHash(user.getDocumentId(), upgradedHash);
+        update.addListener(() -> {
+            try {
+                update.get();
+                user.setPasswordHash(upgradedHash);
+            } catch (Exception e) {
+                System.err.println("Could not upgrade password hash: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, AppExecutors.io());
+    }
 
-                FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/admin/admin-dashboard.fxml"));
-                Parent root = loader.load();
+    private void openDashboard(User user, Stage stage) throws IOException {
+        DocumentCache.getInstance().clear(); // New session; don't reuse the previous user's reads
+        String userType = user.getUserType();
 
-                AdminDashboardController controller = loader.getController();
-                controller.initData(admin);
+        if ("Admin".equals(userType) || "Owner".equals(userType)) {
+            // --- LOAD ADMIN DASHBOARD ---
+            Admin admin = (Admin) user;
 
-                stage.getScene().setRoot(root);
-                stage.setTitle("Admin Dashboard");
-                stage.sizeToScene();
-                stage.centerOnScreen();
+            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/admin/admin-dashboard.fxml"));
+            Parent root = loader.load();
 
-            } else if ("Tenant".equals(userType)) {
-                // --- LOAD TENANT DASHBOARD ---
-                Tenant tenant = userDoc.toObject(Tenant.class);
+            AdminDashboardController controller = loader.getController();
+            controller.initData(admin);
 
-                FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/tenant-dashboard.fxml"));
-                Parent root = loader.load();
+            stage.getScene().setRoot(root);
+            stage.setTitle("Admin Dashboard");
+            stage.sizeToScene();
+            stage.centerOnScreen();
 
-                TenantDashboardController controller = loader.getController();
-                controller.initData(tenant);
+        } else if ("Tenant".equals(userType)) {
+            // --- LOAD TENANT DASHBOARD ---
+            Tenant tenant = (Tenant) user;
 
-                stage.getScene().setRoot(root);
-                stage.setTitle("Tenant Dashboard");
+            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/tenant-dashboard.fxml"));
+            Parent root = loader.load();
 
-            } else {
-                loginErrorLabel.setText("User account is not configured correctly.");
-                loginErrorLabel.setVisible(true);
-            }
+            TenantDashboardController controller = loader.getController();
+            controller.initData(tenant);
 
-        } catch (Exception e) {
-            System.err.println("--- LOGIN FAILED ---");
-            System.err.println("Error type: " + e.getClass().getName());
-            System.err.println("Error message: " + e.getMessage());
-            e.printStackTrace();
+            stage.getScene().setRoot(root);
+            stage.setTitle("Tenant Dashboard");
 
-            loginErrorLabel.setText("Login failed: " + e.getMessage());
+        } else {
+            loginErrorLabel.setText("User account is not configured correctly.");
             loginErrorLabel.setVisible(true);
         }
     }
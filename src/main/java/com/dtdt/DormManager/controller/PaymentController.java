@@ -5,13 +5,12 @@ import com.dtdt.DormManager.model.Contract;
 import com.dtdt.DormManager.model.Invoice;
 import com.dtdt.DormManager.model.Room;
 import com.dtdt.DormManager.model.Tenant;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.BillingService;
+import com.dtdt.DormManager.service.DocumentCache;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QuerySnapshot;
-import javafx.application.Platform;
+import com.google.api.core.ApiFutures;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -35,7 +34,6 @@ import java.util.*;
 
 // --- ADD THESE IMPORTS ---
 import com.dtdt.DormManager.controller.TenantProfileController;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
 import javafx.scene.layout.Priority;
 // --- END IMPORTS ---
 
@@ -44,12 +42,10 @@ public class PaymentController {
     private Tenant currentTenant;
     private Contract currentContract;
     private Room currentRoom;
-    private final Firestore db = FirebaseInit.db;
     private final List<Invoice> invoiceList = new ArrayList<>();
 
     // Formatters
     private final SimpleDateFormat dateFormatter = new SimpleDateFormat("MMMM dd, yyyy");
-    private final SimpleDateFormat monthYearFormatter = new SimpleDateFormat("MMMM yyyy");
     private final NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(new Locale("en", "PH"));
 
     // === FXML Header Components ===
@@ -92,34 +88,26 @@ public class PaymentController {
             return;
         }
 
-        DocumentReference contractRef = db.collection("contracts").document(currentTenant.getContractID());
-        ApiFuture<DocumentSnapshot> contractFuture = contractRef.get();
+        // Usually already read by the dashboard; both come from the document cache
+        DocumentCache documents = DocumentCache.getInstance();
+        ApiFuture<Contract> contractFuture = documents.contract(currentTenant.getContractID());
+        ApiFuture<Room> roomFuture = currentTenant.getRoomID() == null
+                ? ApiFutures.immediateFuture(null)
+                : documents.room(currentTenant.getRoomID());
 
-        contractFuture.addListener(() -> {
+        ApiFutures.allAsList(List.of(contractFuture, roomFuture)).addListener(() -> {
             try {
-                DocumentSnapshot contractDoc = contractFuture.get();
-                if (contractDoc.exists()) {
-                    this.currentContract = contractDoc.toObject(Contract.class);
-
-                    DocumentReference roomRef = db.collection("rooms").document(currentTenant.getRoomID());
-                    ApiFuture<DocumentSnapshot> roomFuture = roomRef.get();
-                    roomFuture.addListener(() -> {
-                        try {
-                            DocumentSnapshot roomDoc = roomFuture.get();
-                            if (roomDoc.exists()) {
-                                this.currentRoom = roomDoc.toObject(Room.class);
-                            }
-                            Platform.runLater(() -> {
-                                populateHeader();
-                                loadBillingHistory();
-                            });
-                        } catch (Exception e) { e.printStackTrace(); }
-                    }, Runnable::run);
+                Contract contract = contractFuture.get();
+                if (contract != null) {
+                    this.currentContract = contract;
+                    this.currentRoom = roomFuture.get();
+                    populateHeader();
+                    loadBillingHistory();
                 } else {
-                    Platform.runLater(() -> billingHistoryVBox.getChildren().add(new Label("Error: Contract not found.")));
+                    billingHistoryVBox.getChildren().add(new Label("Error: Contract not found."));
                 }
             } catch (Exception e) { e.printStackTrace(); }
-        }, Runnable::run);
+        }, AppExecutors.fxBatched());
     }
 
     private void populateHeader() {
@@ -146,130 +134,59 @@ public class PaymentController {
         billingHistoryVBox.getChildren().clear();
         invoiceList.clear();
 
-        ApiFuture<QuerySnapshot> future = db.collection("invoices")
-                .whereEqualTo("tenantId", currentTenant.getUserId())
-                .get();
+        ApiFuture<List<Invoice>> future = Repositories.invoices().findByTenant(currentTenant.getUserId());
 
         future.addListener(() -> {
             try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                if (documents.isEmpty()) {
+                List<Invoice> invoices = future.get();
+                if (invoices.isEmpty()) {
                     System.out.println("No invoices found, generating...");
                     generateInvoices();
                 } else {
-                    System.out.println("Found " + documents.size() + " invoices.");
-                    for (QueryDocumentSnapshot doc : documents) {
-                        invoiceList.add(doc.toObject(Invoice.class));
-                    }
-                    Platform.runLater(this::displayInvoices);
+                    System.out.println("Found " + invoices.size() + " invoices.");
+                    invoiceList.addAll(invoices);
+                    displayInvoices();
                 }
             } catch (Exception e) { e.printStackTrace(); }
-        }, Runnable::run);
+        }, AppExecutors.fxBatched());
     }
 
     /**
-     * [FIXED] Generates invoices based on contract type.
+     * Generates the contract's invoice schedule in a single batched write and shows it
+     * once the batch has committed.
      */
     private void generateInvoices() {
-        List<Invoice> newInvoices = new ArrayList<>();
-        String contractType = currentContract.getContractType();
-
-        // --- THIS IS THE NEW LOGIC ---
-        if ("Monthly".equalsIgnoreCase(contractType)) {
-            // --- 1. MONTHLY PAYMENT LOGIC ---
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(currentContract.getStartDate());
-            Date endDate = currentContract.getEndDate();
-
-            while (cal.getTime().before(endDate) || cal.getTime().equals(endDate)) {
-                String monthYear = monthYearFormatter.format(cal.getTime());
-                cal.set(Calendar.DAY_OF_MONTH, 5);
-                Date dueDate = cal.getTime();
-
-                Invoice invoice = new Invoice();
-                invoice.setId(UUID.randomUUID().toString());
-                invoice.setTenantId(currentTenant.getUserId());
-                invoice.setContractId(currentContract.getId());
-                invoice.setMonthYear(monthYear);
-                invoice.setRentAmount(currentContract.getRentAmount());
-                invoice.setLateFee(0);
-                invoice.setTotalAmount(currentContract.getRentAmount());
-                invoice.setDueDate(dueDate);
-                invoice.setStatus("Pending");
-
-                newInvoices.add(invoice);
-                db.collection("invoices").document(invoice.getId()).set(invoice);
-
-                cal.set(Calendar.DAY_OF_MONTH, 1);
-                cal.add(Calendar.MONTH, 1);
+        ApiFuture<List<Invoice>> future = BillingService.getInstance().generateInvoices(currentContract, currentTenant.getUserId());
+        future.addListener(() -> {
+            try {
+                List<Invoice> newInvoices = future.get();
+                invoiceList.addAll(newInvoices);
+                displayInvoices();
+            } catch (Exception e) {
+                e.printStackTrace();
+                billingHistoryVBox.getChildren().add(new Label("Error: Could not generate invoices."));
             }
-        } else {
-            // --- 2. FULL PAYMENT (SEMESTERLY) LOGIC ---
-            double totalRent = currentContract.getRentAmount() * 6; // Rate x 6 months
-
-            // Set due date to the 5th of the start month
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(currentContract.getStartDate());
-            cal.set(Calendar.DAY_OF_MONTH, 5);
-            Date dueDate = cal.getTime();
-
-            // Create a descriptive name
-            String monthYear = "Full Semester (" +
-                    monthYearFormatter.format(currentContract.getStartDate()) + " - " +
-                    monthYearFormatter.format(currentContract.getEndDate()) + ")";
-
-            Invoice invoice = new Invoice();
-            invoice.setId(UUID.randomUUID().toString());
-            invoice.setTenantId(currentTenant.getUserId());
-            invoice.setContractId(currentContract.getId());
-            invoice.setMonthYear(monthYear);
-            invoice.setRentAmount(totalRent);
-            invoice.setLateFee(0);
-            invoice.setTotalAmount(totalRent);
-            invoice.setDueDate(dueDate);
-            invoice.setStatus("Pending");
-
-            newInvoices.add(invoice);
-            db.collection("invoices").document(invoice.getId()).set(invoice);
-        }
-        // --- END OF NEW LOGIC ---
-
-        invoiceList.addAll(newInvoices);
-        Platform.runLater(this::displayInvoices);
+        }, AppExecutors.fxBatched());
     }
 
     /**
-     * Renders the list of invoices to the UI, checking for late fees.
+     * Renders the list of invoices to the UI. Late fees are applied by LateFeeSweeper,
+     * so this only reads.
      */
     private void displayInvoices() {
-        billingHistoryVBox.getChildren().clear();
-        receiptComboBox.getItems().clear();
-
-        Date today = new Date();
+        List<Invoice> paid = new ArrayList<>();
+        List<Node> cards = new ArrayList<>(invoiceList.size());
 
         for (Invoice invoice : invoiceList) {
-            // Check for late fees
-            if (("Pending".equals(invoice.getStatus()) || "Overdue".equals(invoice.getStatus())) && today.after(invoice.getDueDate())) {
-                if (invoice.getLateFee() == 0) { // Only apply late fee once
-                    double rent = invoice.getRentAmount();
-                    double lateFee = rent * 0.10; // 10% late fee
-                    double newTotal = invoice.getTotalAmount() + lateFee;
-
-                    invoice.setLateFee(lateFee);
-                    invoice.setTotalAmount(newTotal);
-                    invoice.setStatus("Overdue");
-
-                    // Update this in Firebase
-                    db.collection("invoices").document(invoice.getId()).update("status", "Overdue", "lateFee", lateFee, "totalAmount", newTotal);
-                }
-            }
-
             if ("Paid".equals(invoice.getStatus())) {
-                receiptComboBox.getItems().add(invoice);
+                paid.add(invoice);
             }
 
-            billingHistoryVBox.getChildren().add(createInvoiceCard(invoice));
+            cards.add(createInvoiceCard(invoice));
         }
+        // One change each, instead of one per invoice
+        receiptComboBox.getItems().setAll(paid);
+        billingHistoryVBox.getChildren().setAll(cards);
     }
 
     private HBox createInvoiceCard(Invoice invoice) {
@@ -324,9 +241,8 @@ public class PaymentController {
             updates.put("status", "Paid");
             updates.put("datePaid", new Date());
 
-            db.collection("invoices").document(invoice.getId()).update(updates).addListener(() -> {
-                Platform.runLater(this::loadBillingHistory);
-            }, Runnable::run);
+            Repositories.invoices().update(invoice.getId(), updates)
+                    .addListener(this::loadBillingHistory, AppExecutors.fxBatched());
         }
     }
 
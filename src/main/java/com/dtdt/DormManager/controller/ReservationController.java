@@ -2,7 +2,6 @@ package com.dtdt.DormManager.controller;
 
 import com.dtdt.DormManager.Main;
 import com.dtdt.DormManager.model.Reservation;
-import com.google.cloud.firestore.Firestore;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -11,7 +10,7 @@ import java.io.IOException;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.UUID;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
+import com.dtdt.DormManager.repository.Repositories;
 
 public class ReservationController {
 
@@ -93,10 +92,10 @@ public class ReservationController {
             );
             newReservation.setStatus("Pending"); // Default status
 
-            // 2. Save to 'reservations' collection in Firebase
-            Firestore db = FirebaseInit.db;
+            // 2. Save to 'reservations' collection
             String reservationId = UUID.randomUUID().toString();
-            db.collection("reservations").document(reservationId).set(newReservation).get();
+            newReservation.setId(reservationId);
+            Repositories.reservations().save(newReservation).get();
 
             // 3. Show success and clear form
             System.out.println("Reservation submitted successfully: " + reservationId);
@@ -1,21 +1,20 @@
 package com.dtdt.DormManager.controller;
 
 import com.dtdt.DormManager.Main;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
 import com.dtdt.DormManager.controller.TenantProfileController;
 import com.dtdt.DormManager.model.Announcement;
 import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.MaintenanceRequest;
 import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.Repositories;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
-import javafx.application.Platform;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.UUID;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
 import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.TenantDashboardData;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -35,7 +34,6 @@ import java.text.SimpleDateFormat;
 public class TenantDashboardController {
 
     private Tenant currentTenant;
-    private final Firestore db = FirebaseInit.db;
     private final SimpleDateFormat dateFormatter = new SimpleDateFormat("MMMM dd, yyyy");
 
     // === FXML Components ===
@@ -60,82 +58,59 @@ public class TenantDashboardController {
         tenantEmailLabel.setText(currentTenant.getEmail());
 
         // 2. Load dynamic/linked data
-        loadLinkedData();
-        loadAnnouncements();
-        loadMaintenanceRequestsFromFirebase();
+        loadDashboardData();
     }
 
-    private void loadLinkedData() {
-        // --- 1. Load Room Info ---
-        if (currentTenant.getRoomID() != null) {
-            DocumentReference roomRef = db.collection("rooms").document(currentTenant.getRoomID());
+    private void loadDashboardData() {
+        ApiFuture<TenantDashboardData> future = TenantDashboardData.load(currentTenant);
+        future.addListener(() -> {
+            try {
+                applyDashboardData(future.get());
+            } catch (Exception e) {
+                System.err.println("Error loading dashboard: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, AppExecutors.fxBatched());
+    }
 
-            // --- FIX 1: Changed 'future ->' to '() ->' ---
-            roomRef.get().addListener(() -> {
-                try {
-                    DocumentSnapshot doc = roomRef.get().get(); // Get result
-                    if (doc.exists()) {
-                        Room room = doc.toObject(Room.class);
-                        Platform.runLater(() -> {
-                            buildingLabel.setText(room.getBuildingName());
-                            roomLabel.setText("Room " + room.getRoomNumber());
-                        });
-                    }
-                } catch (Exception e) { e.printStackTrace(); }
-            }, Runnable::run);
-        } else {
+    /** Fills every section at once, so the dashboard lays out in a single pass. */
+    private void applyDashboardData(TenantDashboardData data) {
+        // --- 1. Room Info ---
+        Room room = data.getRoom();
+        if (room != null) {
+            buildingLabel.setText(room.getBuildingName());
+            roomLabel.setText("Room " + room.getRoomNumber());
+        } else if (currentTenant.getRoomID() == null) {
             buildingLabel.setText("N/A");
             roomLabel.setText("Not Assigned");
         }
 
-        // --- 2. Load Contract Info ---
-        if (currentTenant.getContractID() != null) {
-            DocumentReference contractRef = db.collection("contracts").document(currentTenant.getContractID());
-
-            // --- FIX 2: Changed 'future ->' to '() ->' ---
-            contractRef.get().addListener(() -> {
-                try {
-                    DocumentSnapshot doc = contractRef.get().get(); // Get result
-                    if (doc.exists()) {
-                        Contract contract = doc.toObject(Contract.class);
-                        Platform.runLater(() -> {
-                            contractTypeLabel.setText(contract.getContractType());
-                            String dates = dateFormatter.format(contract.getStartDate()) + " - " +
-                                    dateFormatter.format(contract.getEndDate());
-                            contractDatesLabel.setText(dates);
-                        });
-                    }
-                } catch (Exception e) { e.printStackTrace(); }
-            }, Runnable::run);
-        } else {
+        // --- 2. Contract Info ---
+        Contract contract = data.getContract();
+        if (contract != null) {
+            contractTypeLabel.setText(contract.getContractType());
+            String dates = dateFormatter.format(contract.getStartDate()) + " - " +
+                    dateFormatter.format(contract.getEndDate());
+            contractDatesLabel.setText(dates);
+        } else if (currentTenant.getContractID() == null) {
             contractTypeLabel.setText("No Contract");
             contractDatesLabel.setText("N/A");
         }
-    }
 
-    private void loadAnnouncements() {
-        announcementsVBox.getChildren().clear();
-
-        ApiFuture<QuerySnapshot> future = db.collection("announcements")
-                .orderBy("datePosted", Query.Direction.DESCENDING)
-                .limit(5)
-                .get();
+        // --- 3. Announcements ---
+        List<Node> announcementCards = new ArrayList<>();
+        for (Announcement ann : data.getAnnouncements()) {
+            announcementCards.add(createAnnouncementCard(ann));
+        }
+        if (announcementCards.isEmpty()) announcementCards.add(new Label("No announcements right now."));
+        announcementsVBox.getChildren().setAll(announcementCards);
 
-        future.addListener(() -> {
-            try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                Platform.runLater(() -> {
-                    if (documents.isEmpty()) {
-                        announcementsVBox.getChildren().add(new Label("No announcements right now."));
-                        return;
-                    }
-                    for (QueryDocumentSnapshot document : documents) {
-                        Announcement ann = document.toObject(Announcement.class);
-                        announcementsVBox.getChildren().add(createAnnouncementCard(ann));
-                    }
-                });
-            } catch (Exception e) { e.printStackTrace(); }
-        }, Runnable::run);
+        // --- 4. Maintenance History ---
+        List<Node> maintenanceCards = new ArrayList<>();
+        for (MaintenanceRequest request : data.getMaintenanceRequests()) {
+            maintenanceCards.add(createMaintenanceCard(request));
+        }
+        maintenanceVBox.getChildren().addAll(maintenanceCards);
     }
 
     private VBox createAnnouncementCard(Announcement ann) {
@@ -239,26 +214,17 @@ public class TenantDashboardController {
 
     private void saveMaintenanceRequestToFirebase(com.dtdt.DormManager.controller.MaintenanceDialogController.MaintenanceResult result) {
         try {
-            Firestore db = FirebaseInit.db;
-            if (db == null) {
-                System.err.println("Firebase database not initialized");
-                return;
-            }
-
-            Map<String, Object> data = new HashMap<>();
-            data.put("type", result.type);
-            data.put("description", result.description);
-            data.put("dateSubmittedString", result.dateSubmitted);
-            data.put("dateSubmitted", new java.util.Date()); // Use java.util.Date
-            data.put("status", "Pending");
-            data.put("tenantId", currentTenant.getUserId());
-            data.put("roomId", currentTenant.getRoomID());
-
-            String docId = UUID.randomUUID().toString(); // This line needs java.util.UUID
-
-            ApiFuture<WriteResult> future = db.collection("maintenanceRequests")
-                    .document(docId)
-                    .set(data);
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setId(UUID.randomUUID().toString());
+            request.setType(result.type);
+            request.setIssueDescription(result.description);
+            request.setDateSubmittedString(result.dateSubmitted);
+            request.setDateSubmitted(new Date());
+            request.setStatus("Pending");
+            request.setTenantId(currentTenant.getUserId());
+            request.setRoomId(currentTenant.getRoomID());
+
+            ApiFuture<Void> future = Repositories.maintenance().save(request);
 
             future.addListener(() -> {
                 try {
@@ -268,75 +234,38 @@ public class TenantDashboardController {
                     System.err.println("Error saving maintenance request: " + e.getMessage());
                     e.printStackTrace();
                 }
-            }, Executors.newSingleThreadExecutor());
+            }, AppExecutors.io());
         } catch (Exception e) {
             System.err.println("Error in saveMaintenanceRequestToFirebase: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private void loadMaintenanceRequestsFromFirebase() {
-        try {
-            Firestore db = FirebaseInit.db;
-            if (db == null) {
-                System.err.println("Firebase database not initialized");
-                return;
-            }
+    private VBox createMaintenanceCard(MaintenanceRequest request) {
+        String type = request.getType();
+        String description = request.getIssueDescription();
+        String status = request.getStatus();
 
-            ApiFuture<QuerySnapshot> future = db.collection("maintenanceRequests")
-                    .whereEqualTo("tenantId", currentTenant.getUserId())
-                    .orderBy("dateSubmitted", Query.Direction.DESCENDING)
-                    .get();
+        Date date = request.getDateSubmitted();
+        String dateText = (date != null) ?
+                dateFormatter.format(date) :
+                request.getDateSubmittedString();
 
-            future.addListener(() -> {
-                try {
-                    QuerySnapshot snap = future.get();
-                    if (snap != null) {
-                        for (DocumentSnapshot doc : snap.getDocuments()) {
-                            try {
-                                String type = doc.getString("type");
-                                String description = doc.getString("description");
-                                String status = doc.getString("status");
-
-                                // This line needs java.util.Date
-                                Date date = doc.getDate("dateSubmitted");
-                                String dateText = (date != null) ?
-                                        dateFormatter.format(date) :
-                                        doc.getString("dateSubmittedString");
-
-                                Platform.runLater(() -> {
-                                    VBox card = new VBox();
-                                    card.setStyle("-fx-background-color: #EAEAEA; -fx-background-radius: 8; -fx-padding: 15;");
-                                    card.setSpacing(5);
-
-                                    Label dateLabel = new Label((status != null ? status : "Pending") + ": " + (dateText != null ? dateText : ""));
-                                    dateLabel.setStyle("-fx-text-fill: #1a1a1a; -fx-font-weight: bold;");
-
-                                    Label typeLabel = new Label(type != null ? type : "General Maintenance / Others");
-                                    typeLabel.setStyle("-fx-text-fill: #333333; -fx-font-weight: bold;");
-
-                                    Label descLabel = new Label(description != null ? description : "");
-                                    descLabel.setWrapText(true);
-                                    descLabel.setStyle("-fx-text-fill: #333333;");
-
-                                    card.getChildren().addAll(dateLabel, typeLabel, descLabel);
-                                    maintenanceVBox.getChildren().add(card);
-                                });
-
-                            } catch (Exception e) {
-                                System.err.println("Error parsing maintenance doc: " + e.getMessage());
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error loading maintenance requests: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }, Executors.newSingleThreadExecutor());
+        VBox card = new VBox();
+        card.setStyle("-fx-background-color: #EAEAEA; -fx-background-radius: 8; -fx-padding: 15;");
+        card.setSpacing(5);
 
-        } catch (Exception e) {
-            System.err.println("Error in loadMaintenanceRequestsFromFirebase: " + e.getMessage());
-            e.printStackTrace();
-        }
+        Label dateLabel = new Label((status != null ? status : "Pending") + ": " + (dateText != null ? dateText : ""));
+        dateLabel.setStyle("-fx-text-fill: #1a1a1a; -fx-font-weight: bold;");
+
+        Label typeLabel = new Label(type != null ? type : "General Maintenance / Others");
+        typeLabel.setStyle("-fx-text-fill: #333333; -fx-font-weight: bold;");
+
+        Label descLabel = new Label(description != null ? description : "");
+        descLabel.setWrapText(true);
+        descLabel.setStyle("-fx-text-fill: #333333;");
+
+        card.getChildren().addAll(dateLabel, typeLabel, descLabel);
+        return card;
     }
-}
\ No newline at end of file
+}
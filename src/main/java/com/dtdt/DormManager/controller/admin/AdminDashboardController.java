@@ -2,6 +2,11 @@ package com.dtdt.DormManager.controller.admin;
 
 import com.dtdt.DormManager.Main;
 import com.dtdt.DormManager.model.Admin;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.LateFeeSweeper;
+import com.dtdt.DormManager.service.RoomStore;
+import com.dtdt.DormManager.service.TenantStore;
+import com.dtdt.DormManager.service.TrendService;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -9,8 +14,25 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import java.io.IOException;
-
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin shell with a sidebar. Each view is loaded from FXML once and kept for the rest
+ * of the session; switching back to it shows the same nodes and lets the controller
+ * refresh what changed (see {@link RefreshableView}). After sign-in the remaining views
+ * are preloaded one per pulse unless {@code -Ddorm.preloadAdminViews=false}. The hourly
+ * late-fee sweep runs while an admin or owner is signed in.
+ */
 public class AdminDashboardController {
+    private static final List<String> PRELOADED_VIEWS = List.of(
+            "reservations-view.fxml", "rooms-view.fxml", "residents-view.fxml", "buildings-view.fxml",
+            "maintenance-view.fxml", "announcements-view.fxml");
+
     @FXML private Label adminNameLabel;
     @FXML private StackPane contentArea;
     @FXML private Button statsButton;
@@ -23,6 +45,9 @@ public class AdminDashboardController {
 
     private Admin currentAdmin;
     private Node currentContent;
+    // FXML file -> its loaded view, kept for the session
+    private final Map<String, LoadedView> views = new HashMap<>();
+    private boolean loggedOut; // Stops a preload still in progress from reopening views
 
     public void initData(Admin admin) {
         this.currentAdmin = admin;
@@ -47,6 +72,37 @@ public class AdminDashboardController {
             onReservationsClick();
         }
         // --- END OF NEW LOGIC ---
+
+        // Only staff sessions sweep late fees; tenant clients never write them
+        LateFeeSweeper.getInstance().start(1, TimeUnit.HOURS);
+
+        if (Boolean.parseBoolean(System.getProperty("dorm.preloadAdminViews", "true"))) {
+            preloadViews();
+        }
+    }
+
+    /** Loads the other views in the background, one per pulse so the UI stays responsive. */
+    private void preloadViews() {
+        Queue<String> remaining = new ArrayDeque<>(PRELOADED_VIEWS);
+        if ("Owner".equals(currentAdmin.getUserType())) remaining.add("stats-view.fxml");
+        preloadNext(remaining);
+    }
+
+    private void preloadNext(Queue<String> remaining) {
+        String fxmlFile = remaining.poll();
+        if (fxmlFile == null) return;
+        AppExecutors.fxBatched().execute(() -> {
+            if (loggedOut) return;
+            if (!views.containsKey(fxmlFile)) {
+                try {
+                    getOrLoadView(fxmlFile);
+                } catch (IOException | RuntimeException e) {
+                    // Not fatal; the view loads normally when it is opened
+                    System.err.println("Could not preload " + fxmlFile + ": " + e.getMessage());
+                }
+            }
+            preloadNext(remaining);
+        });
     }
 
     @FXML
@@ -98,20 +154,31 @@ public class AdminDashboardController {
 
     @FXML
     private void onLogoutClick() throws IOException {
+        // The stores and trends are process-wide; their listeners would outlive this session
+        loggedOut = true;
+        LateFeeSweeper.getInstance().stop();
+        RoomStore.getInstance().stopLiveSync();
+        TenantStore.getInstance().stopLiveSync();
+        TrendService.getInstance().stopLiveSync();
+        views.clear();
         Main main = new Main();
         main.changeScene("login-view.fxml");
     }
 
     private void loadView(String fxmlFile) {
         try {
-            // Use absolute resource path to avoid classloader issues
-            FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/admin/" + fxmlFile));
-            Node view = loader.load();
+            boolean cached = views.containsKey(fxmlFile);
+            LoadedView loaded = getOrLoadView(fxmlFile);
+            if (loaded.view == currentContent) return;
 
             // Clear previous content and set new content
-            contentArea.getChildren().clear();
-            contentArea.getChildren().add(view);
-            currentContent = view;
+            contentArea.getChildren().setAll(loaded.view);
+            currentContent = loaded.view;
+
+            // A fresh view has just run its own initial load
+            if (cached && loaded.controller instanceof RefreshableView) {
+                ((RefreshableView) loaded.controller).onShown();
+            }
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -123,6 +190,18 @@ public class AdminDashboardController {
         }
     }
 
+    private LoadedView getOrLoadView(String fxmlFile) throws IOException {
+        LoadedView loaded = views.get(fxmlFile);
+        if (loaded != null) return loaded;
+
+        // Use absolute resource path to avoid classloader issues
+        FXMLLoader loader = new FXMLLoader(Main.class.getResource("/com/dtdt/DormManager/view/admin/" + fxmlFile));
+        Node view = loader.load();
+        loaded = new LoadedView(view, loader.getController());
+        views.put(fxmlFile, loaded);
+        return loaded;
+    }
+
     private void setActiveButton(Button activeButton) {
         // Reset all buttons
         // This is safe even if statsButton is invisible
@@ -136,4 +215,14 @@ public class AdminDashboardController {
 
         activeButton.setStyle("-fx-background-color: #F4F7FC; -fx-alignment: CENTER_LEFT; -fx-font-weight: bold;");
     }
-}
\ No newline at end of file
+
+    private static final class LoadedView {
+        final Node view;
+        final Object controller;
+
+        LoadedView(Node view, Object controller) {
+            this.view = view;
+            this.controller = controller;
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package com.dtdt.DormManager.controller.admin;
 
-import com.dtdt.DormManager.controller.config.FirebaseInit;
 import com.dtdt.DormManager.model.Announcement;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -19,25 +16,34 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
-public class AnnouncementsViewController {
+public class AnnouncementsViewController implements RefreshableView {
 
     @FXML private TextField titleField;
     @FXML private TextArea contentArea;
     @FXML private Button postButton;
     @FXML private VBox announcementsListVBox;
 
-    private final Firestore db = FirebaseInit.db;
     private final SimpleDateFormat dateFormatter = new SimpleDateFormat("MMMM dd, yyyy 'at' hh:mm a");
+    // Announcement id -> its card, so a reload only builds cards for new announcements
+    private final Map<String, Node> cardsById = new HashMap<>();
 
     @FXML
     public void initialize() {
         loadAnnouncements();
     }
 
+    @Override
+    public void onShown() {
+        loadAnnouncements();
+    }
+
     @FXML
     private void onPostAnnouncementClick() {
         String title = titleField.getText();
@@ -55,43 +61,41 @@ public class AnnouncementsViewController {
         announcement.setContent(content);
         // datePosted will be set by @ServerTimestamp on the model
 
-        // Save to Firebase
-        db.collection("announcements").document(announcement.getId()).set(announcement)
+        // Save to the database
+        Repositories.announcements().save(announcement)
             .addListener(() -> {
-                Platform.runLater(() -> {
-                    // Clear fields and reload list
-                    titleField.clear();
-                    contentArea.clear();
-                    loadAnnouncements(); // Refresh the list
-                });
-            }, Runnable::run);
+                // Clear fields and reload list
+                titleField.clear();
+                contentArea.clear();
+                loadAnnouncements(); // Refresh the list
+            }, AppExecutors.fxBatched());
     }
 
     private void loadAnnouncements() {
-        announcementsListVBox.getChildren().clear();
-
         // Query to get announcements, ordered by date, newest first
-        ApiFuture<QuerySnapshot> future = db.collection("announcements")
-                                            .orderBy("datePosted", Query.Direction.DESCENDING)
-                                            .get();
-        
+        ApiFuture<List<Announcement>> future = Repositories.announcements().findRecent(0);
+
         future.addListener(() -> {
             try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                Platform.runLater(() -> {
-                    if (documents.isEmpty()) {
-                        announcementsListVBox.getChildren().add(new Label("No announcements found."));
-                    } else {
-                        for (QueryDocumentSnapshot document : documents) {
-                            Announcement ann = document.toObject(Announcement.class);
-                            announcementsListVBox.getChildren().add(createAnnouncementCard(ann));
-                        }
-                    }
-                });
+                showAnnouncements(future.get());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Runnable::run);
+        }, AppExecutors.fxBatched());
+    }
+
+    private void showAnnouncements(List<Announcement> announcements) {
+        Map<String, Node> previous = new HashMap<>(cardsById);
+        cardsById.clear();
+        List<Node> cards = new ArrayList<>(announcements.size());
+        for (Announcement ann : announcements) {
+            Node card = previous.get(ann.getId());
+            if (card == null) card = createAnnouncementCard(ann);
+            cardsById.put(ann.getId(), card);
+            cards.add(card);
+        }
+        if (cards.isEmpty()) cards.add(new Label("No announcements found."));
+        announcementsListVBox.getChildren().setAll(cards);
     }
 
     /**
@@ -141,14 +145,13 @@ public class AnnouncementsViewController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            // Delete from Firebase
-            db.collection("announcements").document(announcement.getId()).delete()
+            // Delete from the database
+            Repositories.announcements().delete(announcement.getId())
                 .addListener(() -> {
                     // Remove from UI on success
-                    Platform.runLater(() -> {
-                        announcementsListVBox.getChildren().remove(cardToRemove);
-                    });
-                }, Runnable::run);
+                    cardsById.remove(announcement.getId());
+                    announcementsListVBox.getChildren().remove(cardToRemove);
+                }, AppExecutors.fxBatched());
         }
     }
 
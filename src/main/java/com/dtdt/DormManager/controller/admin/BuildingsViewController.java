@@ -2,37 +2,53 @@ package com.dtdt.DormManager.controller.admin;
 
 import com.dtdt.DormManager.model.Building; // Import your new model
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.WriteResult;
 import javafx.application.Platform; // <-- VERY IMPORTANT for UI updates
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.geometry.Pos;
 import javafx.scene.image.ImageView;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import javafx.scene.Node;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import com.dtdt.DormManager.service.AppExecutors;
 import com.dtdt.DormManager.service.RoomStore;
 import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.service.StatsService;
+import com.dtdt.DormManager.repository.Repositories;
 import javafx.collections.ListChangeListener;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
+import javafx.collections.WeakListChangeListener;
 
-public class BuildingsViewController {
+public class BuildingsViewController implements RefreshableView {
     @FXML private VBox buildingsContainer;
     // Map buildingId -> {occupancyBox, availableBox}
     private final Map<String, VBox[]> buildingStats = new HashMap<>();
+    // Map buildingId -> card, so a reload only adds and removes what changed
+    private final Map<String, Node> buildingCards = new HashMap<>();
+    // Held here so the store only keeps a weak reference and closed views can be collected
+    private final ListChangeListener<Room> roomStoreListener = this::onRoomsChanged;
+    // Buildings touched since the last stats pass
+    private final Set<String> dirtyBuildings = new HashSet<>();
+
+    private boolean roomStoreAttached;
 
     @FXML
     public void initialize() {
         loadBuildings(); // This will now load from Firebase
     }
 
+    /** Room stats are live already; only the building list itself is re-read. */
+    @Override
+    public void onShown() {
+        loadBuildings();
+    }
+
     @FXML
     private void onAddBuildingClick() {
         Dialog<ButtonType> dialog = new Dialog<>();
@@ -62,22 +78,20 @@ public class BuildingsViewController {
                 Building newBuilding = new Building(name, floors, rooms);
 
                 // --- 2. Save to Firebase ---
-                // Create a new document with a random ID
-                DocumentReference docRef = FirebaseInit.db.collection("buildings").document(UUID.randomUUID().toString());
-                ApiFuture<WriteResult> future = docRef.set(newBuilding);
+                // The repository assigns a random ID before saving
+                ApiFuture<Void> future = Repositories.buildings().save(newBuilding);
 
                 // (Optional) You can add a listener to confirm it saved
                 future.addListener(() -> {
                     try {
-                        System.out.println("Building saved at: " + future.get().getUpdateTime());
-                        // Add to UI *after* saving, must use Platform.runLater
-                        Platform.runLater(() -> {
-                            addBuildingCard(newBuilding);
-                        });
+                        future.get();
+                        System.out.println("Building saved: " + newBuilding.getId());
+                        // Add to UI *after* saving, unless a reload already did
+                        if (!buildingCards.containsKey(newBuilding.getId())) addBuildingCard(newBuilding);
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
-                }, Runnable::run); // Use a simple executor
+                }, AppExecutors.fxBatched());
 
             } catch (NumberFormatException e) {
                 System.err.println("Invalid number format for floors or rooms.");
@@ -89,30 +103,39 @@ public class BuildingsViewController {
     }
 
     private void loadBuildings() {
-        buildingsContainer.getChildren().clear(); // Clear old data
-
         // --- 1. Asynchronously get all buildings ---
-        ApiFuture<QuerySnapshot> future = com.dtdt.DormManager.controller.config.FirebaseInit.db.collection("buildings").get();
+        ApiFuture<List<Building>> future = Repositories.buildings().findAll();
 
         // --- 2. Add a listener to run when data is retrieved ---
         future.addListener(() -> {
             try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-                // --- 3. IMPORTANT: Update UI on the JavaFX Application Thread ---
-                Platform.runLater(() -> {
-                    for (QueryDocumentSnapshot document : documents) {
-                        // Convert the Firebase document back into our Building object
-                        Building building = document.toObject(Building.class);
-                        addBuildingCard(building);
-                    }
-                    // Start listening for room changes so stats can update
-                    attachRoomStoreListener();
-                });
+                List<Building> buildings = future.get();
+
+                // --- 3. Add or remove cards in the same pulse ---
+                showBuildings(buildings);
+                // Start listening for room changes so stats can update
+                if (!roomStoreAttached) attachRoomStoreListener();
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Runnable::run); // Use a simple executor
+        }, AppExecutors.fxBatched()); // Runs on the JavaFX Application Thread
+    }
+
+    private void showBuildings(List<Building> buildings) {
+        Set<String> ids = new HashSet<>();
+        for (Building building : buildings) ids.add(building.getId());
+        for (String shownId : new ArrayList<>(buildingCards.keySet())) {
+            if (!ids.contains(shownId)) removeBuildingCard(shownId);
+        }
+        for (Building building : buildings) {
+            if (!buildingCards.containsKey(building.getId())) addBuildingCard(building);
+        }
+    }
+
+    private void removeBuildingCard(String buildingId) {
+        Node card = buildingCards.remove(buildingId);
+        buildingStats.remove(buildingId);
+        if (card != null) buildingsContainer.getChildren().remove(card);
     }
 
     /**
@@ -163,7 +186,7 @@ public class BuildingsViewController {
         more.getItems().addAll(
                 new MenuItem("Edit"),
                 // Pass the building ID to the delete function
-                createDeleteMenuItem(building.getId(), card)
+                createDeleteMenuItem(building.getId())
         );
         actions.getChildren().addAll(viewButton, more);
 
@@ -171,25 +194,46 @@ public class BuildingsViewController {
         card.getChildren().add(content);
 
         buildingsContainer.getChildren().add(card);
+        buildingCards.put(building.getId(), card);
         // Compute initial stats for this building
         updateStatsForBuilding(building.getId(), occupancyBox, availableBox);
+        if (RoomStore.getInstance().getOccupancy(building.getId()).getTotal() == 0) {
+            showStatsDocument(building.getId(), occupancyBox, availableBox);
+        }
+    }
+
+    /**
+     * Fills the card from buildingStats/{buildingId} while the room store is still syncing.
+     * Once the store has rooms for the building its live counters take over.
+     */
+    private void showStatsDocument(String buildingId, VBox occupancyBox, VBox availableBox) {
+        if (buildingId == null) return;
+        ApiFuture<StatsSummary> future = StatsService.getInstance().loadBuildingStats(buildingId);
+        future.addListener(() -> {
+            try {
+                StatsSummary stats = future.get();
+                if (stats == null || RoomStore.getInstance().getOccupancy(buildingId).getTotal() > 0) return;
+                long total = stats.getTotalRooms();
+                long occupied = stats.getOccupiedRooms();
+                setStatValue(occupancyBox, (total == 0 ? 0 : (occupied * 100) / total) + "%");
+                setStatValue(availableBox, String.valueOf(total - occupied));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, AppExecutors.fxBatched());
     }
 
     // Helper method to create a "Delete" menu item
-    private MenuItem createDeleteMenuItem(String documentId, Node cardToRemove) {
+    private MenuItem createDeleteMenuItem(String documentId) {
         MenuItem deleteItem = new MenuItem("Delete");
         deleteItem.setOnAction(e -> {
             // TODO: Add an "Are you sure?" confirmation dialog
 
             // Delete from Firebase
-            ApiFuture<WriteResult> deleteFuture = com.dtdt.DormManager.controller.config.FirebaseInit.db.collection("buildings").document(documentId).delete();
+            ApiFuture<Void> deleteFuture = Repositories.buildings().delete(documentId);
 
             // Add listener to remove from UI *after* successful delete
-            deleteFuture.addListener(() -> {
-                Platform.runLater(() -> {
-                    buildingsContainer.getChildren().remove(cardToRemove);
-                });
-            }, Runnable::run);
+            deleteFuture.addListener(() -> removeBuildingCard(documentId), AppExecutors.fxBatched());
         });
         return deleteItem;
     }
@@ -210,34 +254,60 @@ public class BuildingsViewController {
     }
 
     private void attachRoomStoreListener() {
+        roomStoreAttached = true;
         RoomStore store = RoomStore.getInstance();
-        store.getRooms().addListener((ListChangeListener<Room>) change -> {
-            while (change.next()) {
-                Platform.runLater(() -> {
-                    for (Map.Entry<String, VBox[]> entry : buildingStats.entrySet()) {
-                        String buildingId = entry.getKey();
-                        VBox occupancyBox = entry.getValue()[0];
-                        VBox availableBox = entry.getValue()[1];
-                        updateStatsForBuilding(buildingId, occupancyBox, availableBox);
-                    }
-                });
+        store.getRooms().addListener(new WeakListChangeListener<>(roomStoreListener));
+        // Subscribes on first visit; later visits reuse the already-synced rooms
+        store.startLiveSync();
+        refreshAllStats();
+    }
+
+    /**
+     * Marks only the buildings whose rooms changed and refreshes them once per burst.
+     */
+    private void onRoomsChanged(ListChangeListener.Change<? extends Room> change) {
+        boolean wasIdle = dirtyBuildings.isEmpty();
+        while (change.next()) {
+            for (Room r : change.getRemoved()) dirtyBuildings.add(r.getBuildingId());
+            if (change.wasAdded()) {
+                for (Room r : change.getAddedSubList()) dirtyBuildings.add(r.getBuildingId());
             }
-        });
+        }
+        if (wasIdle && !dirtyBuildings.isEmpty()) {
+            AppExecutors.fxBatched().execute(this::refreshDirtyStats);
+        }
+    }
+
+    private void refreshDirtyStats() {
+        for (String buildingId : dirtyBuildings) {
+            VBox[] boxes = buildingStats.get(buildingId);
+            if (boxes != null) updateStatsForBuilding(buildingId, boxes[0], boxes[1]);
+        }
+        dirtyBuildings.clear();
+    }
+
+    private void refreshAllStats() {
+        for (Map.Entry<String, VBox[]> entry : buildingStats.entrySet()) {
+            String buildingId = entry.getKey();
+            VBox occupancyBox = entry.getValue()[0];
+            VBox availableBox = entry.getValue()[1];
+            updateStatsForBuilding(buildingId, occupancyBox, availableBox);
+        }
     }
 
     private void updateStatsForBuilding(String buildingId, VBox occupancyBox, VBox availableBox) {
         if (buildingId == null) return;
-        List<Room> rooms = RoomStore.getInstance().getRoomsByBuilding(buildingId);
-        int total = rooms.size();
-        int occupied = 0;
-        for (Room r : rooms) if ("Occupied".equalsIgnoreCase(r.getStatus())) occupied++;
-        int available = total - occupied;
-        String occupancyRate = total == 0 ? "0%" : ((occupied * 100) / total) + "%";
-
-        // occupancyBox: children[1] is the value label per createInfoBox
-        Label occValue = (Label) occupancyBox.getChildren().get(1);
-        occValue.setText(occupancyRate);
-        Label availValue = (Label) availableBox.getChildren().get(1);
-        availValue.setText(String.valueOf(available));
+        // Counters are maintained by the store, so this is constant time per building
+        RoomStore.BuildingOccupancy occupancy = RoomStore.getInstance().getOccupancy(buildingId);
+        int available = occupancy.getAvailable();
+        String occupancyRate = occupancy.getOccupancyPercent() + "%";
+
+        setStatValue(occupancyBox, occupancyRate);
+        setStatValue(availableBox, String.valueOf(available));
+    }
+
+    private static void setStatValue(VBox infoBox, String value) {
+        // children[1] is the value label per createInfoBox
+        ((Label) infoBox.getChildren().get(1)).setText(value);
     }
 }
\ No newline at end of file
@@ -1,15 +1,12 @@
 package com.dtdt.DormManager.controller.admin;
 
-import com.dtdt.DormManager.controller.config.FirebaseInit;
 import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
@@ -22,46 +19,55 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public class MaintenanceViewController {
+public class MaintenanceViewController implements RefreshableView {
 
     @FXML private VBox requestsContainer;
 
-    private final Firestore db = FirebaseInit.db;
     private final SimpleDateFormat dateFormatter = new SimpleDateFormat("MMMM dd, yyyy");
+    // Request id -> its card, so a reload only builds cards for new requests
+    private final Map<String, Node> cardsById = new HashMap<>();
 
     @FXML
     public void initialize() {
         loadMaintenanceRequests();
     }
 
-    private void loadMaintenanceRequests() {
-        requestsContainer.getChildren().clear();
+    @Override
+    public void onShown() {
+        loadMaintenanceRequests();
+    }
 
-        ApiFuture<QuerySnapshot> future = db.collection("maintenanceRequests")
-                .whereEqualTo("status", "Pending") // Only show pending requests
-                .orderBy("dateSubmitted", Query.Direction.ASCENDING) // Show oldest first
-                .get();
+    private void loadMaintenanceRequests() {
+        // Only pending requests, oldest first
+        ApiFuture<List<MaintenanceRequest>> future = Repositories.maintenance().findByStatus("Pending");
 
         future.addListener(() -> {
             try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                Platform.runLater(() -> {
-                    if (documents.isEmpty()) {
-                        requestsContainer.getChildren().add(new Label("No pending maintenance requests."));
-                    } else {
-                        for (QueryDocumentSnapshot document : documents) {
-                            MaintenanceRequest request = document.toObject(MaintenanceRequest.class);
-                            requestsContainer.getChildren().add(createRequestCard(request));
-                        }
-                    }
-                });
+                showRequests(future.get());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Runnable::run);
+        }, AppExecutors.fxBatched());
+    }
+
+    private void showRequests(List<MaintenanceRequest> requests) {
+        Map<String, Node> previous = new HashMap<>(cardsById);
+        cardsById.clear();
+        List<Node> cards = new ArrayList<>(requests.size());
+        for (MaintenanceRequest request : requests) {
+            Node card = previous.get(request.getId());
+            if (card == null) card = createRequestCard(request);
+            cardsById.put(request.getId(), card);
+            cards.add(card);
+        }
+        if (cards.isEmpty()) cards.add(new Label("No pending maintenance requests."));
+        requestsContainer.getChildren().setAll(cards);
     }
 
     /**
@@ -120,14 +126,12 @@ public class MaintenanceViewController {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             // Update the status in Firebase
-            db.collection("maintenanceRequests").document(request.getId())
-                    .update("status", "Completed")
+            Repositories.maintenance().updateStatus(request.getId(), "Completed")
                     .addListener(() -> {
                         // Remove the card from the UI
-                        Platform.runLater(() -> {
-                            requestsContainer.getChildren().remove(cardToRemove);
-                        });
-                    }, Runnable::run);
+                        cardsById.remove(request.getId());
+                        requestsContainer.getChildren().remove(cardToRemove);
+                    }, AppExecutors.fxBatched());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.dtdt.DormManager.controller.admin;
+
+/**
+ * An admin view that stays loaded between visits. {@link AdminDashboardController} calls
+ * {@link #onShown()} each time it is shown again, so the view can fetch what changed
+ * instead of being rebuilt from its FXML.
+ */
+interface RefreshableView {
+
+    /** Called on the JavaFX thread when a cached view is shown again (not on first load). */
+    void onShown();
+}
@@ -1,30 +1,36 @@
 package com.dtdt.DormManager.controller.admin;
 
-import com.dtdt.DormManager.controller.config.FirebaseInit;
 import com.dtdt.DormManager.model.Reservation;
-import com.dtdt.DormManager.model.Tenant; // <-- IMPORT TENANT MODEL
-import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AllocationPlan;
+import com.dtdt.DormManager.service.AllocationService;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.ReservationApprovalService;
+import com.dtdt.DormManager.service.RoomStore;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.WriteResult;
-import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
 
-public class ReservationsViewController {
+public class ReservationsViewController implements RefreshableView {
 
     @FXML private TableView<Reservation> reservationsTable;
     @FXML private TableColumn<Reservation, String> nameColumn; // This will show First + Last
@@ -33,9 +39,15 @@ public class ReservationsViewController {
     @FXML private TableColumn<Reservation, String> contractTypeColumn;
     @FXML private TableColumn<Reservation, String> statusColumn;
     @FXML private TableColumn<Reservation, Void> actionsColumn;
+    @FXML private TableColumn<Reservation, String> plannedRoomColumn;
+    @FXML private Button planRoomsButton;
+    @FXML private Button approveSelectedButton;
+    @FXML private Button approveAllButton;
+    @FXML private ProgressBar approvalProgressBar;
+    @FXML private Label approvalStatusLabel;
 
     private final ObservableList<Reservation> reservationList = FXCollections.observableArrayList();
-    private final Firestore db = FirebaseInit.db;
+    private AllocationPlan allocationPlan; // Latest "Plan Rooms" result, shown in plannedRoomColumn
 
     @FXML
     public void initialize() {
@@ -51,36 +63,58 @@ public class ReservationsViewController {
         dateSubmittedColumn.setCellValueFactory(new PropertyValueFactory<>("dateSubmitted"));
         contractTypeColumn.setCellValueFactory(new PropertyValueFactory<>("contractType"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        plannedRoomColumn.setCellValueFactory(cellData -> {
+            Room room = allocationPlan == null ? null : allocationPlan.getRoomFor(cellData.getValue().getId());
+            return new SimpleStringProperty(room == null ? "" : plannedRoomLabel(room));
+        });
 
         // 2. Set up the custom "Actions" column
         setupActionsColumn();
 
         // 3. Set the table's data source
         reservationsTable.setItems(reservationList);
+        reservationsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        approvalProgressBar.setVisible(false);
 
         // 4. Load the data from Firebase
         loadPendingReservations();
     }
 
-    private void loadPendingReservations() {
-        reservationList.clear(); // Clear existing data
+    @Override
+    public void onShown() {
+        // A running approval removes its rows itself when it finishes
+        if (!approvalProgressBar.isVisible()) loadPendingReservations();
+    }
 
-        ApiFuture<QuerySnapshot> future = db.collection("reservations")
-                .whereEqualTo("status", "Pending")
-                .get();
+    private void loadPendingReservations() {
+        ApiFuture<List<Reservation>> future = Repositories.reservations().findByStatus("Pending");
 
         future.addListener(() -> {
             try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                for (QueryDocumentSnapshot document : documents) {
-                    Reservation reservation = document.toObject(Reservation.class);
-                    // The 'id' field is now automatically set by Firestore
-                    reservationList.add(reservation);
-                }
+                // The 'id' field is automatically set by the repository
+                mergeReservations(future.get());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Platform::runLater); // Run this on the JavaFX thread
+        }, AppExecutors.fxBatched()); // Run this on the JavaFX thread
+    }
+
+    /**
+     * Drops rows that are no longer pending and appends new ones, leaving the rest (and
+     * their selection) untouched.
+     */
+    private void mergeReservations(List<Reservation> pending) {
+        Set<String> pendingIds = new HashSet<>();
+        for (Reservation r : pending) pendingIds.add(r.getId());
+        reservationList.removeIf(r -> !pendingIds.contains(r.getId()));
+
+        Set<String> shown = new HashSet<>();
+        for (Reservation r : reservationList) shown.add(r.getId());
+        List<Reservation> added = new ArrayList<>();
+        for (Reservation r : pending) {
+            if (!shown.contains(r.getId())) added.add(r);
+        }
+        reservationList.addAll(added);
     }
 
     private void setupActionsColumn() {
@@ -117,46 +151,107 @@ public class ReservationsViewController {
         });
     }
 
-    // --- NEW FEATURE ---
-    // Inside ReservationsViewController.java
-
-    // Inside ReservationsViewController.java
-
     private void handleAccept(Reservation reservation) {
         System.out.println("Accepting: " + reservation.getFirstName());
+        runApproval(List.of(reservation));
+    }
+
+    @FXML
+    private void onApproveSelectedClick() {
+        runApproval(new ArrayList<>(reservationsTable.getSelectionModel().getSelectedItems()));
+    }
+
+    @FXML
+    private void onApproveAllClick() {
+        runApproval(new ArrayList<>(reservationList));
+    }
+
+    /**
+     * Hands the reservations to the approval service and tracks its progress; the
+     * accounts and status changes are written off the JavaFX thread in batches.
+     */
+    private void runApproval(List<Reservation> reservations) {
+        if (reservations.isEmpty()) return;
+        setApprovalRunning(true);
+        approvalProgressBar.setProgress(0);
+        approvalStatusLabel.setText("Approving " + reservations.size() + " reservation(s)...");
 
-        String plainTextPassword = generateRandomPassword(8);
-        String hashedPassword = User.hashPassword(plainTextPassword);
-        String fullName = reservation.getFirstName() + " " + reservation.getLastName();
-        java.util.Map<String, Object> newTenant = new java.util.HashMap<>();
-        newTenant.put("userId", reservation.getStudentId()); // Uses "userId"
-        newTenant.put("roomID", null);
-        newTenant.put("currentYear", reservation.getCurrentYear()); // Saves "1st Year" as a String
-
-        newTenant.put("email", reservation.getEmail());
-        newTenant.put("passwordHash", hashedPassword);
-        newTenant.put("firstName", reservation.getFirstName());
-        newTenant.put("lastName", reservation.getLastName());
-        newTenant.put("fullName", fullName);
-        newTenant.put("genderType", reservation.getGender());
-        newTenant.put("userType", "Tenant");
-        newTenant.put("contractID", null);
-        ApiFuture<WriteResult> userFuture = db.collection("users")
-                .document(reservation.getStudentId())
-                .set(newTenant);
-
-        userFuture.addListener(() -> {
+        ApiFuture<ReservationApprovalService.Report> future = ReservationApprovalService.getInstance().approveAll(
+                reservations,
+                // Only the latest progress of each pulse is drawn
+                (processed, total) -> AppExecutors.fxBatched().coalesce(approvalProgressBar,
+                        () -> approvalProgressBar.setProgress((double) processed / total)));
+
+        future.addListener(() -> {
             try {
-                userFuture.get();
-                System.out.println("Tenant created: " + fullName);
-                System.out.println("Temp Password: " + plainTextPassword);
+                ReservationApprovalService.Report report = future.get();
+                reservationList.removeIf(r -> report.getApprovedIds().contains(r.getId()));
+                approvalStatusLabel.setText(report.toString());
+                System.out.println(report);
+                if (!report.getCredentials().isEmpty()) showCredentials(report.getCredentials());
+            } catch (Exception e) {
+                e.printStackTrace();
+                approvalStatusLabel.setText("Approval failed: " + e.getMessage());
+            } finally {
+                setApprovalRunning(false);
+            }
+        }, AppExecutors.fxBatched());
+    }
 
-                updateReservationStatus(reservation, "Approved");
+    /**
+     * Lists the new accounts and their temporary passwords in a copyable text area; they
+     * are not stored anywhere in plain text, so this is the admin's only chance to see them.
+     */
+    private void showCredentials(List<ReservationApprovalService.Credential> credentials) {
+        StringBuilder text = new StringBuilder();
+        for (ReservationApprovalService.Credential credential : credentials) {
+            text.append(credential.getFullName()).append('\t')
+                    .append(credential.getUserId()).append('\t')
+                    .append(credential.getTemporaryPassword()).append('\n');
+        }
+        TextArea area = new TextArea(text.toString());
+        area.setEditable(false);
+        area.setPrefRowCount(Math.min(credentials.size(), 15));
 
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("New Tenant Accounts");
+        alert.setHeaderText(credentials.size() + " account(s) created. Copy the temporary passwords before closing.");
+        alert.getDialogPane().setContent(area);
+        alert.show();
+    }
+
+    /**
+     * Runs the allocation solver over all pending reservations and shows the proposed
+     * room next to each one.
+     */
+    @FXML
+    private void onPlanRoomsClick() {
+        planRoomsButton.setDisable(true);
+        ApiFuture<AllocationPlan> future = AllocationService.getInstance().planPendingReservations();
+        future.addListener(() -> {
+            try {
+                allocationPlan = future.get();
+                approvalStatusLabel.setText(allocationPlan.toString());
+                reservationsTable.refresh();
             } catch (Exception e) {
                 e.printStackTrace();
+                approvalStatusLabel.setText("Room planning failed: " + e.getMessage());
+            } finally {
+                planRoomsButton.setDisable(false);
             }
-        }, Platform::runLater);
+        }, AppExecutors.fx());
+    }
+
+    private static String plannedRoomLabel(Room room) {
+        String building = room.getBuildingName() != null
+                ? room.getBuildingName() : RoomStore.getInstance().getBuildingName(room.getBuildingId());
+        return building == null ? "Room " + room.getRoomNumber() : building + " - Room " + room.getRoomNumber();
+    }
+
+    private void setApprovalRunning(boolean running) {
+        approveSelectedButton.setDisable(running);
+        approveAllButton.setDisable(running);
+        approvalProgressBar.setVisible(running);
     }
 
     // --- FIXED ---
@@ -173,10 +268,8 @@ public class ReservationsViewController {
             return;
         }
 
-        // Update the 'status' field in Firebase
-        ApiFuture<WriteResult> future = db.collection("reservations")
-                .document(docId)
-                .update("status", newStatus);
+        // Update the 'status' field in the database
+        ApiFuture<Void> future = Repositories.reservations().updateStatus(docId, newStatus);
 
         future.addListener(() -> {
             try {
@@ -186,17 +279,6 @@ public class ReservationsViewController {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Platform::runLater);
-    }
-
-    // --- NEW HELPER ---
-    private String generateRandomPassword(int length) {
-        String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        StringBuilder sb = new StringBuilder();
-        Random random = new Random();
-        for (int i = 0; i < length; i++) {
-            sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
-        }
-        return sb.toString();
+        }, AppExecutors.fxBatched());
     }
-}
\ No newline at end of file
+}
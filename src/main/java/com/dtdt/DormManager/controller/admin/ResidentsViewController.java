@@ -1,31 +1,43 @@
 package com.dtdt.DormManager.controller.admin;
 
-import com.dtdt.DormManager.controller.config.FirebaseInit;
-import com.dtdt.DormManager.model.Contract;
 import com.dtdt.DormManager.model.Room;
 import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Page;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.RoomAssignment;
+import com.dtdt.DormManager.repository.RoomUnavailableException;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.FacetCounts;
+import com.dtdt.DormManager.service.RoomAssignmentService;
 import com.dtdt.DormManager.service.RoomStore;
+import com.dtdt.DormManager.service.TenantStore;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 import java.time.ZoneId;
 
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 
-public class ResidentsViewController {
+public class ResidentsViewController implements RefreshableView {
 
     // --- FXML Components ---
     @FXML private TextField searchField;
@@ -44,32 +56,39 @@ public class ResidentsViewController {
     @FXML private TableColumn<Tenant, Void> actionsColumn;
 
     // --- Data ---
-    private final ObservableList<Tenant> tenantList = FXCollections.observableArrayList(); // For the table
-    private final ObservableList<Tenant> allTenantsList = FXCollections.observableArrayList(); // Master list
-    private final ObservableList<Room> allRoomsList = FXCollections.observableArrayList(); // Cache for rooms
-    private final Firestore db = FirebaseInit.db;
+    private final ObservableList<Tenant> allTenantsList = TenantStore.getInstance().getTenants(); // Master list (shared)
+    // Filter/sort pipeline over the master list; predicate and comparator changes emit incremental updates
+    private final FilteredList<Tenant> filteredTenants = new FilteredList<>(allTenantsList);
+    private final SortedList<Tenant> sortedTenants = new SortedList<>(filteredTenants);
+
+    // Typing restarts this, so a burst of keystrokes runs one search
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(200);
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+
+    // Paged mode: tenants are read PAGE_SIZE at a time by document id
+    private static final int PAGE_SIZE = 50;
+    private static final double PREFETCH_THRESHOLD = 0.8;
+    private static final String DEFAULT_SORT = "Default";
+    private final ObservableList<Tenant> pagedTenants = FXCollections.observableArrayList();
+    private String nextCursor;
+    private ApiFuture<Page<Tenant>> prefetchedPage;
+    private boolean appendingPage;
+    private boolean firstPageLoaded;
+    private boolean morePages;
+    private boolean reloadingPages;
+    private ScrollBar verticalScrollBar;
+    private boolean tenantStoreRequested;
+    private boolean tenantStoreReady;
+
+    // Held here so the store only keeps a weak reference and closed views can be collected
+    private final ListChangeListener<Tenant> tenantStoreListener = this::onTenantStoreChanged;
+    private boolean tenantRefreshPending;
 
     @FXML
     public void initialize() {
         // 1. Set up the table columns
-        nameColumn.setCellValueFactory(cellData -> {
-            Tenant tenant = cellData.getValue();
-            String name = tenant.getFullName();
-            if (name == null || name.trim().isEmpty()) {
-                name = (tenant.getFirstName() != null ? tenant.getFirstName() : "") + " " +
-                        (tenant.getLastName() != null ? tenant.getLastName() : "");
-            }
-            return new SimpleStringProperty(name.trim());
-        });
-
-        studentIdColumn.setCellValueFactory(cellData -> {
-            Tenant tenant = cellData.getValue();
-            String id = tenant.getUserId();
-            if (id == null || id.trim().isEmpty()) {
-                id = tenant.getStudentID();
-            }
-            return new SimpleStringProperty(id);
-        });
+        nameColumn.setCellValueFactory(cellData -> new SimpleStringProperty(displayName(cellData.getValue())));
+        studentIdColumn.setCellValueFactory(cellData -> new SimpleStringProperty(displayStudentId(cellData.getValue())));
 
         roomColumn.setCellValueFactory(new PropertyValueFactory<>("roomID"));
         contactColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
@@ -83,12 +102,14 @@ public class ResidentsViewController {
         setupActionsColumn();
 
         // 3. Set the table's data source
-        residentsTable.setItems(tenantList);
+        residentsTable.setItems(pagedTenants);
 
-        // 4. Set up listeners for filters
+        // 4. Set up listeners for filters, and follow the store once anything has loaded it
         setupFilterListeners();
+        allTenantsList.addListener(new WeakListChangeListener<>(tenantStoreListener));
 
-        // 5. Load all data from Firebase
+        // 5. Load the first page of tenants, then more as the table scrolls
+        residentsTable.skinProperty().addListener((obs, oldSkin, newSkin) -> Platform.runLater(this::attachScrollPrefetch));
         loadAllData();
     }
 
@@ -96,69 +117,252 @@ public class ResidentsViewController {
      * Sets up listeners for all filter components.
      */
     private void setupFilterListeners() {
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> renderTenants());
+        searchDebounce.setOnFinished(e -> renderTenants());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
         buildingFilterBox.setOnAction(e -> renderTenants());
         floorFilterBox.setOnAction(e -> renderTenants());
         roomTypeFilterBox.setOnAction(e -> renderTenants());
-        // sortBox.setOnAction(e -> renderTenants()); // Add sorting logic later
+
+        sortBox.setItems(FXCollections.observableArrayList(DEFAULT_SORT, "Name (A-Z)", "Name (Z-A)", "Student ID", "Room"));
+        sortBox.setOnAction(e -> renderTenants());
+    }
+
+    private static String displayName(Tenant tenant) {
+        String name = tenant.getFullName();
+        if (name == null || name.trim().isEmpty()) {
+            name = (tenant.getFirstName() != null ? tenant.getFirstName() : "") + " " +
+                    (tenant.getLastName() != null ? tenant.getLastName() : "");
+        }
+        return name.trim();
+    }
+
+    private static String displayStudentId(Tenant tenant) {
+        String id = tenant.getUserId();
+        if (id == null || id.trim().isEmpty()) {
+            id = tenant.getStudentID();
+        }
+        return id;
     }
 
     /**
-     * Loads all rooms, then all tenants, then populates filters and renders the table.
+     * Shows the first page of tenants as soon as it arrives. The shared room store loads
+     * alongside it for the filters; the full tenant cache is only pulled in once a filter
+     * or search is used.
      */
     private void loadAllData() {
-        allRoomsList.clear();
-        allTenantsList.clear();
+        ApiFuture<Void> roomsLoaded = RoomStore.getInstance().whenLoaded();
+        roomsLoaded.addListener(() -> {
+            try {
+                roomsLoaded.get();
+                populateFilters();
+            } catch (Exception e) { e.printStackTrace(); }
+        }, AppExecutors.fxBatched());
 
-        // 1. Load Rooms first
-        ApiFuture<QuerySnapshot> roomsFuture = db.collection("rooms").get();
-        roomsFuture.addListener(() -> {
+        ApiFuture<Page<Tenant>> firstPage = Repositories.tenants().findPage(null, PAGE_SIZE);
+        firstPage.addListener(() -> {
             try {
-                for (QueryDocumentSnapshot document : roomsFuture.get().getDocuments()) {
-                    allRoomsList.add(document.toObject(Room.class));
-                }
+                onPageLoaded(firstPage.get());
+            } catch (Exception e) { e.printStackTrace(); }
+        }, AppExecutors.fxBatched());
+    }
 
-                // 2. Now load Tenants
-                ApiFuture<QuerySnapshot> tenantsFuture = db.collection("users").whereEqualTo("userType", "Tenant").get();
-                tenantsFuture.addListener(() -> {
-                    try {
-                        for (QueryDocumentSnapshot document : tenantsFuture.get().getDocuments()) {
-                            allTenantsList.add(document.toObject(Tenant.class));
-                        }
+    /**
+     * Appends a page to the paged list and starts fetching the one after it, so the next
+     * scroll to the bottom usually finds its rows already downloaded.
+     */
+    private void onPageLoaded(Page<Tenant> page) {
+        pagedTenants.addAll(page.getItems());
+        firstPageLoaded = true;
+        morePages = page.hasMore();
+        nextCursor = page.getNextCursor();
+        prefetchedPage = page.hasMore() ? Repositories.tenants().findPage(nextCursor, PAGE_SIZE) : null;
+        Platform.runLater(this::loadMoreIfNearEnd);
+    }
 
-                        // 3. Now that all data is loaded, update the UI
-                        Platform.runLater(() -> {
-                            populateFilters();
-                            renderTenants();
-                        });
+    /**
+     * Store changes only reach the paged list once the tenant store is loaded. Until then the
+     * rows loaded so far are read again and merged in; further pages load on scroll as before.
+     */
+    @Override
+    public void onShown() {
+        if (tenantStoreReady || !firstPageLoaded || appendingPage || reloadingPages) return;
+        reloadingPages = true;
+        ApiFuture<Page<Tenant>> future = Repositories.tenants().findPage(null, Math.max(pagedTenants.size(), PAGE_SIZE));
+        future.addListener(() -> {
+            reloadingPages = false;
+            try {
+                Page<Tenant> page = future.get();
+                mergePaged(page.getItems());
+                morePages = page.hasMore();
+                nextCursor = page.getNextCursor();
+                prefetchedPage = morePages ? Repositories.tenants().findPage(nextCursor, PAGE_SIZE) : null;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, AppExecutors.fxBatched());
+    }
 
-                    } catch (Exception e) { e.printStackTrace(); }
-                }, Runnable::run);
+    /** Both lists are ordered by document id, so one pass replaces, inserts and removes rows. */
+    private void mergePaged(List<Tenant> fresh) {
+        int i = 0;
+        for (Tenant tenant : fresh) {
+            while (i < pagedTenants.size()
+                    && String.valueOf(pagedTenants.get(i).getDocumentId()).compareTo(tenant.getDocumentId()) < 0) {
+                pagedTenants.remove(i);
+            }
+            if (i < pagedTenants.size() && tenant.getDocumentId().equals(pagedTenants.get(i).getDocumentId())) {
+                pagedTenants.set(i, tenant);
+            } else {
+                pagedTenants.add(i, tenant);
+            }
+            i++;
+        }
+        if (i < pagedTenants.size()) pagedTenants.remove(i, pagedTenants.size());
+    }
 
-            } catch (Exception e) { e.printStackTrace(); }
-        }, Runnable::run);
+    /** Appends the prefetched page, unless one is already being appended. */
+    private void loadNextPage() {
+        if (appendingPage || reloadingPages || prefetchedPage == null) return;
+        appendingPage = true;
+        ApiFuture<Page<Tenant>> future = prefetchedPage;
+        prefetchedPage = null;
+        future.addListener(() -> {
+            appendingPage = false;
+            try {
+                onPageLoaded(future.get());
+            } catch (Exception e) {
+                e.printStackTrace();
+                // Allow the next scroll to retry from the same cursor
+                prefetchedPage = Repositories.tenants().findPage(nextCursor, PAGE_SIZE);
+            }
+        }, AppExecutors.fxBatched());
     }
 
     /**
-     * Populates the filter ComboBoxes with data from allRoomsList.
+     * The table's vertical scroll bar only exists once its skin is built, so the
+     * prefetch trigger is hooked up from there.
      */
-    private void populateFilters() {
-        ObservableList<String> buildings = FXCollections.observableArrayList("All Buildings");
-        ObservableList<String> floors = FXCollections.observableArrayList("All Floors");
-        ObservableList<String> types = FXCollections.observableArrayList("All Types");
-
-        for (Room room : allRoomsList) {
-            if (room.getBuildingName() != null && !buildings.contains(room.getBuildingName())) {
-                buildings.add(room.getBuildingName());
+    private void attachScrollPrefetch() {
+        if (verticalScrollBar != null) return;
+        for (Node node : residentsTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                verticalScrollBar = (ScrollBar) node;
+                verticalScrollBar.valueProperty().addListener((obs, oldVal, newVal) -> loadMoreIfNearEnd());
+                loadMoreIfNearEnd();
+                return;
             }
-            String floorStr = String.valueOf(room.getFloor());
-            if (!floors.contains(floorStr)) {
-                floors.add(floorStr);
+        }
+    }
+
+    private void loadMoreIfNearEnd() {
+        if (needsAllTenants() || verticalScrollBar == null) return;
+        // A hidden bar means every loaded row fits on screen, so keep filling
+        boolean nearEnd = !verticalScrollBar.isVisible()
+                || verticalScrollBar.getValue() >= verticalScrollBar.getMax() * PREFETCH_THRESHOLD;
+        if (nearEnd) loadNextPage();
+    }
+
+    /**
+     * Filters, search and sorting need every tenant, so the shared cache is loaded the first time
+     * one is used. Renders again once it is ready.
+     */
+    private void requestTenantStore() {
+        if (tenantStoreRequested) return;
+        tenantStoreRequested = true;
+        TenantStore tenantStore = TenantStore.getInstance();
+        ApiFuture<Void> tenantsLoaded = tenantStore.whenLoaded();
+        tenantsLoaded.addListener(() -> {
+            try {
+                tenantsLoaded.get();
+                tenantStoreReady = true;
+                renderTenants();
+            } catch (Exception e) {
+                e.printStackTrace();
+                tenantStoreRequested = false;
             }
-            if (room.getRoomType() != null && !types.contains(room.getRoomType())) {
-                types.add(room.getRoomType());
+        }, AppExecutors.fxBatched());
+    }
+
+    /**
+     * Applies store changes to the loaded pages of the paged list, which is ordered by
+     * document id. Tenants past the last loaded page show up when their page does.
+     */
+    private void onTenantStoreChanged(ListChangeListener.Change<? extends Tenant> change) {
+        Set<String> changedIds = new HashSet<>();
+        while (change.next()) {
+            for (Tenant tenant : change.getRemoved()) changedIds.add(tenant.getDocumentId());
+            for (Tenant tenant : change.getAddedSubList()) changedIds.add(tenant.getDocumentId());
+        }
+        TenantStore tenantStore = TenantStore.getInstance();
+        for (String documentId : changedIds) {
+            if (documentId == null || !isInLoadedPages(documentId)) continue;
+            Tenant current = tenantStore.getByDocumentId(documentId);
+            int position = pagedIndexOf(documentId);
+            if (current == null) {
+                if (position >= 0) pagedTenants.remove(position);
+            } else if (position >= 0) {
+                pagedTenants.set(position, current);
+            } else {
+                pagedTenants.add(-position - 1, current);
             }
         }
+        scheduleTenantRefresh();
+    }
+
+    private boolean isInLoadedPages(String documentId) {
+        return firstPageLoaded && (!morePages || documentId.compareTo(nextCursor) <= 0);
+    }
+
+    /** Binary search by document id; a miss returns (-(insertion point) - 1). */
+    private int pagedIndexOf(String documentId) {
+        int low = 0;
+        int high = pagedTenants.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = String.valueOf(pagedTenants.get(mid).getDocumentId()).compareTo(documentId);
+            if (order < 0) low = mid + 1;
+            else if (order > 0) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * The pipeline follows store changes by itself; only search results, which are looked
+     * up once per query, are re-run. Coalesced to once per burst.
+     */
+    private void scheduleTenantRefresh() {
+        if (tenantRefreshPending) return;
+        tenantRefreshPending = true;
+        Platform.runLater(() -> {
+            tenantRefreshPending = false;
+            if (!searchField.getText().trim().isEmpty()) renderTenants();
+        });
+    }
+
+    private boolean needsAllTenants() {
+        return !searchField.getText().trim().isEmpty()
+                || isSelected(sortBox.getValue(), DEFAULT_SORT)
+                || isSelected(buildingFilterBox.getValue(), "All Buildings")
+                || isSelected(floorFilterBox.getValue(), "All Floors")
+                || isSelected(roomTypeFilterBox.getValue(), "All Types");
+    }
+
+    private static boolean isSelected(String value, String allOption) {
+        return value != null && !value.equals(allOption);
+    }
+
+    /**
+     * Populates the filter ComboBoxes with the room store's facet values.
+     */
+    private void populateFilters() {
+        FacetCounts facets = RoomStore.getInstance().getFacets(null);
+        ObservableList<String> buildings = FXCollections.observableArrayList("All Buildings");
+        ObservableList<String> floors = FXCollections.observableArrayList("All Floors");
+        ObservableList<String> types = FXCollections.observableArrayList("All Types");
+        buildings.addAll(facets.values(FacetCounts.BUILDING));
+        floors.addAll(facets.values(FacetCounts.FLOOR));
+        types.addAll(facets.values(FacetCounts.TYPE));
 
         buildingFilterBox.setItems(buildings);
         floorFilterBox.setItems(floors);
@@ -170,75 +374,83 @@ public class ResidentsViewController {
     }
 
     /**
-     * Filters the 'allTenantsList' into the 'tenantList' based on filter selections.
+     * Shows the paged list when no filter or sort is set, otherwise the pipeline over
+     * every tenant. Only the predicate and comparator are swapped here, so the table
+     * receives incremental changes rather than a new list.
      */
     private void renderTenants() {
-        String searchText = searchField.getText().toLowerCase().trim();
-        String selectedBuilding = buildingFilterBox.getValue();
-        String selectedFloor = floorFilterBox.getValue();
-        String selectedType = roomTypeFilterBox.getValue();
-
-        ObservableList<Tenant> filteredList = FXCollections.observableArrayList();
-
-        for (Tenant tenant : allTenantsList) {
-            // 1. Check Search Filter
-            boolean matchesSearch = true;
-            if (!searchText.isEmpty()) {
-                String fullName = (tenant.getFirstName() + " " + tenant.getLastName()).toLowerCase();
-                String userId = (tenant.getUserId() != null ? tenant.getUserId() : "").toLowerCase();
-                String email = (tenant.getEmail() != null ? tenant.getEmail() : "").toLowerCase();
-
-                matchesSearch = fullName.contains(searchText) ||
-                        userId.contains(searchText) ||
-                        email.contains(searchText);
-            }
-            if (!matchesSearch) continue; // Skip if no match
-
-            // 2. Check Room-Based Filters
-            Room tenantRoom = getRoomForTenant(tenant.getRoomID());
-
-            // Building Filter
-            if (selectedBuilding != null && !selectedBuilding.equals("All Buildings")) {
-                if (tenantRoom == null || !selectedBuilding.equals(tenantRoom.getBuildingName())) {
-                    continue; // Skip if no room or room doesn't match
-                }
-            }
+        if (!needsAllTenants()) {
+            showItems(pagedTenants);
+            return;
+        }
+        if (!tenantStoreReady) {
+            requestTenantStore();
+            return;
+        }
+        filteredTenants.setPredicate(buildFilter());
+        sortedTenants.setComparator(selectedComparator());
+        showItems(sortedTenants);
+    }
 
-            // Floor Filter
-            if (selectedFloor != null && !selectedFloor.equals("All Floors")) {
-                if (tenantRoom == null || !selectedFloor.equals(String.valueOf(tenantRoom.getFloor()))) {
-                    continue;
-                }
-            }
+    private void showItems(ObservableList<Tenant> items) {
+        if (residentsTable.getItems() != items) residentsTable.setItems(items);
+    }
 
-            // Type Filter
-            if (selectedType != null && !selectedType.equals("All Types")) {
-                if (tenantRoom == null || !selectedType.equals(tenantRoom.getRoomType())) {
-                    continue;
-                }
-            }
+    /**
+     * Composes the active filters; unset ones are left out of the chain entirely.
+     */
+    private Predicate<Tenant> buildFilter() {
+        Predicate<Tenant> filter = tenant -> true;
+
+        // 1. Search Filter: the store's prefix index resolves the query once
+        String searchText = searchField.getText().trim();
+        if (!searchText.isEmpty()) {
+            Set<String> matches = TenantStore.getInstance().searchDocumentIds(searchText);
+            filter = filter.and(tenant -> matches.contains(tenant.getDocumentId()));
+        }
 
-            // If all checks pass, add the tenant
-            filteredList.add(tenant);
+        // 2. Room-Based Filters; tenants without a known room never match these
+        String selectedBuilding = buildingFilterBox.getValue();
+        if (isSelected(selectedBuilding, "All Buildings")) {
+            filter = filter.and(roomMatches(room -> selectedBuilding.equals(room.getBuildingName())));
+        }
+        String selectedFloor = floorFilterBox.getValue();
+        if (isSelected(selectedFloor, "All Floors")) {
+            filter = filter.and(roomMatches(room -> selectedFloor.equals(String.valueOf(room.getFloor()))));
         }
+        String selectedType = roomTypeFilterBox.getValue();
+        if (isSelected(selectedType, "All Types")) {
+            filter = filter.and(roomMatches(room -> selectedType.equals(room.getRoomType())));
+        }
+        return filter;
+    }
 
-        // (Sorting can be added here)
+    private Predicate<Tenant> roomMatches(Predicate<Room> condition) {
+        return tenant -> {
+            Room room = getRoomForTenant(tenant.getRoomID());
+            return room != null && condition.test(room);
+        };
+    }
 
-        tenantList.setAll(filteredList);
-        residentsTable.refresh();
+    /** Null keeps store order. */
+    private Comparator<Tenant> selectedComparator() {
+        String sort = sortBox.getValue();
+        if (sort == null) return null;
+        Comparator<String> text = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+        switch (sort) {
+            case "Name (A-Z)": return Comparator.comparing(ResidentsViewController::displayName, text);
+            case "Name (Z-A)": return Comparator.comparing(ResidentsViewController::displayName, text.reversed());
+            case "Student ID": return Comparator.comparing(ResidentsViewController::displayStudentId, text);
+            case "Room": return Comparator.comparing(Tenant::getRoomID, text);
+            default: return null;
+        }
     }
 
     /**
-     * Helper method to find a Room object from the local list by its ID.
+     * Helper method to find a Room object in the room store by its ID.
      */
     private Room getRoomForTenant(String roomId) {
-        if (roomId == null) return null;
-        for (Room room : allRoomsList) {
-            if (roomId.equals(room.getId())) {
-                return room;
-            }
-        }
-        return null; // No matching room found in cache
+        return RoomStore.getInstance().getRoomById(roomId);
     }
 
     @FXML
@@ -295,10 +507,9 @@ public class ResidentsViewController {
 
         // --- FIX: Filter the list to only show AVAILABLE rooms ---
         ObservableList<Room> availableRooms = FXCollections.observableArrayList();
-        for (Room room : allRoomsList) {
+        for (Room room : RoomStore.getInstance().getRooms()) {
             // Check if room is "Available" AND not full
-            int occupancy = getOccupancyForRoom(room.getId());
-            if ("Available".equalsIgnoreCase(room.getStatus()) && occupancy < room.getCapacity()) {
+            if (RoomAssignmentService.hasFreeBed(room, TenantStore.getInstance().countInRoom(room.getId()))) {
                 availableRooms.add(room);
             }
         }
@@ -319,7 +530,7 @@ public class ResidentsViewController {
             @Override
             public String toString(Room room) {
                 if (room == null) return "Select a room...";
-                int occupancy = getOccupancyForRoom(room.getId());
+                int occupancy = getOccupancyForRoom(room);
                 return String.format("%s - Room %s (%d/%d)",
                         room.getBuildingName(), room.getRoomNumber(), occupancy, room.getCapacity());
             }
@@ -328,12 +539,8 @@ public class ResidentsViewController {
         });
 
         if (tenant.getRoomID() != null) {
-            for (Room room : allRoomsList) { // Check all rooms, not just available
-                if (room.getId().equals(tenant.getRoomID())) {
-                    roomComboBox.setValue(room);
-                    break;
-                }
-            }
+            Room currentRoom = getRoomForTenant(tenant.getRoomID()); // Check all rooms, not just available
+            if (currentRoom != null) roomComboBox.setValue(currentRoom);
         }
         grid.add(roomComboBox, 1, 1);
 
@@ -364,42 +571,37 @@ public class ResidentsViewController {
                 return;
             }
 
-            // --- 4. Update Tenant's Room in DB ---
-            if (!Objects.equals(tenant.getRoomID(), selectedRoom.getId())) {
-                db.collection("users").document(tenant.getDocumentId()).update("roomID", selectedRoom.getId());
-                tenant.setRoomID(selectedRoom.getId());
-                System.out.println("Tenant room updated to: " + selectedRoom.getRoomNumber());
-            }
-
-            // --- 5. Create Contract if one doesn't exist ---
+            // --- 4. Validate before writing anything ---
+            Date endDate = null;
             if (tenant.getContractID() == null) {
-                // (All your contract creation logic...)
                 if (endDatePicker.getValue() == null) {
                     showError("No End Date", "You must select a contract end date.");
                     return;
                 }
-                String contractId = UUID.randomUUID().toString();
-                Date dateSigned = new Date();
-                Date endDate = Date.from(endDatePicker.getValue().atStartOfDay(ZoneId.systemDefault()).toInstant());
-                Contract newContract = new Contract();
-                newContract.setId(contractId);
-                newContract.setTenantId(tenant.getUserId());
-                newContract.setRoomId(selectedRoom.getId());
-                newContract.setContractType("Semesterly");
-                newContract.setRentAmount(selectedRoom.getRate());
-                newContract.setDateSigned(dateSigned);
-                newContract.setStartDate(dateSigned);
-                newContract.setEndDate(endDate);
-                db.collection("contracts").document(contractId).set(newContract);
-                db.collection("users").document(tenant.getDocumentId()).update("contractID", contractId);
-                tenant.setContractID(contractId);
+                endDate = Date.from(endDatePicker.getValue().atStartOfDay(ZoneId.systemDefault()).toInstant());
             }
 
-            // --- FIX: Check room status after assignment ---
-            updateRoomStatusAfterAssignment(selectedRoom);
-            // --- END FIX ---
-
-            residentsTable.refresh();
+            // --- 5. Room, occupancy, contract and tenant in one transaction ---
+            ApiFuture<RoomAssignment> future = RoomAssignmentService.getInstance().assign(tenant, selectedRoom, endDate);
+            future.addListener(() -> {
+                try {
+                    RoomAssignment assignment = future.get();
+                    tenant.setRoomID(assignment.getRoom().getId());
+                    tenant.setContractID(assignment.getContractId());
+                    TenantStore.getInstance().putTenant(tenant); // Re-index under the new room
+                    System.out.println("Tenant room updated to: " + assignment.getRoom().getRoomNumber());
+                    residentsTable.refresh();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RoomUnavailableException) {
+                        showError("Room Unavailable", e.getCause().getMessage());
+                    } else {
+                        e.printStackTrace();
+                        showError("Assignment Failed", "The room could not be assigned. Please try again.");
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }, AppExecutors.fx());
         }
     }
 
@@ -418,38 +620,10 @@ public class ResidentsViewController {
         handleManageTenant(tenant);
     }
 
-    // Inside ResidentsViewController.java
-
     /**
-     * Helper method to get the current occupancy of a room.
-     * @param roomId The ID of the room to check.
-     * @return The number of tenants currently assigned to that room.
+     * Occupancy comes from the room's own counter, kept exact by the assignment transaction.
      */
-    private int getOccupancyForRoom(String roomId) {
-        if (roomId == null) return 0;
-        int count = 0;
-        for (Tenant tenant : allTenantsList) {
-            if (roomId.equals(tenant.getRoomID())) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    private void updateRoomStatusAfterAssignment(Room room) {
-        // Get the new occupancy count
-        int currentOccupancy = getOccupancyForRoom(room.getId());
-
-        if (currentOccupancy >= room.getCapacity()) {
-            System.out.println("Room " + room.getRoomNumber() + " is now full. Setting status to Occupied.");
-
-            // Update in Firebase
-            db.collection("rooms").document(room.getId()).update("status", "Occupied");
-
-            // Update in our local lists
-            room.setStatus("Occupied");
-            RoomStore.getInstance().removeById(room.getId()); // Remove old version
-            RoomStore.getInstance().addRoom(room); // Add new version
-        }
+    private int getOccupancyForRoom(Room room) {
+        return RoomAssignmentService.occupants(room, TenantStore.getInstance().countInRoom(room.getId()));
     }
-}
\ No newline at end of file
+}
@@ -2,21 +2,24 @@ package com.dtdt.DormManager.controller.admin;
 
 import com.dtdt.DormManager.model.Building;
 import com.dtdt.DormManager.model.Room;
-import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.service.AppExecutors;
+import com.dtdt.DormManager.service.DocumentCache;
+import com.dtdt.DormManager.service.FacetCounts;
 import com.dtdt.DormManager.service.RoomStore;
 import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.WriteResult;
+import com.google.api.core.ApiFutures;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.layout.*;
 import javafx.scene.control.*;
 import javafx.geometry.Pos;
+import javafx.util.StringConverter;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,44 +28,82 @@ import java.util.Comparator;
 import java.util.Objects;
 import java.util.Map;
 import java.util.HashMap;
-import com.dtdt.DormManager.controller.config.FirebaseInit;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 public class RoomsViewController {
-    @FXML private FlowPane roomsContainer;
+    // Each item is one row of cards; the ListView only builds cells for visible rows
+    @FXML private ListView<List<Room>> roomsGrid;
     @FXML private ComboBox<Building> buildingCombo;
     @FXML private ComboBox<String> floorCombo;
     @FXML private ComboBox<String> typeCombo;
     @FXML private ComboBox<String> statusCombo;
     @FXML private Button addRoomBtn;
 
-    private final ObservableList<Room> roomList = FXCollections.observableArrayList();
-    private final ObservableList<Tenant> tenantList = FXCollections.observableArrayList();
+    // Live view of the shared store; kept current by its snapshot listener
+    private final ObservableList<Room> roomList = RoomStore.getInstance().getRooms();
+
+    // Held here so the store only keeps a weak reference and closed views can be collected
+    private final ListChangeListener<Room> roomStoreListener = this::onRoomsChanged;
+    private final Object roomRefreshKey = new Object();
+
+    // Grid geometry; matches the card's pref width and the old FlowPane gaps
+    private static final double CARD_WIDTH = 280;
+    private static final double CARD_GAP = 20;
+    private static final double GRID_PADDING = 40;
+    private static final int CARD_CACHE_SIZE = 300;
+
+    private final ObservableList<List<Room>> gridRows = FXCollections.observableArrayList();
+    private List<Room> filteredRooms = new ArrayList<>();
+    private int gridColumns = 1;
+
+    // Facet snapshots behind the combo labels: all rooms, and the selected building's rooms
+    private FacetCounts allFacets = new FacetCounts();
+    private FacetCounts selectedFacets = new FacetCounts();
+
+    // room id -> card built for it, least recently shown evicted first
+    private final Map<String, CachedCard> cardCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCard> eldest) {
+            return size() > CARD_CACHE_SIZE;
+        }
+    };
 
     @FXML
     public void initialize() {
-        loadTenantsForOccupancy();
+        setupGrid();
         loadRooms();
         setupFilters();
     }
 
-    private void loadTenantsForOccupancy() {
-        ApiFuture<QuerySnapshot> future = FirebaseInit.db.collection("users")
-                .whereEqualTo("userType", "Tenant")
-                .get();
-        future.addListener(() -> {
-            try {
-                List<Tenant> fetchedTenants = new ArrayList<>();
-                for (QueryDocumentSnapshot document : future.get().getDocuments()) {
-                    fetchedTenants.add(document.toObject(Tenant.class));
+    private void setupGrid() {
+        roomsGrid.setItems(gridRows);
+        roomsGrid.setCellFactory(lv -> new ListCell<>() {
+            private final HBox row = new HBox(CARD_GAP);
+
+            {
+                setStyle("-fx-background-color: transparent; -fx-padding: 10 20;");
+            }
+
+            @Override
+            protected void updateItem(List<Room> rooms, boolean empty) {
+                super.updateItem(rooms, empty);
+                if (empty || rooms == null) {
+                    row.getChildren().clear();
+                    setGraphic(null);
+                    return;
                 }
-                Platform.runLater(() -> {
-                    tenantList.setAll(fetchedTenants);
-                    renderRooms();
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
+                List<Node> cards = new ArrayList<>(rooms.size());
+                for (Room room : rooms) cards.add(cardFor(room));
+                row.getChildren().setAll(cards);
+                setGraphic(row);
             }
-        }, Runnable::run);
+        });
+        // Re-chunk only when the number of cards per row actually changes
+        roomsGrid.widthProperty().addListener((obs, oldWidth, newWidth) -> {
+            if (columnsFor(newWidth.doubleValue()) != gridColumns) rebuildGridRows();
+        });
     }
 
     private void setupFilters() {
@@ -70,53 +111,63 @@ public class RoomsViewController {
             buildingCombo.setCellFactory(lv -> new ListCell<>() {
                 @Override protected void updateItem(Building item, boolean empty) {
                     super.updateItem(item, empty);
-                    setText(empty || item == null ? null : item.getName());
+                    setText(empty || item == null ? null : buildingLabel(item));
                 }
             });
             buildingCombo.setButtonCell(new ListCell<>() {
                 @Override protected void updateItem(Building item, boolean empty) {
                     super.updateItem(item, empty);
-                    setText(empty || item == null ? null : item.getName());
+                    setText(empty || item == null ? null : buildingLabel(item));
                 }
             });
             buildingCombo.setOnAction(e -> populateDependentFiltersAndRender());
         }
 
-        if (floorCombo != null) floorCombo.setOnAction(e -> renderRooms());
-        if (typeCombo != null) typeCombo.setOnAction(e -> renderRooms());
-        if (statusCombo != null) statusCombo.setOnAction(e -> renderRooms());
+        if (floorCombo != null) {
+            floorCombo.setConverter(facetLabels(FacetCounts.FLOOR));
+            floorCombo.setOnAction(e -> renderRooms());
+        }
+        if (typeCombo != null) {
+            typeCombo.setConverter(facetLabels(FacetCounts.TYPE));
+            typeCombo.setOnAction(e -> renderRooms());
+        }
+        if (statusCombo != null) {
+            statusCombo.setConverter(facetLabels(FacetCounts.STATUS));
+            statusCombo.setOnAction(e -> renderRooms());
+        }
     }
 
-    // Inside RoomsViewController.java
+    private String buildingLabel(Building building) {
+        if (building.getId() == null) return building.getName();
+        return building.getName() + " (" + allFacets.count(FacetCounts.BUILDING_ID, building.getId()) + ")";
+    }
+
+    /** Shows "Double (42)" for values; the "All ..." entries have no count. */
+    private StringConverter<String> facetLabels(String facet) {
+        return new StringConverter<>() {
+            @Override
+            public String toString(String value) {
+                if (value == null || value.startsWith("All ")) return value;
+                return selectedFacets.label(facet, value);
+            }
+
+            @Override
+            public String fromString(String string) { return string; }
+        };
+    }
 
     private void populateDependentFiltersAndRender() {
         Building selected = buildingCombo == null ? null : buildingCombo.getValue();
 
+        // Distinct values and counts come precomputed from the store, scoped to the building
+        selectedFacets = RoomStore.getInstance().getFacets(selected == null ? null : selected.getId());
+
         var floors = FXCollections.observableArrayList("All Floors");
         var types = FXCollections.observableArrayList("All Types");
         var statuses = FXCollections.observableArrayList("All Statuses");
-
-        // --- THIS IS THE FIX ---
-        if (selected == null || selected.getId() == null) {
-            // "All Buildings" is selected. Scan ALL rooms.
-            for (Room r : roomList) {
-                String f = String.valueOf(r.getFloor());
-                if (!floors.contains(f)) floors.add(f);
-                if (r.getRoomType() != null && !types.contains(r.getRoomType())) types.add(r.getRoomType());
-                if (r.getStatus() != null && !statuses.contains(r.getStatus())) statuses.add(r.getStatus());
-            }
-        } else {
-            // A specific building is selected. Scan only rooms in that building.
-            for (Room r : roomList) {
-                if (selected.getId().equals(r.getBuildingId())) {
-                    String f = String.valueOf(r.getFloor());
-                    if (!floors.contains(f)) floors.add(f);
-                    if (r.getRoomType() != null && !types.contains(r.getRoomType())) types.add(r.getRoomType());
-                    if (r.getStatus() != null && !statuses.contains(r.getStatus())) statuses.add(r.getStatus());
-                }
-            }
-        }
-        // --- END FIX ---
+        floors.addAll(selectedFacets.values(FacetCounts.FLOOR));
+        types.addAll(selectedFacets.values(FacetCounts.TYPE));
+        statuses.addAll(selectedFacets.values(FacetCounts.STATUS));
 
         // Now, set the items and re-select the "All" option
         if (floorCombo != null) {
@@ -136,25 +187,51 @@ public class RoomsViewController {
     }
 
     private void loadRooms() {
-        ApiFuture<QuerySnapshot> future = FirebaseInit.db.collection("rooms").get();
-        future.addListener(() -> {
-            try {
-                List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-                List<Room> fetched = new ArrayList<>();
-                for (QueryDocumentSnapshot document : documents) {
-                    Room room = document.toObject(Room.class);
-                    fetched.add(room);
-                }
-                Platform.runLater(() -> {
-                    roomList.setAll(fetched);
-                    RoomStore.getInstance().setRooms(fetched);
-                    populateBuildings();
-                    renderRooms();
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
+        RoomStore store = RoomStore.getInstance();
+        roomList.addListener(new WeakListChangeListener<>(roomStoreListener));
+        store.startLiveSync();
+
+        // Rooms already synced by an earlier visit render immediately
+        allFacets = store.getFacets(null);
+        populateBuildings();
+        renderRooms();
+    }
+
+    /** Listener for the room store; changed rooms lose their cached card. */
+    private void onRoomsChanged(ListChangeListener.Change<? extends Room> change) {
+        // Cards of changed rooms are rebuilt the next time they scroll into view
+        while (change.next()) {
+            for (Room r : change.getRemoved()) cardCache.remove(r.getId());
+            if (change.wasAdded()) {
+                for (Room r : change.getAddedSubList()) cardCache.remove(r.getId());
             }
-        }, Runnable::run);
+        }
+        scheduleRoomRefresh();
+    }
+
+    /**
+     * Coalesces a burst of store changes (e.g. the first snapshot) into one re-render.
+     */
+    private void scheduleRoomRefresh() {
+        // One refresh per pulse, however many changes arrive before it
+        AppExecutors.fxBatched().coalesce(roomRefreshKey, () -> {
+            RoomStore store = RoomStore.getInstance();
+            allFacets = store.getFacets(null);
+            Building selected = buildingCombo == null ? null : buildingCombo.getValue();
+            selectedFacets = store.getFacets(selected == null ? null : selected.getId());
+            if (buildingsChanged()) populateBuildings();
+            renderRooms();
+        });
+    }
+
+    private boolean buildingsChanged() {
+        if (buildingCombo == null) return false;
+        Set<String> listed = new HashSet<>();
+        for (Building b : buildingCombo.getItems()) {
+            if (b.getId() != null) listed.add(b.getId());
+        }
+        Set<String> current = new HashSet<>(allFacets.values(FacetCounts.BUILDING_ID));
+        return !listed.equals(current);
     }
 
     private void populateBuildings() {
@@ -166,14 +243,16 @@ public class RoomsViewController {
 
         var buildings = FXCollections.observableArrayList(allBuildings);
 
-        for (Room r : roomList) {
+        Map<String, String> names = RoomStore.getInstance().getBuildingNames();
+        List<Building> found = new ArrayList<>();
+        for (String buildingId : allFacets.values(FacetCounts.BUILDING_ID)) {
             Building b = new Building();
-            b.setId(r.getBuildingId());
-            b.setName(r.getBuildingName());
-            boolean exists = false;
-            for (Building ex : buildings) if (Objects.equals(ex.getId(), b.getId())) { exists = true; break; }
-            if (!exists) buildings.add(b);
+            b.setId(buildingId);
+            b.setName(names.get(buildingId));
+            found.add(b);
         }
+        found.sort(Comparator.comparing(b -> safeString(b.getName())));
+        buildings.addAll(found);
         buildingCombo.setItems(buildings);
         buildingCombo.getSelectionModel().select(allBuildings);
     }
@@ -184,9 +263,13 @@ public class RoomsViewController {
         String selectedType = typeCombo == null ? null : typeCombo.getValue();
         String selectedStatus = statusCombo == null ? null : statusCombo.getValue();
 
+        // Narrow by building through the store's index instead of scanning every room
+        List<Room> candidates = (selectedBuilding != null && selectedBuilding.getId() != null)
+                ? RoomStore.getInstance().getRoomsByBuilding(selectedBuilding.getId())
+                : roomList;
+
         List<Room> filtered = new ArrayList<>();
-        for (Room r : roomList) {
-            if (selectedBuilding != null && selectedBuilding.getId() != null && !Objects.equals(r.getBuildingId(), selectedBuilding.getId())) continue;
+        for (Room r : candidates) {
             if (selectedFloor != null && !selectedFloor.equals("All Floors") && !String.valueOf(r.getFloor()).equals(selectedFloor)) continue;
             if (selectedType != null && !selectedType.equals("All Types") && !Objects.equals(r.getRoomType(), selectedType)) continue;
             if (selectedStatus != null && !selectedStatus.equals("All Statuses") && !Objects.equals(r.getStatus(), selectedStatus)) continue;
@@ -195,13 +278,35 @@ public class RoomsViewController {
 
         filtered.sort(Comparator.comparing(r -> safeString(r.getRoomNumber())));
 
-        Platform.runLater(() -> {
-            roomsContainer.getChildren().clear();
-            for (Room room : filtered) {
-                VBox card = createRoomCard(room);
-                roomsContainer.getChildren().add(card);
-            }
-        });
+        // Always called on the JavaFX thread
+        filteredRooms = filtered;
+        rebuildGridRows();
+    }
+
+    /**
+     * Splits the filtered rooms into rows. The ListView then refreshes only the visible
+     * cells, which mostly reuse cached cards.
+     */
+    private void rebuildGridRows() {
+        gridColumns = columnsFor(roomsGrid.getWidth());
+        List<List<Room>> rows = new ArrayList<>((filteredRooms.size() + gridColumns - 1) / gridColumns);
+        for (int i = 0; i < filteredRooms.size(); i += gridColumns) {
+            rows.add(filteredRooms.subList(i, Math.min(i + gridColumns, filteredRooms.size())));
+        }
+        gridRows.setAll(rows);
+    }
+
+    private static int columnsFor(double width) {
+        return Math.max(1, (int) ((width - GRID_PADDING + CARD_GAP) / (CARD_WIDTH + CARD_GAP)));
+    }
+
+    /** Reuses the card last built for this room unless the store has since replaced it. */
+    private VBox cardFor(Room room) {
+        CachedCard cached = cardCache.get(room.getId());
+        if (cached != null && cached.room == room) return cached.card;
+        VBox card = createRoomCard(room);
+        if (room.getId() != null) cardCache.put(room.getId(), new CachedCard(room, card));
+        return card;
     }
 
     private String safeString(String s) {
@@ -211,16 +316,14 @@ public class RoomsViewController {
     @FXML
     private void onAddRoomClick() {
         ObservableList<Building> buildings = FXCollections.observableArrayList();
-        ApiFuture<QuerySnapshot> buildingsFuture = FirebaseInit.db.collection("buildings").get();
+        ApiFuture<List<Building>> buildingsFuture = Repositories.buildings().findAll();
         buildingsFuture.addListener(() -> {
             try {
-                for (QueryDocumentSnapshot doc : buildingsFuture.get().getDocuments()) {
-                    buildings.add(doc.toObject(Building.class));
-                }
+                buildings.addAll(buildingsFuture.get());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }, Runnable::run);
+        }, AppExecutors.io());
 
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Add New Room");
@@ -299,19 +402,27 @@ public class RoomsViewController {
                 newRoom.setStatus("Available");
                 newRoom.setId(roomNumber);
 
-                DocumentReference docRef = FirebaseInit.db.collection("rooms").document(roomNumber);
-
-                if (docRef.get().get().exists()) {
-                    showError("Error", "A room with number '" + roomNumber + "' already exists.");
-                    return;
-                }
-
-                docRef.set(newRoom);
-
-                roomList.add(newRoom);
-                RoomStore.getInstance().addRoom(newRoom);
-                populateBuildings();
-                renderRooms();
+                // Existence check, then the write; null means the number is taken
+                ApiFuture<Room> saved = ApiFutures.transformAsync(
+                        Repositories.rooms().findById(roomNumber),
+                        existing -> existing != null
+                                ? ApiFutures.immediateFuture(null)
+                                : ApiFutures.transform(Repositories.rooms().save(newRoom), done -> newRoom, AppExecutors.cpu()),
+                        AppExecutors.cpu());
+
+                saved.addListener(() -> {
+                    try {
+                        if (saved.get() == null) {
+                            showError("Error", "A room with number '" + roomNumber + "' already exists.");
+                            return;
+                        }
+                        // The store listener re-renders once the room lands in the list
+                        RoomStore.getInstance().addRoom(newRoom);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        showError("Failed to Add Room", "The room could not be saved. Please try again.");
+                    }
+                }, AppExecutors.fx());
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -320,15 +431,9 @@ public class RoomsViewController {
         }
     }
 
-    private int getOccupancyForRoom(String roomId) {
-        int count = 0;
-        if (roomId == null) return 0;
-        for (Tenant tenant : tenantList) {
-            if (roomId.equals(tenant.getRoomID())) {
-                count++;
-            }
-        }
-        return count;
+    // occupantCount is maintained by the room-assignment transaction and arrives with the room
+    private int getOccupancyForRoom(Room room) {
+        return room.getOccupantCount();
     }
 
     private VBox createRoomCard(Room room) {
@@ -369,7 +474,7 @@ public class RoomsViewController {
         addDetailRow(details, 2, "Type:", room.getRoomType());
         addDetailRow(details, 3, "Rate:", "₱" + room.getRate() + "/mo");
 
-        int currentOccupancy = getOccupancyForRoom(room.getId());
+        int currentOccupancy = getOccupancyForRoom(room);
         addDetailRow(details, 4, "Capacity:", currentOccupancy + "/" + room.getCapacity());
 
         HBox actions = new HBox(10);
@@ -383,7 +488,7 @@ public class RoomsViewController {
         more.setStyle("-fx-background-color: transparent;");
         MenuItem editItem = new MenuItem("Edit");
         editItem.setOnAction(e -> openEditRoomDialog(room));
-        MenuItem deleteItem = createDeleteMenuItem(room.getId(), card);
+        MenuItem deleteItem = createDeleteMenuItem(room.getId());
 
         boolean isCurrentlyOccupied = "Occupied".equalsIgnoreCase(room.getStatus());
         MenuItem statusToggle = new MenuItem(isCurrentlyOccupied ? "Mark as Available" : "Mark as Occupied");
@@ -395,12 +500,11 @@ public class RoomsViewController {
             try {
                 Map<String, Object> updates = new HashMap<>();
                 updates.put("status", newStatus);
-                FirebaseInit.db.collection("rooms").document(room.getId()).update(updates);
+                Repositories.rooms().update(room.getId(), updates);
+                DocumentCache.getInstance().invalidateRoom(room.getId());
 
                 room.setStatus(newStatus);
-                RoomStore.getInstance().removeById(room.getId());
                 RoomStore.getInstance().addRoom(room);
-                renderRooms();
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
@@ -445,18 +549,14 @@ public class RoomsViewController {
                 updates.put("capacity", newCapacity);
                 updates.put("rate", newRate);
 
-                FirebaseInit.db.collection("rooms").document(room.getId()).update(updates).addListener(() -> {
-                    Platform.runLater(() -> {
-                        room.setRoomType(newType);
-                        room.setCapacity(newCapacity);
-                        room.setRate(newRate);
-
-                        RoomStore.getInstance().removeById(room.getId());
-                        RoomStore.getInstance().addRoom(room);
+                Repositories.rooms().update(room.getId(), updates).addListener(() -> {
+                    DocumentCache.getInstance().invalidateRoom(room.getId());
+                    room.setRoomType(newType);
+                    room.setCapacity(newCapacity);
+                    room.setRate(newRate);
 
-                        renderRooms();
-                    });
-                }, Runnable::run);
+                    RoomStore.getInstance().addRoom(room);
+                }, AppExecutors.fxBatched());
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -474,7 +574,7 @@ public class RoomsViewController {
         }
     }
 
-    private MenuItem createDeleteMenuItem(String documentId, Node cardToRemove) {
+    private MenuItem createDeleteMenuItem(String documentId) {
         MenuItem deleteItem = new MenuItem("Delete");
         deleteItem.setOnAction(e -> {
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -484,14 +584,12 @@ public class RoomsViewController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                ApiFuture<WriteResult> deleteFuture = FirebaseInit.db.collection("rooms").document(documentId).delete();
+                ApiFuture<Void> deleteFuture = Repositories.rooms().delete(documentId);
                 deleteFuture.addListener(() -> {
-                    Platform.runLater(() -> {
-                        roomsContainer.getChildren().remove(cardToRemove);
-                        roomList.removeIf(r -> Objects.equals(r.getId(), documentId));
-                        RoomStore.getInstance().removeById(documentId);
-                    });
-                }, Runnable::run);
+                    // The store listener drops the card and re-renders the grid
+                    RoomStore.getInstance().removeById(documentId);
+                    DocumentCache.getInstance().invalidateRoom(documentId);
+                }, AppExecutors.io());
             }
         });
         return deleteItem;
@@ -505,6 +603,16 @@ public class RoomsViewController {
         grid.add(valueNode, 1, row);
     }
 
+    private static final class CachedCard {
+        final Room room;
+        final VBox card;
+
+        CachedCard(Room room, VBox card) {
+            this.room = room;
+            this.card = card;
+        }
+    }
+
     // Helper to show errors
     private void showError(String title, String content) {
         Platform.runLater(() -> {
@@ -15,6 +15,7 @@ public class Room {
     private double rate; // "5000"
     private String status; // "Available", "Occupied", "Maintenance"
     private int capacity;
+    private int occupantCount; // Tenants assigned; maintained by the room-assignment transaction
 
     // Required no-arg constructor for Firestore
     public Room() {}
@@ -46,4 +47,7 @@ public class Room {
 
     public int getCapacity() { return capacity; }
     public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getOccupantCount() { return occupantCount; }
+    public void setOccupantCount(int occupantCount) { this.occupantCount = occupantCount; }
 }
\ No newline at end of file
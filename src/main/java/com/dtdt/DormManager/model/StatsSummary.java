@@ -0,0 +1,57 @@
+package com.dtdt.DormManager.model;
+
+import com.google.cloud.firestore.annotation.DocumentId;
+
+/**
+ * Materialized counters. stats/summary holds the dorm-wide totals and each building
+ * has a buildingStats document keyed by its id. Building documents only track the
+ * room and resident fields.
+ */
+public class StatsSummary {
+
+    @DocumentId
+    private String id;
+
+    private long totalResidents;
+    private long totalRooms;
+    private long occupiedRooms;
+    private long totalCapacity;
+    private long pendingMaintenance;
+    private double paidRevenue;
+    private boolean initialized;
+    private long revision;
+
+    public StatsSummary() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public long getTotalResidents() { return totalResidents; }
+    public void setTotalResidents(long totalResidents) { this.totalResidents = totalResidents; }
+
+    public long getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(long totalRooms) { this.totalRooms = totalRooms; }
+
+    public long getOccupiedRooms() { return occupiedRooms; }
+    public void setOccupiedRooms(long occupiedRooms) { this.occupiedRooms = occupiedRooms; }
+
+    public long getTotalCapacity() { return totalCapacity; }
+    public void setTotalCapacity(long totalCapacity) { this.totalCapacity = totalCapacity; }
+
+    public long getPendingMaintenance() { return pendingMaintenance; }
+    public void setPendingMaintenance(long pendingMaintenance) { this.pendingMaintenance = pendingMaintenance; }
+
+    public double getPaidRevenue() { return paidRevenue; }
+    public void setPaidRevenue(double paidRevenue) { this.paidRevenue = paidRevenue; }
+
+    /**
+     * Set only by a full rebuild. Increments merged into a missing document create it
+     * without this flag, so a partial summary is never mistaken for a complete one.
+     */
+    public boolean isInitialized() { return initialized; }
+    public void setInitialized(boolean initialized) { this.initialized = initialized; }
+
+    /** Bumped by every counted write on the summary; a rebuild only commits if it is unchanged. */
+    public long getRevision() { return revision; }
+    public void setRevision(long revision) { this.revision = revision; }
+}
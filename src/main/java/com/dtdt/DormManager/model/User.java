@@ -34,6 +34,10 @@ public abstract class User {
     }
 
 
+    /**
+     * Legacy unsalted SHA-256 hex. Only kept so {@code Pbkdf2PasswordHasher} can verify
+     * old hashes; new hashes come from {@code PasswordService}.
+     */
     public static String hashPassword(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
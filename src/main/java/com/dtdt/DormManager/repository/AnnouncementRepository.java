@@ -0,0 +1,20 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Announcement;
+import com.google.api.core.ApiFuture;
+
+import java.util.List;
+
+/**
+ * Data access for the "announcements" collection.
+ */
+public interface AnnouncementRepository {
+
+    /** Newest announcements first; a limit of 0 or less returns all of them. */
+    ApiFuture<List<Announcement>> findRecent(int limit);
+
+    /** Creates or overwrites the announcement document keyed by announcement.getId(). */
+    ApiFuture<Void> save(Announcement announcement);
+
+    ApiFuture<Void> delete(String id);
+}
@@ -0,0 +1,19 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Building;
+import com.google.api.core.ApiFuture;
+
+import java.util.List;
+
+/**
+ * Data access for the "buildings" collection.
+ */
+public interface BuildingRepository {
+
+    ApiFuture<List<Building>> findAll();
+
+    /** Saves the building, assigning a random id first if it has none. */
+    ApiFuture<Void> save(Building building);
+
+    ApiFuture<Void> delete(String id);
+}
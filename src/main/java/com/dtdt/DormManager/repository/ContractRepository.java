@@ -0,0 +1,26 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Contract;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data access for the "contracts" collection.
+ */
+public interface ContractRepository {
+
+    /** Resolves to null when no contract with this id exists. */
+    ApiFuture<Contract> findById(String id);
+
+    /** Contracts whose endDate is on or after the given date. */
+    ApiFuture<List<Contract>> findActive(Date asOf);
+
+    /** Creates or overwrites the contract document keyed by contract.getId(). */
+    ApiFuture<Void> save(Contract contract);
+
+    /** Streams contract changes: the whole collection first, then only what changed. */
+    ListenerRegistration listen(EntityListener<Contract> listener);
+}
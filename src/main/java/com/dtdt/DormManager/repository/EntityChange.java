@@ -0,0 +1,24 @@
+package com.dtdt.DormManager.repository;
+
+/**
+ * A single document-level change delivered by a live listener.
+ * For REMOVED changes the value is the last known state of the document.
+ */
+public final class EntityChange<T> {
+
+    public enum Type { ADDED, MODIFIED, REMOVED }
+
+    private final Type type;
+    private final String id;
+    private final T value;
+
+    public EntityChange(Type type, String id, T value) {
+        this.type = type;
+        this.id = id;
+        this.value = value;
+    }
+
+    public Type getType() { return type; }
+    public String getId() { return id; }
+    public T getValue() { return value; }
+}
@@ -0,0 +1,19 @@
+package com.dtdt.DormManager.repository;
+
+import java.util.List;
+
+/**
+ * Receives batches of changes from a live collection listener. The first batch
+ * contains every existing document as ADDED (and is delivered even when empty);
+ * later batches contain only deltas.
+ */
+@FunctionalInterface
+public interface EntityListener<T> {
+
+    void onChanges(List<EntityChange<T>> changes);
+
+    /** Called once if the listener fails; no further batches are delivered. */
+    default void onError(Throwable error) {
+        error.printStackTrace();
+    }
+}
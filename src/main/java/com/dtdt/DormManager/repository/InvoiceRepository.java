@@ -0,0 +1,59 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data access for the "invoices" collection.
+ */
+public interface InvoiceRepository {
+
+    ApiFuture<List<Invoice>> findByTenant(String tenantId);
+
+    ApiFuture<List<Invoice>> findByStatus(String status);
+
+    /** Pending invoices whose dueDate is before the given date. */
+    ApiFuture<List<Invoice>> findPendingDueBefore(Date date);
+
+    /**
+     * The monthYear values already invoiced for each of the given contracts, whatever the
+     * invoice ids are. Contracts without invoices are absent from the map.
+     */
+    ApiFuture<Map<String, Set<String>>> findInvoicedPeriods(Collection<String> contractIds);
+
+    /** Sum of totalAmount over invoices with the given status. */
+    ApiFuture<Double> sumTotalAmountByStatus(String status);
+
+    /** Creates or overwrites the invoice document keyed by invoice.getId(). */
+    ApiFuture<Void> save(Invoice invoice);
+
+    /**
+     * Creates a set of new invoices with as few commits as possible, never splitting one
+     * contract's invoices across commits. Ids that already exist are skipped and keep their
+     * stored invoice. Resolves to the number of invoices created; fails if any commit fails.
+     */
+    ApiFuture<Integer> saveAll(List<Invoice> invoices);
+
+    ApiFuture<Void> update(String id, Map<String, Object> fields);
+
+    /**
+     * Marks the given invoices Overdue and adds a late fee of {@code rate * rentAmount}.
+     * Each invoice is re-read in the write's transaction and skipped unless it is still
+     * Pending, due before {@code asOf} and without a fee, so concurrent runs can't charge
+     * twice. Resolves to the number of invoices updated.
+     */
+    ApiFuture<Integer> applyLateFees(List<String> ids, double rate, Date asOf);
+
+    /**
+     * Streams changes to invoices with the given status: the matching invoices first,
+     * then only what changed. An invoice whose status changes away arrives as REMOVED.
+     */
+    ListenerRegistration listenByStatus(String status, EntityListener<Invoice> listener);
+}
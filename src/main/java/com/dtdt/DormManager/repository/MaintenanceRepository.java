@@ -0,0 +1,25 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.google.api.core.ApiFuture;
+
+import java.util.List;
+
+/**
+ * Data access for the "maintenanceRequests" collection.
+ */
+public interface MaintenanceRepository {
+
+    /** Requests with the given status, oldest first. */
+    ApiFuture<List<MaintenanceRequest>> findByStatus(String status);
+
+    ApiFuture<Long> countByStatus(String status);
+
+    /** Requests submitted by one tenant, newest first. */
+    ApiFuture<List<MaintenanceRequest>> findByTenant(String tenantId);
+
+    /** Creates or overwrites the request document keyed by request.getId(). */
+    ApiFuture<Void> save(MaintenanceRequest request);
+
+    ApiFuture<Void> updateStatus(String id, String status);
+}
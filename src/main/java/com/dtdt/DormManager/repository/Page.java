@@ -0,0 +1,26 @@
+package com.dtdt.DormManager.repository;
+
+import java.util.List;
+
+/**
+ * One page of a cursor query. Pass {@link #getNextCursor()} back to fetch the page after it.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public Page(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() { return items; }
+
+    /** Document id of the last item, or null for an empty page. */
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return hasMore; }
+}
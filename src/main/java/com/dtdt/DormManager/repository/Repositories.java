@@ -0,0 +1,83 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.controller.config.FirebaseInit;
+import com.dtdt.DormManager.repository.firestore.*;
+import com.dtdt.DormManager.repository.memory.*;
+import com.google.cloud.firestore.Firestore;
+
+/**
+ * Application-wide access point for the repositories. Controllers go through
+ * these accessors instead of touching FirebaseInit.db, so the backend can be
+ * swapped (Firestore or in-memory) in one place.
+ */
+public final class Repositories {
+
+    private static volatile RoomRepository rooms;
+    private static volatile BuildingRepository buildings;
+    private static volatile TenantRepository tenants;
+    private static volatile UserRepository users;
+    private static volatile ContractRepository contracts;
+    private static volatile InvoiceRepository invoices;
+    private static volatile MaintenanceRepository maintenance;
+    private static volatile ReservationRepository reservations;
+    private static volatile AnnouncementRepository announcements;
+    private static volatile StatsRepository stats;
+    private static volatile RoomAssignmentRepository roomAssignments;
+    private static volatile boolean initialized;
+
+    private Repositories() {}
+
+    public static synchronized void useFirestore(Firestore db) {
+        rooms = new FirestoreRoomRepository(db);
+        buildings = new FirestoreBuildingRepository(db);
+        tenants = new FirestoreTenantRepository(db);
+        users = new FirestoreUserRepository(db);
+        contracts = new FirestoreContractRepository(db);
+        invoices = new FirestoreInvoiceRepository(db);
+        maintenance = new FirestoreMaintenanceRepository(db);
+        reservations = new FirestoreReservationRepository(db);
+        announcements = new FirestoreAnnouncementRepository(db);
+        stats = new FirestoreStatsRepository(db);
+        roomAssignments = new FirestoreRoomAssignmentRepository(db);
+        initialized = true;
+    }
+
+    public static synchronized void useInMemory(InMemoryDatabase database) {
+        rooms = new InMemoryRoomRepository(database);
+        buildings = new InMemoryBuildingRepository(database);
+        tenants = new InMemoryTenantRepository(database);
+        users = new InMemoryUserRepository(database);
+        contracts = new InMemoryContractRepository(database);
+        invoices = new InMemoryInvoiceRepository(database);
+        maintenance = new InMemoryMaintenanceRepository(database);
+        reservations = new InMemoryReservationRepository(database);
+        announcements = new InMemoryAnnouncementRepository(database);
+        stats = new InMemoryStatsRepository(database);
+        roomAssignments = new InMemoryRoomAssignmentRepository(database);
+        initialized = true;
+    }
+
+    public static RoomRepository rooms() { ensureInitialized(); return rooms; }
+    public static BuildingRepository buildings() { ensureInitialized(); return buildings; }
+    public static TenantRepository tenants() { ensureInitialized(); return tenants; }
+    public static UserRepository users() { ensureInitialized(); return users; }
+    public static ContractRepository contracts() { ensureInitialized(); return contracts; }
+    public static InvoiceRepository invoices() { ensureInitialized(); return invoices; }
+    public static MaintenanceRepository maintenance() { ensureInitialized(); return maintenance; }
+    public static ReservationRepository reservations() { ensureInitialized(); return reservations; }
+    public static AnnouncementRepository announcements() { ensureInitialized(); return announcements; }
+    public static StatsRepository stats() { ensureInitialized(); return stats; }
+    public static RoomAssignmentRepository roomAssignments() { ensureInitialized(); return roomAssignments; }
+
+    // Falls back to Firestore if nobody picked a backend explicitly
+    private static void ensureInitialized() {
+        if (initialized) return;
+        synchronized (Repositories.class) {
+            if (initialized) return;
+            if (FirebaseInit.db == null) {
+                throw new IllegalStateException("No repository backend configured and Firebase is not initialized.");
+            }
+            useFirestore(FirebaseInit.db);
+        }
+    }
+}
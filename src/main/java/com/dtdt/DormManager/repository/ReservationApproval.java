@@ -0,0 +1,23 @@
+package com.dtdt.DormManager.repository;
+
+import java.util.Map;
+
+/**
+ * One reservation to approve: the tenant account to create and the reservation to flip.
+ */
+public final class ReservationApproval {
+
+    private final String reservationId;
+    private final String tenantDocumentId;
+    private final Map<String, Object> tenantFields;
+
+    public ReservationApproval(String reservationId, String tenantDocumentId, Map<String, Object> tenantFields) {
+        this.reservationId = reservationId;
+        this.tenantDocumentId = tenantDocumentId;
+        this.tenantFields = tenantFields;
+    }
+
+    public String getReservationId() { return reservationId; }
+    public String getTenantDocumentId() { return tenantDocumentId; }
+    public Map<String, Object> getTenantFields() { return tenantFields; }
+}
@@ -0,0 +1,31 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.google.api.core.ApiFuture;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data access for the "reservations" collection.
+ */
+public interface ReservationRepository {
+
+    /** Most approvals one {@link #approveBatch} call accepts: two writes each, plus one stats write. */
+    int MAX_BATCH_APPROVALS = 249;
+
+    ApiFuture<List<Reservation>> findByStatus(String status);
+
+    /** Creates or overwrites the reservation document keyed by reservation.getId(). */
+    ApiFuture<Void> save(Reservation reservation);
+
+    ApiFuture<Void> updateStatus(String id, String status);
+
+    /**
+     * Creates the tenant accounts and marks their reservations Approved in one batched
+     * write. Reservations whose tenant document already exists are skipped and stay
+     * Pending, so an existing account is never overwritten. Resolves to the ids of the
+     * reservations that were approved.
+     */
+    ApiFuture<Set<String>> approveBatch(List<ReservationApproval> approvals);
+}
@@ -0,0 +1,27 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Room;
+
+/**
+ * Outcome of a committed room assignment: the rooms as written and the tenant's contract.
+ */
+public final class RoomAssignment {
+
+    private final Room room;
+    private final Room previousRoom;
+    private final String contractId;
+
+    public RoomAssignment(Room room, Room previousRoom, String contractId) {
+        this.room = room;
+        this.previousRoom = previousRoom;
+        this.contractId = contractId;
+    }
+
+    /** The room the tenant is now in, with its new occupantCount and status. */
+    public Room getRoom() { return room; }
+
+    /** The room the tenant left, or null if they had none or stayed put. */
+    public Room getPreviousRoom() { return previousRoom; }
+
+    public String getContractId() { return contractId; }
+}
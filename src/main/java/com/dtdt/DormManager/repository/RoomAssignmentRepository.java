@@ -0,0 +1,25 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Contract;
+import com.google.api.core.ApiFuture;
+
+/**
+ * Moves tenants between rooms. Each assignment is a single transaction over the tenant,
+ * both rooms' occupantCount/status, the optional new contract and the stats documents.
+ */
+public interface RoomAssignmentRepository {
+
+    /**
+     * Assigns the tenant to the room, creating {@code newContract} (may be null) in the same
+     * write. Fails with {@link RoomUnavailableException} if the room is full or under
+     * maintenance at commit time.
+     */
+    ApiFuture<RoomAssignment> assign(String tenantDocumentId, String roomId, Contract newContract);
+
+    /**
+     * Backfills occupantCount and the matching status for a room written before the counter
+     * existed, counting its tenants in the same transaction. Resolves to false without
+     * writing if the room is gone or already has a counter.
+     */
+    ApiFuture<Boolean> migrateOccupantCount(String roomId);
+}
@@ -0,0 +1,51 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Room;
+
+import java.util.Map;
+
+/**
+ * Occupancy rules shared by the room-assignment backends: a room is "Occupied" once
+ * occupantCount reaches capacity and goes back to "Available" when a bed frees up.
+ * Rooms under maintenance keep their status and can't take new tenants.
+ */
+public final class RoomOccupancy {
+
+    private RoomOccupancy() {}
+
+    public static void checkAvailable(Room room) {
+        if ("Maintenance".equalsIgnoreCase(room.getStatus())) {
+            throw new RoomUnavailableException("Room " + room.getRoomNumber() + " is under maintenance.");
+        }
+        if (room.getOccupantCount() >= room.getCapacity()) {
+            throw new RoomUnavailableException("Room " + room.getRoomNumber() + " is already full.");
+        }
+    }
+
+    public static void addOccupant(Room room) {
+        room.setOccupantCount(room.getOccupantCount() + 1);
+        if (room.getOccupantCount() >= room.getCapacity()) room.setStatus("Occupied");
+    }
+
+    public static void removeOccupant(Room room) {
+        room.setOccupantCount(Math.max(0, room.getOccupantCount() - 1));
+        if ("Occupied".equalsIgnoreCase(room.getStatus()) && room.getOccupantCount() < room.getCapacity()) {
+            room.setStatus("Available");
+        }
+    }
+
+    /** Sets the room's count of tenants and the status that goes with it. */
+    public static void setOccupants(Room room, int occupants) {
+        room.setOccupantCount(occupants);
+        if (occupants >= room.getCapacity()) {
+            if (!"Maintenance".equalsIgnoreCase(room.getStatus())) room.setStatus("Occupied");
+        } else if ("Occupied".equalsIgnoreCase(room.getStatus())) {
+            room.setStatus("Available");
+        }
+    }
+
+    /** The fields an assignment writes back to a room document. */
+    public static Map<String, Object> fields(Room room) {
+        return Map.of("occupantCount", room.getOccupantCount(), "status", room.getStatus());
+    }
+}
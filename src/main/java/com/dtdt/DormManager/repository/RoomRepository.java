@@ -0,0 +1,32 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Room;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data access for the "rooms" collection.
+ */
+public interface RoomRepository {
+
+    ApiFuture<List<Room>> findAll();
+
+    /** Total bed capacity across all rooms. */
+    ApiFuture<Long> sumCapacity();
+
+    /** Resolves to null when no room with this id exists. */
+    ApiFuture<Room> findById(String id);
+
+    /** Creates or overwrites the room document keyed by room.getId(). */
+    ApiFuture<Void> save(Room room);
+
+    ApiFuture<Void> update(String id, Map<String, Object> fields);
+
+    ApiFuture<Void> delete(String id);
+
+    /** Subscribes to the whole collection; remove the registration to stop listening. */
+    ListenerRegistration listen(EntityListener<Room> listener);
+}
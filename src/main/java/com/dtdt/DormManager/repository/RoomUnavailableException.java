@@ -0,0 +1,12 @@
+package com.dtdt.DormManager.repository;
+
+/**
+ * Thrown from a room assignment when the target room is full or under maintenance,
+ * typically because another admin assigned the last bed first.
+ */
+public class RoomUnavailableException extends IllegalStateException {
+
+    public RoomUnavailableException(String message) {
+        super(message);
+    }
+}
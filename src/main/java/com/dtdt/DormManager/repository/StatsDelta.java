@@ -0,0 +1,111 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.model.Room;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Increments to apply to the materialized stats documents for one write. Repositories
+ * subtract the contribution of a document's old state and add its new state, so a
+ * write that doesn't change any counted field produces an empty delta.
+ */
+public final class StatsDelta {
+
+    public static final String TOTAL_RESIDENTS = "totalResidents";
+    public static final String TOTAL_ROOMS = "totalRooms";
+    public static final String OCCUPIED_ROOMS = "occupiedRooms";
+    public static final String TOTAL_CAPACITY = "totalCapacity";
+    public static final String PENDING_MAINTENANCE = "pendingMaintenance";
+    public static final String PAID_REVENUE = "paidRevenue";
+
+    private final Map<String, Long> summaryCounts = new LinkedHashMap<>();
+    private double paidRevenue;
+    private final Map<String, Map<String, Long>> buildingCounts = new LinkedHashMap<>();
+
+    public StatsDelta addRoom(Room room) { return room(room, 1); }
+    public StatsDelta removeRoom(Room room) { return room(room, -1); }
+
+    public StatsDelta addInvoice(Invoice invoice) { return invoice(invoice, 1); }
+    public StatsDelta removeInvoice(Invoice invoice) { return invoice(invoice, -1); }
+
+    public StatsDelta addMaintenance(String status) { return maintenance(status, 1); }
+    public StatsDelta removeMaintenance(String status) { return maintenance(status, -1); }
+
+    /** A new tenant; buildingId is that of their room, or null if unassigned. */
+    public StatsDelta addResident(String buildingId) {
+        count(TOTAL_RESIDENTS, 1);
+        countForBuilding(buildingId, TOTAL_RESIDENTS, 1);
+        return this;
+    }
+
+    /** A tenant changing rooms; only the per-building resident counts move. */
+    public StatsDelta moveResident(String fromBuildingId, String toBuildingId) {
+        countForBuilding(fromBuildingId, TOTAL_RESIDENTS, -1);
+        countForBuilding(toBuildingId, TOTAL_RESIDENTS, 1);
+        return this;
+    }
+
+    /** Dorm-wide increments with zero entries dropped. Values are Long, or Double for revenue. */
+    public Map<String, Number> getSummaryIncrements() {
+        Map<String, Number> result = nonZero(summaryCounts);
+        if (paidRevenue != 0) result.put(PAID_REVENUE, paidRevenue);
+        return result;
+    }
+
+    /** Per-building increments, keyed by building id, with empty buildings dropped. */
+    public Map<String, Map<String, Number>> getBuildingIncrements() {
+        Map<String, Map<String, Number>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Long>> entry : buildingCounts.entrySet()) {
+            Map<String, Number> increments = nonZero(entry.getValue());
+            if (!increments.isEmpty()) result.put(entry.getKey(), increments);
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return getSummaryIncrements().isEmpty() && getBuildingIncrements().isEmpty();
+    }
+
+    private StatsDelta room(Room room, int sign) {
+        if (room == null) return this;
+        long occupied = "Occupied".equalsIgnoreCase(room.getStatus()) ? sign : 0;
+        count(TOTAL_ROOMS, sign);
+        count(OCCUPIED_ROOMS, occupied);
+        count(TOTAL_CAPACITY, (long) sign * room.getCapacity());
+        countForBuilding(room.getBuildingId(), TOTAL_ROOMS, sign);
+        countForBuilding(room.getBuildingId(), OCCUPIED_ROOMS, occupied);
+        countForBuilding(room.getBuildingId(), TOTAL_CAPACITY, (long) sign * room.getCapacity());
+        return this;
+    }
+
+    private StatsDelta invoice(Invoice invoice, int sign) {
+        if (invoice != null && "Paid".equals(invoice.getStatus())) {
+            paidRevenue += sign * invoice.getTotalAmount();
+        }
+        return this;
+    }
+
+    private StatsDelta maintenance(String status, int sign) {
+        if ("Pending".equals(status)) count(PENDING_MAINTENANCE, sign);
+        return this;
+    }
+
+    private void count(String field, long amount) {
+        summaryCounts.merge(field, amount, Long::sum);
+    }
+
+    private void countForBuilding(String buildingId, String field, long amount) {
+        if (buildingId == null) return;
+        buildingCounts.computeIfAbsent(buildingId, k -> new LinkedHashMap<>()).merge(field, amount, Long::sum);
+    }
+
+    private static Map<String, Number> nonZero(Map<String, Long> counts) {
+        Map<String, Number> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (entry.getValue() != 0) result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import com.google.api.core.ApiFuture;
+
+import java.util.Map;
+
+/**
+ * Read access to the materialized stats/summary and buildingStats documents. The counters
+ * are kept current by the room, tenant, invoice and maintenance repositories as part of
+ * their writes.
+ */
+public interface StatsRepository {
+
+    /** The dorm-wide "summary" document; null if it has never been built. */
+    ApiFuture<StatsSummary> findSummary();
+
+    /** Counters for one building; null if none have been recorded. */
+    ApiFuture<StatsSummary> findByBuilding(String buildingId);
+
+    /**
+     * Atomically stores a full recount as the summary and the given building documents.
+     * Returns the stored summary instead if another client initialized it first, or null
+     * without writing if a counted write has moved the revision past {@code expectedRevision}.
+     */
+    ApiFuture<StatsSummary> initialize(StatsSummary summary, Map<String, StatsSummary> buildings, long expectedRevision);
+}
@@ -0,0 +1,36 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.Tenant;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data access for tenant documents in the "users" collection (userType == "Tenant").
+ */
+public interface TenantRepository {
+
+    ApiFuture<List<Tenant>> findAll();
+
+    /** Number of tenant documents, without downloading them where the backend allows. */
+    ApiFuture<Long> count();
+
+    /**
+     * Tenants ordered by document id, starting after {@code afterDocumentId} (null for the
+     * first page). Only the requested page is read, whatever the size of the collection.
+     */
+    ApiFuture<Page<Tenant>> findPage(String afterDocumentId, int limit);
+
+    /** Resolves to null when no tenant document has this id. */
+    ApiFuture<Tenant> findById(String documentId);
+
+    /** Writes a brand-new tenant document from raw field values. */
+    ApiFuture<Void> create(String documentId, Map<String, Object> fields);
+
+    ApiFuture<Void> update(String documentId, Map<String, Object> fields);
+
+    /** Subscribes to all tenant documents; remove the registration to stop listening. */
+    ListenerRegistration listen(EntityListener<Tenant> listener);
+}
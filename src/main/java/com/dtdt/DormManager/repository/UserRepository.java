@@ -0,0 +1,23 @@
+package com.dtdt.DormManager.repository;
+
+import com.dtdt.DormManager.model.User;
+import com.google.api.core.ApiFuture;
+
+/**
+ * Lookups across every account in the "users" collection, used for signing in.
+ * Results are mapped to {@link com.dtdt.DormManager.model.Tenant} or
+ * {@link com.dtdt.DormManager.model.Admin} depending on the stored userType.
+ */
+public interface UserRepository {
+
+    /** Resolves to null when no account document has this id (tenants are keyed by student ID). */
+    ApiFuture<User> findById(String documentId);
+
+    /** Resolves to null when no account has this userId. */
+    ApiFuture<User> findByUserId(String userId);
+
+    /** Resolves to null when no account has this email. */
+    ApiFuture<User> findByEmail(String email);
+
+    ApiFuture<Void> updatePasswordHash(String documentId, String passwordHash);
+}
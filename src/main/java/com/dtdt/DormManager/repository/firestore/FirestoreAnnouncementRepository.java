@@ -0,0 +1,36 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Announcement;
+import com.dtdt.DormManager.repository.AnnouncementRepository;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+
+import java.util.List;
+
+public class FirestoreAnnouncementRepository implements AnnouncementRepository {
+
+    private final CollectionReference announcements;
+
+    public FirestoreAnnouncementRepository(Firestore db) {
+        this.announcements = db.collection("announcements");
+    }
+
+    @Override
+    public ApiFuture<List<Announcement>> findRecent(int limit) {
+        Query query = announcements.orderBy("datePosted", Query.Direction.DESCENDING);
+        if (limit > 0) query = query.limit(limit);
+        return FirestoreSupport.toList(query.get(), Announcement.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Announcement announcement) {
+        return FirestoreSupport.toVoid(announcements.document(announcement.getId()).set(announcement));
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        return FirestoreSupport.toVoid(announcements.document(id).delete());
+    }
+}
@@ -0,0 +1,35 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Building;
+import com.dtdt.DormManager.repository.BuildingRepository;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+
+import java.util.List;
+import java.util.UUID;
+
+public class FirestoreBuildingRepository implements BuildingRepository {
+
+    private final CollectionReference buildings;
+
+    public FirestoreBuildingRepository(Firestore db) {
+        this.buildings = db.collection("buildings");
+    }
+
+    @Override
+    public ApiFuture<List<Building>> findAll() {
+        return FirestoreSupport.toList(buildings.get(), Building.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Building building) {
+        if (building.getId() == null) building.setId(UUID.randomUUID().toString());
+        return FirestoreSupport.toVoid(buildings.document(building.getId()).set(building));
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        return FirestoreSupport.toVoid(buildings.document(id).delete());
+    }
+}
@@ -0,0 +1,41 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.repository.ContractRepository;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.Date;
+import java.util.List;
+
+public class FirestoreContractRepository implements ContractRepository {
+
+    private final CollectionReference contracts;
+
+    public FirestoreContractRepository(Firestore db) {
+        this.contracts = db.collection("contracts");
+    }
+
+    @Override
+    public ApiFuture<Contract> findById(String id) {
+        return FirestoreSupport.toObject(contracts.document(id).get(), Contract.class);
+    }
+
+    @Override
+    public ApiFuture<List<Contract>> findActive(Date asOf) {
+        return FirestoreSupport.toList(contracts.whereGreaterThanOrEqualTo("endDate", asOf).get(), Contract.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Contract contract) {
+        return FirestoreSupport.toVoid(contracts.document(contract.getId()).set(contract));
+    }
+
+    @Override
+    public ListenerRegistration listen(EntityListener<Contract> listener) {
+        return FirestoreSupport.listen(contracts, Contract.class, listener);
+    }
+}
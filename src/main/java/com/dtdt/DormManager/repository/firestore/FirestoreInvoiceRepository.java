@@ -0,0 +1,243 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.InvoiceRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Invoice writes run in transactions that keep the paid-revenue total in the stats summary current.
+ */
+public class FirestoreInvoiceRepository implements InvoiceRepository {
+
+    // Firestore's per-batch write limit, less one write kept for the stats summary increment
+    static final int BATCH_SIZE = 499;
+    // Firestore's limit on values in one whereIn filter
+    static final int IN_QUERY_LIMIT = 30;
+
+    private final Firestore db;
+    private final CollectionReference invoices;
+    private final StatsLedger statsLedger;
+
+    public FirestoreInvoiceRepository(Firestore db) {
+        this.db = db;
+        this.invoices = db.collection("invoices");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findByTenant(String tenantId) {
+        return FirestoreSupport.toList(invoices.whereEqualTo("tenantId", tenantId).get(), Invoice.class);
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findByStatus(String status) {
+        return FirestoreSupport.toList(invoices.whereEqualTo("status", status).get(), Invoice.class);
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findPendingDueBefore(Date date) {
+        return FirestoreSupport.toList(invoices.whereEqualTo("status", "Pending").whereLessThan("dueDate", date).get(), Invoice.class);
+    }
+
+    /**
+     * One whereIn query per {@link #IN_QUERY_LIMIT} contracts, run in parallel and projected
+     * to the two fields needed.
+     */
+    @Override
+    public ApiFuture<Map<String, Set<String>>> findInvoicedPeriods(Collection<String> contractIds) {
+        List<String> ids = new ArrayList<>(contractIds);
+        List<ApiFuture<QuerySnapshot>> queries = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_QUERY_LIMIT) {
+            List<String> group = ids.subList(from, Math.min(from + IN_QUERY_LIMIT, ids.size()));
+            queries.add(invoices.whereIn("contractId", group).select("contractId", "monthYear").get());
+        }
+        return ApiFutures.transform(ApiFutures.allAsList(queries), snapshots -> {
+            Map<String, Set<String>> periods = new HashMap<>();
+            for (QuerySnapshot snapshot : snapshots) {
+                for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                    String contractId = document.getString("contractId");
+                    String monthYear = document.getString("monthYear");
+                    if (contractId != null && monthYear != null) {
+                        periods.computeIfAbsent(contractId, k -> new HashSet<>()).add(monthYear);
+                    }
+                }
+            }
+            return periods;
+        }, Runnable::run);
+    }
+
+    @Override
+    public ApiFuture<Double> sumTotalAmountByStatus(String status) {
+        return FirestoreSupport.sumDouble(invoices.whereEqualTo("status", status), "totalAmount");
+    }
+
+    @Override
+    public ApiFuture<Void> save(Invoice invoice) {
+        DocumentReference ref = invoices.document(invoice.getId());
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            Invoice before = existing.exists() ? existing.toObject(Invoice.class) : null;
+
+            transaction.set(ref, invoice);
+            statsLedger.apply(transaction, new StatsDelta().removeInvoice(before).addInvoice(invoice));
+            return null;
+        });
+    }
+
+    /**
+     * One transaction per chunk of at most {@link #BATCH_SIZE} invoices: the chunk's ids are
+     * read with one getAll and only the missing ones are created, so an existing (possibly
+     * paid) invoice is never overwritten and adds no revenue. Chunks are cut between
+     * contracts, so each contract's schedule is stored all-or-nothing; the chunks commit in
+     * parallel.
+     */
+    @Override
+    public ApiFuture<Integer> saveAll(List<Invoice> batchInvoices) {
+        List<ApiFuture<Integer>> chunks = new ArrayList<>();
+        for (List<Invoice> chunk : chunkByContract(batchInvoices, BATCH_SIZE)) {
+            DocumentReference[] refs = new DocumentReference[chunk.size()];
+            for (int i = 0; i < refs.length; i++) refs[i] = invoices.document(chunk.get(i).getId());
+
+            chunks.add(db.runTransaction(transaction -> {
+                List<DocumentSnapshot> snapshots = transaction.getAll(refs).get();
+                StatsDelta delta = new StatsDelta();
+                int created = 0;
+                for (int i = 0; i < refs.length; i++) {
+                    if (snapshots.get(i).exists()) continue;
+                    transaction.create(refs[i], chunk.get(i));
+                    delta.addInvoice(chunk.get(i));
+                    created++;
+                }
+                statsLedger.apply(transaction, delta);
+                return created;
+            }));
+        }
+        return sum(chunks);
+    }
+
+    /**
+     * Packs whole contracts into chunks of at most {@code limit} invoices, keeping the input
+     * order within each contract. Only a single contract with more than {@code limit}
+     * invoices is split.
+     */
+    static List<List<Invoice>> chunkByContract(List<Invoice> batchInvoices, int limit) {
+        Map<String, List<Invoice>> byContract = new LinkedHashMap<>();
+        for (Invoice invoice : batchInvoices) {
+            byContract.computeIfAbsent(invoice.getContractId(), k -> new ArrayList<>()).add(invoice);
+        }
+        List<List<Invoice>> chunks = new ArrayList<>();
+        List<Invoice> current = new ArrayList<>();
+        for (List<Invoice> schedule : byContract.values()) {
+            if (!current.isEmpty() && current.size() + schedule.size() > limit) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+            for (Invoice invoice : schedule) {
+                if (current.size() == limit) {
+                    chunks.add(current);
+                    current = new ArrayList<>();
+                }
+                current.add(invoice);
+            }
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+
+    @Override
+    public ApiFuture<Void> update(String id, Map<String, Object> fields) {
+        DocumentReference ref = invoices.document(id);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            transaction.update(ref, fields);
+            if (existing.exists()) {
+                Invoice before = existing.toObject(Invoice.class);
+                Invoice after = withUpdates(existing.toObject(Invoice.class), fields);
+                statsLedger.apply(transaction, new StatsDelta().removeInvoice(before).addInvoice(after));
+            }
+            return null;
+        });
+    }
+
+    /** One transaction per {@link #BATCH_SIZE} invoices; the chunks commit in parallel. */
+    @Override
+    public ApiFuture<Integer> applyLateFees(List<String> ids, double rate, Date asOf) {
+        List<ApiFuture<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            DocumentReference[] refs = new DocumentReference[chunk.size()];
+            for (int i = 0; i < refs.length; i++) refs[i] = invoices.document(chunk.get(i));
+
+            chunks.add(db.runTransaction(transaction -> {
+                List<DocumentSnapshot> snapshots = transaction.getAll(refs).get();
+                StatsDelta delta = new StatsDelta();
+                int updated = 0;
+                for (DocumentSnapshot snapshot : snapshots) {
+                    Invoice invoice = snapshot.exists() ? snapshot.toObject(Invoice.class) : null;
+                    if (!isLateFeeDue(invoice, asOf)) continue;
+
+                    delta.removeInvoice(invoice);
+                    double lateFee = invoice.getRentAmount() * rate;
+                    invoice.setLateFee(lateFee);
+                    invoice.setTotalAmount(invoice.getTotalAmount() + lateFee);
+                    invoice.setStatus("Overdue");
+                    delta.addInvoice(invoice);
+
+                    transaction.update(snapshot.getReference(), Map.of(
+                            "status", "Overdue",
+                            "lateFee", lateFee,
+                            "totalAmount", invoice.getTotalAmount()));
+                    updated++;
+                }
+                statsLedger.apply(transaction, delta);
+                return updated;
+            }));
+        }
+        return sum(chunks);
+    }
+
+    private static ApiFuture<Integer> sum(List<ApiFuture<Integer>> counts) {
+        return ApiFutures.transform(ApiFutures.allAsList(counts), values -> {
+            int total = 0;
+            for (Integer value : values) total += value;
+            return total;
+        }, Runnable::run);
+    }
+
+    static boolean isLateFeeDue(Invoice invoice, Date asOf) {
+        return invoice != null && "Pending".equals(invoice.getStatus()) && invoice.getLateFee() == 0
+                && invoice.getDueDate() != null && invoice.getDueDate().before(asOf);
+    }
+
+    @Override
+    public ListenerRegistration listenByStatus(String status, EntityListener<Invoice> listener) {
+        return FirestoreSupport.listen(invoices.whereEqualTo("status", status), Invoice.class, listener);
+    }
+
+    // Only the fields that feed the revenue counter matter here
+    private static Invoice withUpdates(Invoice invoice, Map<String, Object> fields) {
+        if (fields.containsKey("status")) invoice.setStatus((String) fields.get("status"));
+        if (fields.get("totalAmount") instanceof Number) invoice.setTotalAmount(((Number) fields.get("totalAmount")).doubleValue());
+        return invoice;
+    }
+}
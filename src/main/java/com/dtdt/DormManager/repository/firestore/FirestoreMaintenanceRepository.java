@@ -0,0 +1,76 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.dtdt.DormManager.repository.MaintenanceRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+
+import java.util.List;
+
+/**
+ * Request writes run in transactions that keep the pending count in the stats summary current.
+ */
+public class FirestoreMaintenanceRepository implements MaintenanceRepository {
+
+    private final Firestore db;
+    private final CollectionReference requests;
+    private final StatsLedger statsLedger;
+
+    public FirestoreMaintenanceRepository(Firestore db) {
+        this.db = db;
+        this.requests = db.collection("maintenanceRequests");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    @Override
+    public ApiFuture<List<MaintenanceRequest>> findByStatus(String status) {
+        return FirestoreSupport.toList(requests
+                .whereEqualTo("status", status)
+                .orderBy("dateSubmitted", Query.Direction.ASCENDING)
+                .get(), MaintenanceRequest.class);
+    }
+
+    @Override
+    public ApiFuture<Long> countByStatus(String status) {
+        return FirestoreSupport.count(requests.whereEqualTo("status", status));
+    }
+
+    @Override
+    public ApiFuture<List<MaintenanceRequest>> findByTenant(String tenantId) {
+        return FirestoreSupport.toList(requests
+                .whereEqualTo("tenantId", tenantId)
+                .orderBy("dateSubmitted", Query.Direction.DESCENDING)
+                .get(), MaintenanceRequest.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(MaintenanceRequest request) {
+        DocumentReference ref = requests.document(request.getId());
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            String oldStatus = existing.exists() ? existing.getString("status") : null;
+
+            transaction.set(ref, request);
+            statsLedger.apply(transaction, new StatsDelta().removeMaintenance(oldStatus).addMaintenance(request.getStatus()));
+            return null;
+        });
+    }
+
+    @Override
+    public ApiFuture<Void> updateStatus(String id, String status) {
+        DocumentReference ref = requests.document(id);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            transaction.update(ref, "status", status);
+            if (existing.exists()) {
+                statsLedger.apply(transaction, new StatsDelta().removeMaintenance(existing.getString("status")).addMaintenance(status));
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.repository.ReservationApproval;
+import com.dtdt.DormManager.repository.ReservationRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class FirestoreReservationRepository implements ReservationRepository {
+
+    private final Firestore db;
+    private final CollectionReference reservations;
+    private final CollectionReference users;
+    private final StatsLedger statsLedger;
+
+    public FirestoreReservationRepository(Firestore db) {
+        this.db = db;
+        this.reservations = db.collection("reservations");
+        this.users = db.collection("users");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    @Override
+    public ApiFuture<List<Reservation>> findByStatus(String status) {
+        return FirestoreSupport.toList(reservations.whereEqualTo("status", status).get(), Reservation.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Reservation reservation) {
+        return FirestoreSupport.toVoid(reservations.document(reservation.getId()).set(reservation));
+    }
+
+    @Override
+    public ApiFuture<Void> updateStatus(String id, String status) {
+        return FirestoreSupport.toVoid(reservations.document(id).update("status", status));
+    }
+
+    /**
+     * One getAll to find accounts that already exist, then one batch. User documents are
+     * written with create(), so an account made in between fails the batch rather than
+     * being overwritten; the batch is then retried one approval per commit, so only the
+     * conflicting approvals are skipped. The resident count goes up once per batch, not
+     * once per tenant.
+     */
+    @Override
+    public ApiFuture<Set<String>> approveBatch(List<ReservationApproval> approvals) {
+        if (approvals.size() > MAX_BATCH_APPROVALS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_APPROVALS + " approvals per batch.");
+        }
+        if (approvals.isEmpty()) return ApiFutures.immediateFuture(new HashSet<>());
+        DocumentReference[] userRefs = new DocumentReference[approvals.size()];
+        for (int i = 0; i < userRefs.length; i++) userRefs[i] = users.document(approvals.get(i).getTenantDocumentId());
+
+        return ApiFutures.transformAsync(db.getAll(userRefs), snapshots -> {
+            Set<String> existingUsers = new HashSet<>();
+            for (DocumentSnapshot snapshot : snapshots) {
+                if (snapshot.exists()) existingUsers.add(snapshot.getId());
+            }
+
+            List<ReservationApproval> pending = new ArrayList<>();
+            for (ReservationApproval approval : approvals) {
+                // also skips duplicates in the batch
+                if (existingUsers.add(approval.getTenantDocumentId())) pending.add(approval);
+            }
+            if (pending.isEmpty()) return ApiFutures.immediateFuture(new HashSet<>());
+
+            // A failed batch comes back as null and is retried one approval per commit
+            ApiFuture<List<Set<String>>> batch = ApiFutures.successfulAsList(List.of(commit(pending)));
+            return ApiFutures.transformAsync(batch, results -> results.get(0) != null
+                    ? ApiFutures.immediateFuture(results.get(0)) : approveOneByOne(pending), Runnable::run);
+        }, Runnable::run);
+    }
+
+    private ApiFuture<Set<String>> commit(List<ReservationApproval> approvals) {
+        WriteBatch batch = db.batch();
+        StatsDelta delta = new StatsDelta();
+        Set<String> approved = new HashSet<>();
+        for (ReservationApproval approval : approvals) {
+            batch.create(users.document(approval.getTenantDocumentId()), approval.getTenantFields());
+            batch.update(reservations.document(approval.getReservationId()), "status", "Approved");
+            delta.addResident(null);
+            approved.add(approval.getReservationId());
+        }
+        statsLedger.apply(batch, delta);
+        return ApiFutures.transform(batch.commit(), results -> approved, Runnable::run);
+    }
+
+    // Failed commits (the account was created meanwhile) come back as null and are left Pending
+    private ApiFuture<Set<String>> approveOneByOne(List<ReservationApproval> approvals) {
+        List<ApiFuture<Set<String>>> commits = new ArrayList<>();
+        for (ReservationApproval approval : approvals) commits.add(commit(List.of(approval)));
+        return ApiFutures.transform(ApiFutures.successfulAsList(commits), results -> {
+            Set<String> approved = new HashSet<>();
+            for (Set<String> result : results) {
+                if (result != null) approved.addAll(result);
+            }
+            return approved;
+        }, Runnable::run);
+    }
+}
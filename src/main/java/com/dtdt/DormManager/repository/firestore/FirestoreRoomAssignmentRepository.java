@@ -0,0 +1,127 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.RoomAssignment;
+import com.dtdt.DormManager.repository.RoomAssignmentRepository;
+import com.dtdt.DormManager.repository.RoomOccupancy;
+import com.dtdt.DormManager.repository.RoomUnavailableException;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class FirestoreRoomAssignmentRepository implements RoomAssignmentRepository {
+
+    private final Firestore db;
+    private final CollectionReference users;
+    private final CollectionReference rooms;
+    private final CollectionReference contracts;
+    private final StatsLedger statsLedger;
+
+    public FirestoreRoomAssignmentRepository(Firestore db) {
+        this.db = db;
+        this.users = db.collection("users");
+        this.rooms = db.collection("rooms");
+        this.contracts = db.collection("contracts");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    /**
+     * Reads the tenant and both rooms, checks capacity, then writes everything. If another
+     * admin commits against the same room first, Firestore retries this transaction with
+     * the fresh occupantCount, so the capacity check can't be raced. Rooms without a
+     * counter yet are checked against a count of their tenants.
+     */
+    @Override
+    public ApiFuture<RoomAssignment> assign(String tenantDocumentId, String roomId, Contract newContract) {
+        DocumentReference tenantRef = users.document(tenantDocumentId);
+        DocumentReference roomRef = rooms.document(roomId);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot tenantSnapshot = transaction.get(tenantRef).get();
+            if (!tenantSnapshot.exists()) throw new IllegalStateException("Tenant " + tenantDocumentId + " does not exist.");
+            Tenant tenant = tenantSnapshot.toObject(Tenant.class);
+            String previousRoomId = tenant.getRoomID();
+            boolean moving = !Objects.equals(previousRoomId, roomId);
+
+            DocumentSnapshot roomSnapshot = transaction.get(roomRef).get();
+            if (!roomSnapshot.exists()) throw new RoomUnavailableException("Room " + roomId + " no longer exists.");
+            Room room = readRoom(transaction, roomSnapshot);
+            DocumentReference previousRef = moving && previousRoomId != null ? rooms.document(previousRoomId) : null;
+            DocumentSnapshot previousSnapshot = previousRef == null ? null : transaction.get(previousRef).get();
+            Room previousRoom = previousSnapshot != null && previousSnapshot.exists() ? readRoom(transaction, previousSnapshot) : null;
+
+            // All reads are done; validate and write
+            StatsDelta delta = new StatsDelta();
+            if (moving) {
+                RoomOccupancy.checkAvailable(room);
+                delta.removeRoom(room);
+                RoomOccupancy.addOccupant(room);
+                delta.addRoom(room);
+                transaction.update(roomRef, RoomOccupancy.fields(room));
+
+                if (previousRoom != null) {
+                    delta.removeRoom(previousRoom);
+                    RoomOccupancy.removeOccupant(previousRoom);
+                    delta.addRoom(previousRoom);
+                    transaction.update(previousRef, RoomOccupancy.fields(previousRoom));
+                }
+                delta.moveResident(previousRoom == null ? null : previousRoom.getBuildingId(), room.getBuildingId());
+            }
+
+            Map<String, Object> tenantFields = new HashMap<>();
+            tenantFields.put("roomID", roomId);
+            String contractId = tenant.getContractID();
+            if (newContract != null) {
+                transaction.set(contracts.document(newContract.getId()), newContract);
+                contractId = newContract.getId();
+                tenantFields.put("contractID", contractId);
+            }
+            transaction.update(tenantRef, tenantFields);
+            statsLedger.apply(transaction, delta);
+
+            return new RoomAssignment(room, moving ? previousRoom : null, contractId);
+        });
+    }
+
+    /**
+     * Rooms written before occupantCount existed have no counter until the occupancy
+     * migration runs; their tenants are counted inside the transaction instead, and the
+     * assignment's room update then stores the counter.
+     */
+    private Room readRoom(Transaction transaction, DocumentSnapshot snapshot) throws Exception {
+        Room room = snapshot.toObject(Room.class);
+        if (!snapshot.contains("occupantCount")) {
+            QuerySnapshot occupants = transaction.get(users
+                    .whereEqualTo("userType", "Tenant")
+                    .whereEqualTo("roomID", snapshot.getId())).get();
+            room.setOccupantCount(occupants.size());
+        }
+        return room;
+    }
+
+    @Override
+    public ApiFuture<Boolean> migrateOccupantCount(String roomId) {
+        DocumentReference roomRef = rooms.document(roomId);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(roomRef).get();
+            if (!snapshot.exists() || snapshot.contains("occupantCount")) return false;
+            Room before = snapshot.toObject(Room.class);
+            Room room = readRoom(transaction, snapshot);
+
+            RoomOccupancy.setOccupants(room, room.getOccupantCount());
+            transaction.update(roomRef, RoomOccupancy.fields(room));
+            statsLedger.apply(transaction, new StatsDelta().removeRoom(before).addRoom(room));
+            return true;
+        });
+    }
+}
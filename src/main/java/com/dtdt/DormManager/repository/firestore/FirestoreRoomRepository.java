@@ -0,0 +1,100 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.RoomRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room writes run in transactions that also update the room counters in the stats documents.
+ */
+public class FirestoreRoomRepository implements RoomRepository {
+
+    private final Firestore db;
+    private final CollectionReference rooms;
+    private final StatsLedger statsLedger;
+
+    public FirestoreRoomRepository(Firestore db) {
+        this.db = db;
+        this.rooms = db.collection("rooms");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    @Override
+    public ApiFuture<List<Room>> findAll() {
+        return FirestoreSupport.toList(rooms.get(), Room.class);
+    }
+
+    @Override
+    public ApiFuture<Long> sumCapacity() {
+        return FirestoreSupport.sumLong(rooms, "capacity");
+    }
+
+    @Override
+    public ApiFuture<Room> findById(String id) {
+        return FirestoreSupport.toObject(rooms.document(id).get(), Room.class);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Room room) {
+        DocumentReference ref = rooms.document(room.getId());
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            Room before = existing.exists() ? existing.toObject(Room.class) : null;
+
+            transaction.set(ref, room);
+            statsLedger.apply(transaction, new StatsDelta().removeRoom(before).addRoom(room));
+            return null;
+        });
+    }
+
+    @Override
+    public ApiFuture<Void> update(String id, Map<String, Object> fields) {
+        DocumentReference ref = rooms.document(id);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            transaction.update(ref, fields); // Fails like a plain update() if the room is gone
+            if (existing.exists()) {
+                Room before = existing.toObject(Room.class);
+                Room after = withUpdates(existing.toObject(Room.class), fields);
+                statsLedger.apply(transaction, new StatsDelta().removeRoom(before).addRoom(after));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        DocumentReference ref = rooms.document(id);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            transaction.delete(ref);
+            if (existing.exists()) {
+                statsLedger.apply(transaction, new StatsDelta().removeRoom(existing.toObject(Room.class)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public ListenerRegistration listen(EntityListener<Room> listener) {
+        return FirestoreSupport.listen(rooms, Room.class, listener);
+    }
+
+    // Only the fields that feed the stats counters matter here
+    private static Room withUpdates(Room room, Map<String, Object> fields) {
+        if (fields.containsKey("status")) room.setStatus((String) fields.get("status"));
+        if (fields.containsKey("buildingId")) room.setBuildingId((String) fields.get("buildingId"));
+        if (fields.get("capacity") instanceof Number) room.setCapacity(((Number) fields.get("capacity")).intValue());
+        return room;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.repository.StatsRepository;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+
+import java.util.Map;
+
+public class FirestoreStatsRepository implements StatsRepository {
+
+    private final Firestore db;
+    private final CollectionReference stats;
+    private final CollectionReference buildingStats;
+
+    public FirestoreStatsRepository(Firestore db) {
+        this.db = db;
+        this.stats = db.collection(StatsLedger.COLLECTION);
+        this.buildingStats = db.collection(StatsLedger.BUILDING_COLLECTION);
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> findSummary() {
+        return FirestoreSupport.toObject(stats.document(StatsLedger.SUMMARY_ID).get(), StatsSummary.class);
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> findByBuilding(String buildingId) {
+        return FirestoreSupport.toObject(buildingStats.document(buildingId).get(), StatsSummary.class);
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> initialize(StatsSummary summary, Map<String, StatsSummary> buildings, long expectedRevision) {
+        DocumentReference summaryRef = stats.document(StatsLedger.SUMMARY_ID);
+        return db.runTransaction(transaction -> {
+            // Every counted write bumps the summary, so this read also conflicts with them
+            DocumentSnapshot current = transaction.get(summaryRef).get();
+            StatsSummary stored = current.exists() ? current.toObject(StatsSummary.class) : null;
+            if (stored != null && stored.isInitialized()) return stored;
+            if ((stored == null ? 0 : stored.getRevision()) != expectedRevision) return null;
+
+            transaction.set(summaryRef, summary);
+            for (Map.Entry<String, StatsSummary> building : buildings.entrySet()) {
+                transaction.set(buildingStats.document(building.getKey()), building.getValue());
+            }
+            return summary;
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateField;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small helpers shared by the Firestore repositories for mapping snapshots to models.
+ */
+final class FirestoreSupport {
+
+    private FirestoreSupport() {}
+
+    static <T> ApiFuture<List<T>> toList(ApiFuture<QuerySnapshot> future, Class<T> type) {
+        return ApiFutures.transform(future, snapshot -> {
+            List<T> result = new ArrayList<>();
+            for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                result.add(document.toObject(type));
+            }
+            return result;
+        }, Runnable::run);
+    }
+
+    static <T> ApiFuture<T> toObject(ApiFuture<DocumentSnapshot> future, Class<T> type) {
+        return ApiFutures.transform(future,
+                snapshot -> snapshot.exists() ? snapshot.toObject(type) : null,
+                Runnable::run);
+    }
+
+    static <T> ApiFuture<Void> toVoid(ApiFuture<T> future) {
+        return ApiFutures.transform(future, result -> (Void) null, Runnable::run);
+    }
+
+    /** Server-side count; only the number crosses the wire. */
+    static ApiFuture<Long> count(Query query) {
+        return ApiFutures.transform(query.count().get(), snapshot -> snapshot.getCount(), Runnable::run);
+    }
+
+    /** Server-side sum of a numeric field; an empty result sums to zero. */
+    static ApiFuture<Double> sumDouble(Query query, String field) {
+        AggregateField sum = AggregateField.sum(field);
+        return ApiFutures.transform(query.aggregate(sum).get(), snapshot -> {
+            Double value = snapshot.getDouble(sum);
+            return value == null ? 0.0 : value;
+        }, Runnable::run);
+    }
+
+    static ApiFuture<Long> sumLong(Query query, String field) {
+        AggregateField sum = AggregateField.sum(field);
+        return ApiFutures.transform(query.aggregate(sum).get(), snapshot -> {
+            Long value = snapshot.getLong(sum);
+            return value == null ? 0L : value;
+        }, Runnable::run);
+    }
+
+    /**
+     * Forwards only the document changes of each snapshot, so callers never re-process
+     * documents that did not change.
+     */
+    static <T> ListenerRegistration listen(Query query, Class<T> type, EntityListener<T> listener) {
+        return query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                listener.onError(error);
+                return;
+            }
+            if (snapshot == null) return;
+
+            List<EntityChange<T>> changes = new ArrayList<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                QueryDocumentSnapshot document = change.getDocument();
+                changes.add(new EntityChange<>(toChangeType(change.getType()), document.getId(), document.toObject(type)));
+            }
+            // Delivered even when empty so the first snapshot of an empty collection is seen
+            listener.onChanges(changes);
+        });
+    }
+
+    private static EntityChange.Type toChangeType(DocumentChange.Type type) {
+        switch (type) {
+            case ADDED: return EntityChange.Type.ADDED;
+            case REMOVED: return EntityChange.Type.REMOVED;
+            case MODIFIED:
+            default:
+                return EntityChange.Type.MODIFIED;
+        }
+    }
+}
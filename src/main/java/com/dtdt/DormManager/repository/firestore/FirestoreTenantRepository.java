@@ -0,0 +1,118 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.Page;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.dtdt.DormManager.repository.TenantRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.Transaction;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creating a tenant or changing their roomID also updates the resident counters in the
+ * stats documents, in the same transaction.
+ */
+public class FirestoreTenantRepository implements TenantRepository {
+
+    private final Firestore db;
+    private final CollectionReference users;
+    private final CollectionReference rooms;
+    private final StatsLedger statsLedger;
+
+    public FirestoreTenantRepository(Firestore db) {
+        this.db = db;
+        this.users = db.collection("users");
+        this.rooms = db.collection("rooms");
+        this.statsLedger = new StatsLedger(db);
+    }
+
+    @Override
+    public ApiFuture<List<Tenant>> findAll() {
+        return FirestoreSupport.toList(users.whereEqualTo("userType", "Tenant").get(), Tenant.class);
+    }
+
+    @Override
+    public ApiFuture<Long> count() {
+        return FirestoreSupport.count(users.whereEqualTo("userType", "Tenant"));
+    }
+
+    @Override
+    public ApiFuture<Page<Tenant>> findPage(String afterDocumentId, int limit) {
+        // Ordering by document id needs no composite index and never skips documents missing a field
+        Query query = users.whereEqualTo("userType", "Tenant")
+                .orderBy(FieldPath.documentId())
+                .limit(limit + 1); // one extra row tells us whether another page exists
+        if (afterDocumentId != null) query = query.startAfter(afterDocumentId);
+        return ApiFutures.transform(FirestoreSupport.toList(query.get(), Tenant.class),
+                tenants -> toPage(tenants, limit), Runnable::run);
+    }
+
+    static Page<Tenant> toPage(List<Tenant> tenants, int limit) {
+        boolean hasMore = tenants.size() > limit;
+        List<Tenant> items = hasMore ? tenants.subList(0, limit) : tenants;
+        String cursor = items.isEmpty() ? null : items.get(items.size() - 1).getDocumentId();
+        return new Page<>(items, cursor, hasMore);
+    }
+
+    @Override
+    public ApiFuture<Tenant> findById(String documentId) {
+        return FirestoreSupport.toObject(users.document(documentId).get(), Tenant.class);
+    }
+
+    @Override
+    public ApiFuture<Void> create(String documentId, Map<String, Object> fields) {
+        DocumentReference ref = users.document(documentId);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            String buildingId = buildingOf(transaction, (String) fields.get("roomID"));
+
+            transaction.set(ref, fields);
+            // Re-creating an existing tenant (e.g. approving a duplicate reservation) isn't a new resident
+            if (!existing.exists() || !"Tenant".equals(existing.getString("userType"))) {
+                statsLedger.apply(transaction, new StatsDelta().addResident(buildingId));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public ApiFuture<Void> update(String documentId, Map<String, Object> fields) {
+        DocumentReference ref = users.document(documentId);
+        if (!fields.containsKey("roomID")) {
+            return FirestoreSupport.toVoid(ref.update(fields));
+        }
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(ref).get();
+            String oldRoomId = existing.exists() ? existing.getString("roomID") : null;
+            String newRoomId = (String) fields.get("roomID");
+            String fromBuilding = buildingOf(transaction, oldRoomId);
+            String toBuilding = buildingOf(transaction, newRoomId);
+
+            transaction.update(ref, fields);
+            statsLedger.apply(transaction, new StatsDelta().moveResident(fromBuilding, toBuilding));
+            return null;
+        });
+    }
+
+    private String buildingOf(Transaction transaction, String roomId) throws Exception {
+        if (roomId == null) return null;
+        DocumentSnapshot room = transaction.get(rooms.document(roomId)).get();
+        return room.exists() ? room.getString("buildingId") : null;
+    }
+
+    @Override
+    public ListenerRegistration listen(EntityListener<Tenant> listener) {
+        return FirestoreSupport.listen(users.whereEqualTo("userType", "Tenant"), Tenant.class, listener);
+    }
+}
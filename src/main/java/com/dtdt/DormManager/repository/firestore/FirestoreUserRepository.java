@@ -0,0 +1,59 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Admin;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.UserRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+
+public class FirestoreUserRepository implements UserRepository {
+
+    private final CollectionReference users;
+
+    public FirestoreUserRepository(Firestore db) {
+        this.users = db.collection("users");
+    }
+
+    @Override
+    public ApiFuture<User> findById(String documentId) {
+        return ApiFutures.transform(users.document(documentId).get(),
+                snapshot -> snapshot.exists() ? toUser(snapshot) : null,
+                Runnable::run);
+    }
+
+    @Override
+    public ApiFuture<User> findByUserId(String userId) {
+        return firstMatch(users.whereEqualTo("userId", userId).limit(1).get());
+    }
+
+    @Override
+    public ApiFuture<User> findByEmail(String email) {
+        return firstMatch(users.whereEqualTo("email", email).limit(1).get());
+    }
+
+    @Override
+    public ApiFuture<Void> updatePasswordHash(String documentId, String passwordHash) {
+        return FirestoreSupport.toVoid(users.document(documentId).update("passwordHash", passwordHash));
+    }
+
+    private ApiFuture<User> firstMatch(ApiFuture<QuerySnapshot> future) {
+        return ApiFutures.transform(future,
+                snapshot -> snapshot.isEmpty() ? null : toUser(snapshot.getDocuments().get(0)),
+                Runnable::run);
+    }
+
+    /**
+     * Tenants map to {@link Tenant}; Admin and Owner accounts both map to {@link Admin}.
+     */
+    static User toUser(DocumentSnapshot document) {
+        if ("Tenant".equals(document.getString("userType"))) {
+            return document.toObject(Tenant.class);
+        }
+        return document.toObject(Admin.class);
+    }
+}
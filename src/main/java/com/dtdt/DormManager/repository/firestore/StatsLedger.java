@@ -0,0 +1,55 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Queues stats increments inside the same transaction (or batch) as the write that
+ * caused them, so the materialized counters can never drift from the documents they count.
+ * Every non-empty delta also bumps the summary's revision, which a rebuild checks to
+ * tell whether its recount has gone stale.
+ */
+final class StatsLedger {
+
+    static final String COLLECTION = "stats";
+    static final String SUMMARY_ID = "summary";
+    static final String BUILDING_COLLECTION = "buildingStats";
+    static final String REVISION = "revision";
+
+    private final CollectionReference stats;
+    private final CollectionReference buildingStats;
+
+    StatsLedger(Firestore db) {
+        this.stats = db.collection(COLLECTION);
+        this.buildingStats = db.collection(BUILDING_COLLECTION);
+    }
+
+    /** In a transaction, must be called after all of its reads. */
+    void apply(UpdateBuilder<?> writes, StatsDelta delta) {
+        if (delta.isEmpty()) return;
+        Map<String, Object> summary = toIncrements(delta.getSummaryIncrements());
+        summary.put(REVISION, FieldValue.increment(1));
+        writes.set(stats.document(SUMMARY_ID), summary, SetOptions.merge());
+        for (Map.Entry<String, Map<String, Number>> building : delta.getBuildingIncrements().entrySet()) {
+            writes.set(buildingStats.document(building.getKey()), toIncrements(building.getValue()), SetOptions.merge());
+        }
+    }
+
+    private static Map<String, Object> toIncrements(Map<String, Number> amounts) {
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, Number> amount : amounts.entrySet()) {
+            Number value = amount.getValue();
+            fields.put(amount.getKey(), value instanceof Double
+                    ? FieldValue.increment(value.doubleValue())
+                    : FieldValue.increment(value.longValue()));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.google.cloud.firestore.annotation.PropertyName;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Writes Firestore-style field maps onto model objects through their setters,
+ * so the in-memory backend accepts the same update() payloads as Firestore.
+ */
+final class FieldUpdater {
+
+    private FieldUpdater() {}
+
+    static void apply(Object target, Map<String, Object> fields) {
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Method setter = findSetter(target.getClass(), field.getKey());
+            if (setter == null) continue; // Unknown fields are simply not modelled
+            try {
+                setter.invoke(target, convert(field.getValue(), setter.getParameterTypes()[0]));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot set field '" + field.getKey() + "'", e);
+            }
+        }
+    }
+
+    private static Method findSetter(Class<?> type, String fieldName) {
+        String setterName = "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() != 1 || !method.getName().startsWith("set")) continue;
+            PropertyName propertyName = method.getAnnotation(PropertyName.class);
+            if (propertyName != null ? propertyName.value().equals(fieldName) : method.getName().equals(setterName)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Object convert(Object value, Class<?> targetType) {
+        if (!(value instanceof Number)) return value;
+        Number number = (Number) value;
+        if (targetType == int.class || targetType == Integer.class) return number.intValue();
+        if (targetType == long.class || targetType == Long.class) return number.longValue();
+        if (targetType == double.class || targetType == Double.class) return number.doubleValue();
+        return value;
+    }
+}
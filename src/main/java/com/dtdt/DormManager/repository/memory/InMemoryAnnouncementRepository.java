@@ -0,0 +1,41 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Announcement;
+import com.dtdt.DormManager.repository.AnnouncementRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+public class InMemoryAnnouncementRepository implements AnnouncementRepository {
+
+    private final InMemoryCollection<Announcement> announcements;
+
+    public InMemoryAnnouncementRepository(InMemoryDatabase database) {
+        this.announcements = database.announcements;
+    }
+
+    @Override
+    public ApiFuture<List<Announcement>> findRecent(int limit) {
+        List<Announcement> result = announcements.findAll();
+        result.sort(Comparator.comparing(Announcement::getDatePosted,
+                Comparator.nullsLast(Comparator.<Date>reverseOrder())));
+        if (limit > 0 && result.size() > limit) result = result.subList(0, limit);
+        return ApiFutures.immediateFuture(result);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Announcement announcement) {
+        if (announcement.getDatePosted() == null) announcement.setDatePosted(new Date()); // mirrors @ServerTimestamp
+        announcements.put(announcement.getId(), announcement);
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        announcements.remove(id);
+        return ApiFutures.immediateFuture(null);
+    }
+}
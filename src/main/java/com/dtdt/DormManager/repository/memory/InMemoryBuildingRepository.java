@@ -0,0 +1,36 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Building;
+import com.dtdt.DormManager.repository.BuildingRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.List;
+import java.util.UUID;
+
+public class InMemoryBuildingRepository implements BuildingRepository {
+
+    private final InMemoryCollection<Building> buildings;
+
+    public InMemoryBuildingRepository(InMemoryDatabase database) {
+        this.buildings = database.buildings;
+    }
+
+    @Override
+    public ApiFuture<List<Building>> findAll() {
+        return ApiFutures.immediateFuture(buildings.findAll());
+    }
+
+    @Override
+    public ApiFuture<Void> save(Building building) {
+        if (building.getId() == null) building.setId(UUID.randomUUID().toString());
+        buildings.put(building.getId(), building);
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        buildings.remove(id);
+        return ApiFutures.immediateFuture(null);
+    }
+}
@@ -0,0 +1,137 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe, insertion-ordered map of document id to model object. Like Firestore,
+ * it stores and returns copies, so changing a returned object never changes the data.
+ */
+public final class InMemoryCollection<T> {
+
+    private final Map<String, T> documents = new LinkedHashMap<>();
+    private final List<EntityListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    public synchronized List<T> findAll() {
+        List<T> result = new ArrayList<>(documents.size());
+        for (T document : documents.values()) result.add(ModelCopier.copy(document));
+        return result;
+    }
+
+    public synchronized List<T> findWhere(Predicate<T> predicate) {
+        List<T> result = new ArrayList<>();
+        for (T document : documents.values()) {
+            if (predicate.test(document)) result.add(ModelCopier.copy(document));
+        }
+        return result;
+    }
+
+    public synchronized T get(String id) {
+        return id == null ? null : ModelCopier.copy(documents.get(id));
+    }
+
+    public void put(String id, T document) {
+        boolean existed;
+        synchronized (this) {
+            existed = documents.put(id, ModelCopier.copy(document)) != null;
+        }
+        notifyListeners(existed ? EntityChange.Type.MODIFIED : EntityChange.Type.ADDED, id, document);
+    }
+
+    /** Applies field updates the same way a Firestore update() would; missing documents are ignored. */
+    public void update(String id, Map<String, Object> fields) {
+        T document;
+        synchronized (this) {
+            T stored = documents.get(id);
+            if (stored == null) return;
+            FieldUpdater.apply(stored, fields);
+            document = ModelCopier.copy(stored);
+        }
+        notifyListeners(EntityChange.Type.MODIFIED, id, document);
+    }
+
+    public void remove(String id) {
+        T document;
+        synchronized (this) {
+            document = documents.remove(id);
+        }
+        if (document != null) notifyListeners(EntityChange.Type.REMOVED, id, document);
+    }
+
+    /**
+     * Mirrors a Firestore snapshot listener: the current contents are delivered first as
+     * ADDED changes, followed by one change per later write.
+     */
+    public ListenerRegistration listen(EntityListener<T> listener) {
+        List<EntityChange<T>> initial = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, T> entry : documents.entrySet()) {
+                initial.add(new EntityChange<>(EntityChange.Type.ADDED, entry.getKey(), ModelCopier.copy(entry.getValue())));
+            }
+            // Delivered under the lock so no later write can overtake the initial batch
+            listener.onChanges(initial);
+            listeners.add(listener);
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Like a listener on a Firestore query: only documents matching {@code predicate} are
+     * delivered, and a document that stops matching arrives as REMOVED.
+     */
+    public ListenerRegistration listenWhere(Predicate<T> predicate, EntityListener<T> listener) {
+        Set<String> matching = new HashSet<>();
+        return listen(new EntityListener<>() {
+            private boolean initialDelivered;
+
+            @Override
+            public void onChanges(List<EntityChange<T>> changes) {
+                List<EntityChange<T>> filtered = new ArrayList<>();
+                synchronized (matching) {
+                    for (EntityChange<T> change : changes) {
+                        String id = change.getId();
+                        boolean wasMatching = matching.contains(id);
+                        if (change.getType() != EntityChange.Type.REMOVED && predicate.test(change.getValue())) {
+                            matching.add(id);
+                            filtered.add(wasMatching ? change : new EntityChange<>(EntityChange.Type.ADDED, id, change.getValue()));
+                        } else if (wasMatching) {
+                            matching.remove(id);
+                            filtered.add(new EntityChange<>(EntityChange.Type.REMOVED, id, change.getValue()));
+                        }
+                    }
+                }
+                // The initial batch is delivered even when nothing matches, as Firestore does
+                if (filtered.isEmpty() && initialDelivered) return;
+                initialDelivered = true;
+                listener.onChanges(filtered);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    private void notifyListeners(EntityChange.Type type, String id, T document) {
+        if (listeners.isEmpty()) return;
+        for (EntityListener<T> listener : listeners) {
+            // Each listener gets its own copy, as each Firestore listener decodes its own
+            listener.onChanges(List.of(new EntityChange<>(type, id, ModelCopier.copy(document))));
+        }
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+}
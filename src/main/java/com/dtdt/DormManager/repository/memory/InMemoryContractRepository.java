@@ -0,0 +1,41 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.repository.ContractRepository;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.Date;
+import java.util.List;
+
+public class InMemoryContractRepository implements ContractRepository {
+
+    private final InMemoryCollection<Contract> contracts;
+
+    public InMemoryContractRepository(InMemoryDatabase database) {
+        this.contracts = database.contracts;
+    }
+
+    @Override
+    public ApiFuture<Contract> findById(String id) {
+        return ApiFutures.immediateFuture(contracts.get(id));
+    }
+
+    @Override
+    public ApiFuture<List<Contract>> findActive(Date asOf) {
+        return ApiFutures.immediateFuture(contracts.findWhere(c -> c.getEndDate() != null && !c.getEndDate().before(asOf)));
+    }
+
+    @Override
+    public ApiFuture<Void> save(Contract contract) {
+        contracts.put(contract.getId(), contract);
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ListenerRegistration listen(EntityListener<Contract> listener) {
+        return contracts.listen(listener);
+    }
+}
@@ -0,0 +1,61 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Admin;
+import com.dtdt.DormManager.model.Announcement;
+import com.dtdt.DormManager.model.Building;
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.service.PasswordService;
+
+/**
+ * Process-local stand-in for the Firestore database, one collection per model.
+ * Used for local benchmarking and for running the app without Firebase credentials.
+ */
+public class InMemoryDatabase {
+
+    /** Sign-in for the owner account created by {@link #withOwnerAccount()}. */
+    public static final String OWNER_USER_ID = "owner";
+    public static final String OWNER_PASSWORD = "owner";
+
+    final InMemoryCollection<Room> rooms = new InMemoryCollection<>();
+    final InMemoryCollection<Building> buildings = new InMemoryCollection<>();
+    final InMemoryCollection<User> users = new InMemoryCollection<>();
+    final InMemoryCollection<Contract> contracts = new InMemoryCollection<>();
+    final InMemoryCollection<Invoice> invoices = new InMemoryCollection<>();
+    final InMemoryCollection<MaintenanceRequest> maintenanceRequests = new InMemoryCollection<>();
+    final InMemoryCollection<Reservation> reservations = new InMemoryCollection<>();
+    final InMemoryCollection<Announcement> announcements = new InMemoryCollection<>();
+    final InMemoryCollection<StatsSummary> stats = new InMemoryCollection<>();
+    final InMemoryCollection<StatsSummary> buildingStats = new InMemoryCollection<>();
+    final InMemoryStatsLedger statsLedger = new InMemoryStatsLedger(stats, buildingStats);
+
+    /**
+     * An empty database holding a single owner account, so the app can be signed into
+     * without Firebase. The password is hashed the same way sign-up and approvals do it.
+     */
+    public static InMemoryDatabase withOwnerAccount() {
+        InMemoryDatabase database = new InMemoryDatabase();
+        String passwordHash = PasswordService.getInstance().hash(OWNER_PASSWORD);
+        Admin owner = new Admin(OWNER_USER_ID, "owner@dorm.local", passwordHash, "Dorm Owner", "Owner");
+        owner.setDocumentId(OWNER_USER_ID);
+        owner.setUserType("Owner");
+        database.users.put(OWNER_USER_ID, owner);
+        return database;
+    }
+
+    public InMemoryCollection<Room> rooms() { return rooms; }
+    public InMemoryCollection<Building> buildings() { return buildings; }
+    public InMemoryCollection<User> users() { return users; }
+    public InMemoryCollection<Contract> contracts() { return contracts; }
+    public InMemoryCollection<Invoice> invoices() { return invoices; }
+    public InMemoryCollection<MaintenanceRequest> maintenanceRequests() { return maintenanceRequests; }
+    public InMemoryCollection<Reservation> reservations() { return reservations; }
+    public InMemoryCollection<Announcement> announcements() { return announcements; }
+    public InMemoryCollection<StatsSummary> stats() { return stats; }
+    public InMemoryCollection<StatsSummary> buildingStats() { return buildingStats; }
+}
@@ -0,0 +1,129 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.InvoiceRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class InMemoryInvoiceRepository implements InvoiceRepository {
+
+    private final InMemoryCollection<Invoice> invoices;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryInvoiceRepository(InMemoryDatabase database) {
+        this.invoices = database.invoices;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findByTenant(String tenantId) {
+        return ApiFutures.immediateFuture(invoices.findWhere(i -> Objects.equals(tenantId, i.getTenantId())));
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findByStatus(String status) {
+        return ApiFutures.immediateFuture(invoices.findWhere(i -> Objects.equals(status, i.getStatus())));
+    }
+
+    @Override
+    public ApiFuture<List<Invoice>> findPendingDueBefore(Date date) {
+        return ApiFutures.immediateFuture(invoices.findWhere(i -> "Pending".equals(i.getStatus())
+                && i.getDueDate() != null && i.getDueDate().before(date)));
+    }
+
+    @Override
+    public ApiFuture<Map<String, Set<String>>> findInvoicedPeriods(Collection<String> contractIds) {
+        Set<String> wanted = new HashSet<>(contractIds);
+        Map<String, Set<String>> periods = new HashMap<>();
+        for (Invoice invoice : invoices.findWhere(i -> wanted.contains(i.getContractId()) && i.getMonthYear() != null)) {
+            periods.computeIfAbsent(invoice.getContractId(), k -> new HashSet<>()).add(invoice.getMonthYear());
+        }
+        return ApiFutures.immediateFuture(periods);
+    }
+
+    @Override
+    public ApiFuture<Double> sumTotalAmountByStatus(String status) {
+        double total = 0;
+        for (Invoice invoice : invoices.findWhere(i -> Objects.equals(status, i.getStatus()))) {
+            total += invoice.getTotalAmount();
+        }
+        return ApiFutures.immediateFuture(total);
+    }
+
+    @Override
+    public ApiFuture<Void> save(Invoice invoice) {
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta().removeInvoice(invoices.get(invoice.getId()));
+            invoices.put(invoice.getId(), invoice);
+            statsLedger.apply(delta.addInvoice(invoice));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Integer> saveAll(List<Invoice> batchInvoices) {
+        int created = 0;
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta();
+            for (Invoice invoice : batchInvoices) {
+                if (invoices.get(invoice.getId()) != null) continue;
+                invoices.put(invoice.getId(), invoice);
+                delta.addInvoice(invoice);
+                created++;
+            }
+            statsLedger.apply(delta);
+        }
+        return ApiFutures.immediateFuture(created);
+    }
+
+    @Override
+    public ApiFuture<Void> update(String id, Map<String, Object> fields) {
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta().removeInvoice(invoices.get(id));
+            invoices.update(id, fields);
+            statsLedger.apply(delta.addInvoice(invoices.get(id)));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Integer> applyLateFees(List<String> ids, double rate, Date asOf) {
+        int updated = 0;
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta();
+            for (String id : ids) {
+                Invoice invoice = invoices.get(id);
+                if (invoice == null || !"Pending".equals(invoice.getStatus()) || invoice.getLateFee() != 0
+                        || invoice.getDueDate() == null || !invoice.getDueDate().before(asOf)) continue;
+
+                delta.removeInvoice(invoice);
+                double lateFee = invoice.getRentAmount() * rate;
+                invoices.update(id, Map.of(
+                        "status", "Overdue",
+                        "lateFee", lateFee,
+                        "totalAmount", invoice.getTotalAmount() + lateFee));
+                delta.addInvoice(invoices.get(id));
+                updated++;
+            }
+            statsLedger.apply(delta);
+        }
+        return ApiFutures.immediateFuture(updated);
+    }
+
+    @Override
+    public ListenerRegistration listenByStatus(String status, EntityListener<Invoice> listener) {
+        return invoices.listenWhere(invoice -> status.equals(invoice.getStatus()), listener);
+    }
+}
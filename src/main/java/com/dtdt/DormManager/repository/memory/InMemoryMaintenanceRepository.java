@@ -0,0 +1,70 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.dtdt.DormManager.repository.MaintenanceRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class InMemoryMaintenanceRepository implements MaintenanceRepository {
+
+    private static final Comparator<MaintenanceRequest> OLDEST_FIRST =
+            Comparator.comparing(MaintenanceRequest::getDateSubmitted, Comparator.nullsFirst(Comparator.<Date>naturalOrder()));
+
+    private final InMemoryCollection<MaintenanceRequest> requests;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryMaintenanceRepository(InMemoryDatabase database) {
+        this.requests = database.maintenanceRequests;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<List<MaintenanceRequest>> findByStatus(String status) {
+        List<MaintenanceRequest> result = requests.findWhere(r -> Objects.equals(status, r.getStatus()));
+        result.sort(OLDEST_FIRST);
+        return ApiFutures.immediateFuture(result);
+    }
+
+    @Override
+    public ApiFuture<Long> countByStatus(String status) {
+        return ApiFutures.immediateFuture((long) requests.findWhere(r -> Objects.equals(status, r.getStatus())).size());
+    }
+
+    @Override
+    public ApiFuture<List<MaintenanceRequest>> findByTenant(String tenantId) {
+        List<MaintenanceRequest> result = requests.findWhere(r -> Objects.equals(tenantId, r.getTenantId()));
+        result.sort(OLDEST_FIRST.reversed());
+        return ApiFutures.immediateFuture(result);
+    }
+
+    @Override
+    public ApiFuture<Void> save(MaintenanceRequest request) {
+        if (request.getDateSubmitted() == null) request.setDateSubmitted(new Date()); // mirrors @ServerTimestamp
+        synchronized (statsLedger) {
+            MaintenanceRequest previous = requests.get(request.getId());
+            StatsDelta delta = new StatsDelta().removeMaintenance(previous == null ? null : previous.getStatus());
+            requests.put(request.getId(), request);
+            statsLedger.apply(delta.addMaintenance(request.getStatus()));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> updateStatus(String id, String status) {
+        synchronized (statsLedger) {
+            MaintenanceRequest previous = requests.get(id);
+            if (previous == null) return ApiFutures.immediateFuture(null);
+            StatsDelta delta = new StatsDelta().removeMaintenance(previous.getStatus());
+            requests.update(id, Map.of("status", status));
+            statsLedger.apply(delta.addMaintenance(status));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+}
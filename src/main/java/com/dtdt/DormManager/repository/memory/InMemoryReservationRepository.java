@@ -0,0 +1,71 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.ReservationApproval;
+import com.dtdt.DormManager.repository.ReservationRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class InMemoryReservationRepository implements ReservationRepository {
+
+    private final InMemoryCollection<Reservation> reservations;
+    private final InMemoryCollection<User> users;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryReservationRepository(InMemoryDatabase database) {
+        this.reservations = database.reservations;
+        this.users = database.users;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<List<Reservation>> findByStatus(String status) {
+        return ApiFutures.immediateFuture(reservations.findWhere(r -> Objects.equals(status, r.getStatus())));
+    }
+
+    @Override
+    public ApiFuture<Void> save(Reservation reservation) {
+        if (reservation.getDateSubmitted() == null) reservation.setDateSubmitted(new Date()); // mirrors @ServerTimestamp
+        reservations.put(reservation.getId(), reservation);
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> updateStatus(String id, String status) {
+        reservations.update(id, Map.of("status", status));
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Set<String>> approveBatch(List<ReservationApproval> approvals) {
+        if (approvals.size() > MAX_BATCH_APPROVALS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_APPROVALS + " approvals per batch.");
+        }
+        Set<String> approved = new HashSet<>();
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta();
+            for (ReservationApproval approval : approvals) {
+                if (users.get(approval.getTenantDocumentId()) != null) continue;
+                Tenant tenant = new Tenant();
+                FieldUpdater.apply(tenant, approval.getTenantFields());
+                tenant.setDocumentId(approval.getTenantDocumentId());
+                users.put(approval.getTenantDocumentId(), tenant);
+                reservations.update(approval.getReservationId(), Map.of("status", "Approved"));
+                delta.addResident(null);
+                approved.add(approval.getReservationId());
+            }
+            statsLedger.apply(delta);
+        }
+        return ApiFutures.immediateFuture(approved);
+    }
+}
@@ -0,0 +1,100 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.RoomAssignment;
+import com.dtdt.DormManager.repository.RoomAssignmentRepository;
+import com.dtdt.DormManager.repository.RoomOccupancy;
+import com.dtdt.DormManager.repository.RoomUnavailableException;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class InMemoryRoomAssignmentRepository implements RoomAssignmentRepository {
+
+    private final InMemoryCollection<User> users;
+    private final InMemoryCollection<Room> rooms;
+    private final InMemoryCollection<Contract> contracts;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryRoomAssignmentRepository(InMemoryDatabase database) {
+        this.users = database.users;
+        this.rooms = database.rooms;
+        this.contracts = database.contracts;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<RoomAssignment> assign(String tenantDocumentId, String roomId, Contract newContract) {
+        synchronized (statsLedger) {
+            User user = users.get(tenantDocumentId);
+            if (!InMemoryTenantRepository.isTenant(user)) {
+                return ApiFutures.immediateFailedFuture(new IllegalStateException("Tenant " + tenantDocumentId + " does not exist."));
+            }
+            Tenant tenant = (Tenant) user;
+            Room room = rooms.get(roomId);
+            if (room == null) {
+                return ApiFutures.immediateFailedFuture(new RoomUnavailableException("Room " + roomId + " no longer exists."));
+            }
+            boolean moving = !Objects.equals(tenant.getRoomID(), roomId);
+            Room previousRoom = moving ? rooms.get(tenant.getRoomID()) : null;
+
+            StatsDelta delta = new StatsDelta();
+            if (moving) {
+                try {
+                    RoomOccupancy.checkAvailable(room);
+                } catch (RoomUnavailableException e) {
+                    return ApiFutures.immediateFailedFuture(e);
+                }
+                delta.removeRoom(room);
+                RoomOccupancy.addOccupant(room);
+                delta.addRoom(room);
+                rooms.update(roomId, RoomOccupancy.fields(room));
+
+                if (previousRoom != null) {
+                    delta.removeRoom(previousRoom);
+                    RoomOccupancy.removeOccupant(previousRoom);
+                    delta.addRoom(previousRoom);
+                    rooms.update(previousRoom.getId(), RoomOccupancy.fields(previousRoom));
+                }
+                delta.moveResident(previousRoom == null ? null : previousRoom.getBuildingId(), room.getBuildingId());
+            }
+
+            Map<String, Object> tenantFields = new HashMap<>();
+            tenantFields.put("roomID", roomId);
+            String contractId = tenant.getContractID();
+            if (newContract != null) {
+                contracts.put(newContract.getId(), newContract);
+                contractId = newContract.getId();
+                tenantFields.put("contractID", contractId);
+            }
+            users.update(tenantDocumentId, tenantFields);
+            statsLedger.apply(delta);
+
+            return ApiFutures.immediateFuture(new RoomAssignment(room, previousRoom, contractId));
+        }
+    }
+
+    /** Rooms here always carry a counter, so the room's tenants are simply recounted under the lock. */
+    @Override
+    public ApiFuture<Boolean> migrateOccupantCount(String roomId) {
+        synchronized (statsLedger) {
+            Room room = rooms.get(roomId);
+            if (room == null) return ApiFutures.immediateFuture(false);
+            Room before = rooms.get(roomId);
+            int occupants = users.findWhere(user -> InMemoryTenantRepository.isTenant(user)
+                    && roomId.equals(((Tenant) user).getRoomID())).size();
+
+            RoomOccupancy.setOccupants(room, occupants);
+            rooms.update(roomId, RoomOccupancy.fields(room));
+            statsLedger.apply(new StatsDelta().removeRoom(before).addRoom(room));
+            return ApiFutures.immediateFuture(true);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.RoomRepository;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryRoomRepository implements RoomRepository {
+
+    private final InMemoryCollection<Room> rooms;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryRoomRepository(InMemoryDatabase database) {
+        this.rooms = database.rooms;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<List<Room>> findAll() {
+        return ApiFutures.immediateFuture(rooms.findAll());
+    }
+
+    @Override
+    public ApiFuture<Long> sumCapacity() {
+        long total = 0;
+        for (Room room : rooms.findAll()) total += room.getCapacity();
+        return ApiFutures.immediateFuture(total);
+    }
+
+    @Override
+    public ApiFuture<Room> findById(String id) {
+        return ApiFutures.immediateFuture(rooms.get(id));
+    }
+
+    @Override
+    public ApiFuture<Void> save(Room room) {
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta().removeRoom(rooms.get(room.getId()));
+            rooms.put(room.getId(), room);
+            statsLedger.apply(delta.addRoom(room));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> update(String id, Map<String, Object> fields) {
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta().removeRoom(rooms.get(id));
+            rooms.update(id, fields);
+            statsLedger.apply(delta.addRoom(rooms.get(id)));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> delete(String id) {
+        synchronized (statsLedger) {
+            StatsDelta delta = new StatsDelta().removeRoom(rooms.get(id));
+            rooms.remove(id);
+            statsLedger.apply(delta);
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ListenerRegistration listen(EntityListener<Room> listener) {
+        return rooms.listen(listener);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.repository.StatsDelta;
+
+import java.util.Map;
+
+/**
+ * In-memory counterpart of the Firestore stats ledger. Repositories hold this object's
+ * lock around a write and its {@link #apply}, which stands in for a transaction.
+ */
+final class InMemoryStatsLedger {
+
+    static final String SUMMARY_ID = "summary";
+
+    private final InMemoryCollection<StatsSummary> stats;
+    private final InMemoryCollection<StatsSummary> buildingStats;
+
+    InMemoryStatsLedger(InMemoryCollection<StatsSummary> stats, InMemoryCollection<StatsSummary> buildingStats) {
+        this.stats = stats;
+        this.buildingStats = buildingStats;
+    }
+
+    synchronized void apply(StatsDelta delta) {
+        if (delta.isEmpty()) return;
+        StatsSummary summary = incremented(stats.get(SUMMARY_ID), SUMMARY_ID, delta.getSummaryIncrements());
+        summary.setRevision(summary.getRevision() + 1);
+        stats.put(SUMMARY_ID, summary);
+        for (Map.Entry<String, Map<String, Number>> building : delta.getBuildingIncrements().entrySet()) {
+            String id = building.getKey();
+            buildingStats.put(id, incremented(buildingStats.get(id), id, building.getValue()));
+        }
+    }
+
+    private static StatsSummary incremented(StatsSummary doc, String id, Map<String, Number> amounts) {
+        if (doc == null) {
+            doc = new StatsSummary();
+            doc.setId(id);
+        }
+        for (Map.Entry<String, Number> amount : amounts.entrySet()) {
+            Number value = amount.getValue();
+            switch (amount.getKey()) {
+                case StatsDelta.TOTAL_RESIDENTS: doc.setTotalResidents(doc.getTotalResidents() + value.longValue()); break;
+                case StatsDelta.TOTAL_ROOMS: doc.setTotalRooms(doc.getTotalRooms() + value.longValue()); break;
+                case StatsDelta.OCCUPIED_ROOMS: doc.setOccupiedRooms(doc.getOccupiedRooms() + value.longValue()); break;
+                case StatsDelta.TOTAL_CAPACITY: doc.setTotalCapacity(doc.getTotalCapacity() + value.longValue()); break;
+                case StatsDelta.PENDING_MAINTENANCE: doc.setPendingMaintenance(doc.getPendingMaintenance() + value.longValue()); break;
+                case StatsDelta.PAID_REVENUE: doc.setPaidRevenue(doc.getPaidRevenue() + value.doubleValue()); break;
+                default: break;
+            }
+        }
+        return doc;
+    }
+}
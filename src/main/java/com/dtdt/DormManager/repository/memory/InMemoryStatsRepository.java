@@ -0,0 +1,48 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.repository.StatsRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.Map;
+
+public class InMemoryStatsRepository implements StatsRepository {
+
+    private final InMemoryCollection<StatsSummary> stats;
+    private final InMemoryCollection<StatsSummary> buildingStats;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryStatsRepository(InMemoryDatabase database) {
+        this.stats = database.stats;
+        this.buildingStats = database.buildingStats;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> findSummary() {
+        return ApiFutures.immediateFuture(stats.get(InMemoryStatsLedger.SUMMARY_ID));
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> findByBuilding(String buildingId) {
+        return ApiFutures.immediateFuture(buildingStats.get(buildingId));
+    }
+
+    @Override
+    public ApiFuture<StatsSummary> initialize(StatsSummary summary, Map<String, StatsSummary> buildings, long expectedRevision) {
+        synchronized (statsLedger) {
+            StatsSummary stored = stats.get(InMemoryStatsLedger.SUMMARY_ID);
+            if (stored != null && stored.isInitialized()) return ApiFutures.immediateFuture(stored);
+            if ((stored == null ? 0 : stored.getRevision()) != expectedRevision) return ApiFutures.immediateFuture(null);
+
+            summary.setId(InMemoryStatsLedger.SUMMARY_ID);
+            stats.put(InMemoryStatsLedger.SUMMARY_ID, summary);
+            for (Map.Entry<String, StatsSummary> building : buildings.entrySet()) {
+                building.getValue().setId(building.getKey());
+                buildingStats.put(building.getKey(), building.getValue());
+            }
+        }
+        return ApiFutures.immediateFuture(summary);
+    }
+}
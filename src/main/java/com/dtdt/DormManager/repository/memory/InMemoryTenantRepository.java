@@ -0,0 +1,129 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.Page;
+import com.dtdt.DormManager.repository.StatsDelta;
+import com.dtdt.DormManager.repository.TenantRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryTenantRepository implements TenantRepository {
+
+    private final InMemoryCollection<User> users;
+    private final InMemoryCollection<Room> rooms;
+    private final InMemoryStatsLedger statsLedger;
+
+    public InMemoryTenantRepository(InMemoryDatabase database) {
+        this.users = database.users;
+        this.rooms = database.rooms;
+        this.statsLedger = database.statsLedger;
+    }
+
+    @Override
+    public ApiFuture<List<Tenant>> findAll() {
+        List<Tenant> tenants = new ArrayList<>();
+        for (User user : users.findWhere(InMemoryTenantRepository::isTenant)) {
+            tenants.add((Tenant) user);
+        }
+        return ApiFutures.immediateFuture(tenants);
+    }
+
+    @Override
+    public ApiFuture<Long> count() {
+        return ApiFutures.immediateFuture((long) users.findWhere(InMemoryTenantRepository::isTenant).size());
+    }
+
+    @Override
+    public ApiFuture<Page<Tenant>> findPage(String afterDocumentId, int limit) {
+        List<Tenant> tenants = new ArrayList<>();
+        for (User user : users.findWhere(InMemoryTenantRepository::isTenant)) {
+            if (afterDocumentId == null || user.getDocumentId().compareTo(afterDocumentId) > 0) {
+                tenants.add((Tenant) user);
+            }
+        }
+        tenants.sort(Comparator.comparing(Tenant::getDocumentId));
+        boolean hasMore = tenants.size() > limit;
+        List<Tenant> items = hasMore ? tenants.subList(0, limit) : tenants;
+        String cursor = items.isEmpty() ? null : items.get(items.size() - 1).getDocumentId();
+        return ApiFutures.immediateFuture(new Page<>(items, cursor, hasMore));
+    }
+
+    @Override
+    public ApiFuture<Tenant> findById(String documentId) {
+        User user = users.get(documentId);
+        return ApiFutures.immediateFuture(isTenant(user) ? (Tenant) user : null);
+    }
+
+    @Override
+    public ApiFuture<Void> create(String documentId, Map<String, Object> fields) {
+        Tenant tenant = new Tenant();
+        FieldUpdater.apply(tenant, fields);
+        tenant.setDocumentId(documentId);
+        synchronized (statsLedger) {
+            boolean existed = isTenant(users.get(documentId));
+            users.put(documentId, tenant);
+            if (!existed) statsLedger.apply(new StatsDelta().addResident(buildingOf(tenant.getRoomID())));
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    @Override
+    public ApiFuture<Void> update(String documentId, Map<String, Object> fields) {
+        if (!fields.containsKey("roomID")) {
+            users.update(documentId, fields);
+            return ApiFutures.immediateFuture(null);
+        }
+        synchronized (statsLedger) {
+            User user = users.get(documentId);
+            String fromBuilding = isTenant(user) ? buildingOf(((Tenant) user).getRoomID()) : null;
+            users.update(documentId, fields);
+            if (isTenant(user)) {
+                statsLedger.apply(new StatsDelta().moveResident(fromBuilding, buildingOf((String) fields.get("roomID"))));
+            }
+        }
+        return ApiFutures.immediateFuture(null);
+    }
+
+    private String buildingOf(String roomId) {
+        Room room = roomId == null ? null : rooms.get(roomId);
+        return room == null ? null : room.getBuildingId();
+    }
+
+    /**
+     * Listens to the shared users collection and forwards only tenant documents.
+     */
+    @Override
+    public ListenerRegistration listen(EntityListener<Tenant> listener) {
+        return users.listen(new EntityListener<>() {
+            @Override
+            public void onChanges(List<EntityChange<User>> changes) {
+                List<EntityChange<Tenant>> tenantChanges = new ArrayList<>();
+                for (EntityChange<User> change : changes) {
+                    if (isTenant(change.getValue())) {
+                        tenantChanges.add(new EntityChange<>(change.getType(), change.getId(), (Tenant) change.getValue()));
+                    }
+                }
+                listener.onChanges(tenantChanges);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    static boolean isTenant(User user) {
+        return user instanceof Tenant && "Tenant".equals(user.getUserType());
+    }
+}
@@ -0,0 +1,44 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.UserRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    private final InMemoryCollection<User> users;
+
+    public InMemoryUserRepository(InMemoryDatabase database) {
+        this.users = database.users;
+    }
+
+    @Override
+    public ApiFuture<User> findById(String documentId) {
+        return ApiFutures.immediateFuture(users.get(documentId));
+    }
+
+    @Override
+    public ApiFuture<User> findByUserId(String userId) {
+        return ApiFutures.immediateFuture(first(users.findWhere(u -> Objects.equals(userId, u.getUserId()))));
+    }
+
+    @Override
+    public ApiFuture<User> findByEmail(String email) {
+        return ApiFutures.immediateFuture(first(users.findWhere(u -> Objects.equals(email, u.getEmail()))));
+    }
+
+    @Override
+    public ApiFuture<Void> updatePasswordHash(String documentId, String passwordHash) {
+        users.update(documentId, Map.of("passwordHash", passwordHash));
+        return ApiFutures.immediateFuture(null);
+    }
+
+    private static User first(List<User> matches) {
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+}
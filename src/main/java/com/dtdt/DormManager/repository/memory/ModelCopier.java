@@ -0,0 +1,47 @@
+package com.dtdt.DormManager.repository.memory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies model objects field by field, so the in-memory backend hands out and stores
+ * its own instances the way Firestore serializes them. Dates, lists and maps are copied
+ * too; other field values are shared, which is fine for the immutable types models use.
+ */
+final class ModelCopier {
+
+    private ModelCopier() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> T copy(T source) {
+        if (source == null) return null;
+        try {
+            Constructor<?> constructor = source.getClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+            T copy = (T) constructor.newInstance();
+            for (Class<?> type = source.getClass(); type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) continue;
+                    field.setAccessible(true);
+                    field.set(copy, copyValue(field.get(source)));
+                }
+            }
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy " + source.getClass().getName(), e);
+        }
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Date) return new Date(((Date) value).getTime());
+        if (value instanceof List) return new ArrayList<>((List<?>) value);
+        if (value instanceof Map) return new LinkedHashMap<>((Map<?, ?>) value);
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Offline timing for AllocationSolver on synthetic data; needs no database.
+ * Run with {@code Main --allocation-benchmark [requests] [rooms]}.
+ */
+public final class AllocationBenchmark {
+
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Quad"};
+    private static final int[] CAPACITIES = {1, 2, 4};
+    private static final int BUILDINGS = 8;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    private AllocationBenchmark() {}
+
+    public static void run(int requestCount, int roomCount) {
+        Random random = new Random(42);
+        List<Room> rooms = new ArrayList<>(roomCount);
+        List<Tenant> tenants = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            int type = random.nextInt(ROOM_TYPES.length);
+            Room room = new Room();
+            room.setId("room-" + i);
+            room.setBuildingId("building-" + random.nextInt(BUILDINGS));
+            room.setRoomType(ROOM_TYPES[type]);
+            room.setCapacity(CAPACITIES[type]);
+            room.setStatus("Available");
+            String gender = GENDERS[random.nextInt(GENDERS.length)];
+            for (int occupants = random.nextInt(CAPACITIES[type]); occupants > 0; occupants--) {
+                Tenant tenant = new Tenant();
+                tenant.setRoomID(room.getId());
+                tenant.setGenderType(gender);
+                tenants.add(tenant);
+            }
+            rooms.add(room);
+        }
+
+        long now = System.currentTimeMillis();
+        List<AllocationRequest> requests = new ArrayList<>(requestCount);
+        for (int i = 0; i < requestCount; i++) {
+            // A quarter of the requests carry a building or type preference
+            String building = random.nextInt(8) == 0 ? "building-" + random.nextInt(BUILDINGS) : null;
+            String type = random.nextInt(8) == 0 ? ROOM_TYPES[random.nextInt(ROOM_TYPES.length)] : null;
+            requests.add(new AllocationRequest("request-" + i, GENDERS[random.nextInt(GENDERS.length)], "Monthly",
+                    new Date(now + random.nextInt(90) * 86_400_000L), building, type));
+        }
+
+        for (int i = 0; i < WARMUP_RUNS; i++) new AllocationSolver().solve(requests, rooms, tenants);
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        AllocationPlan plan = null;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            plan = new AllocationSolver().solve(requests, rooms, tenants);
+            best = Math.min(best, plan.getElapsedNanos());
+            total += plan.getElapsedNanos();
+        }
+        System.out.printf("Allocation benchmark: %d requests x %d rooms -> %s%n", requestCount, roomCount, plan);
+        System.out.printf("  best %.2f ms, mean %.2f ms over %d runs%n",
+                best / 1_000_000.0, total / 1_000_000.0 / MEASURED_RUNS, MEASURED_RUNS);
+    }
+}
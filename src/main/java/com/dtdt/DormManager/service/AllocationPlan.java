@@ -0,0 +1,35 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one solver run: a room per allocated request, plus the requests left over.
+ */
+public final class AllocationPlan {
+
+    private final Map<String, Room> roomByRequestId;
+    private final List<AllocationRequest> unallocated;
+    private final long elapsedNanos;
+
+    AllocationPlan(Map<String, Room> roomByRequestId, List<AllocationRequest> unallocated, long elapsedNanos) {
+        this.roomByRequestId = Collections.unmodifiableMap(roomByRequestId);
+        this.unallocated = Collections.unmodifiableList(unallocated);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Request id -> assigned room, in allocation order. */
+    public Map<String, Room> getAssignments() { return roomByRequestId; }
+    public Room getRoomFor(String requestId) { return roomByRequestId.get(requestId); }
+    public List<AllocationRequest> getUnallocated() { return unallocated; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("Allocated %d, unallocated %d, solved in %.1f ms",
+                roomByRequestId.size(), unallocated.size(), elapsedNanos / 1_000_000.0);
+    }
+}
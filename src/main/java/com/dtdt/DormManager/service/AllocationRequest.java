@@ -0,0 +1,39 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Reservation;
+
+import java.util.Date;
+
+/**
+ * One bed to find. Building and room type are optional preferences; null means any.
+ */
+public final class AllocationRequest {
+
+    private final String id;
+    private final String gender;
+    private final String contractType;
+    private final Date moveInDate;
+    private final String buildingId;
+    private final String roomType;
+
+    public AllocationRequest(String id, String gender, String contractType, Date moveInDate, String buildingId, String roomType) {
+        this.id = id;
+        this.gender = gender;
+        this.contractType = contractType;
+        this.moveInDate = moveInDate;
+        this.buildingId = buildingId;
+        this.roomType = roomType;
+    }
+
+    public static AllocationRequest from(Reservation reservation) {
+        return new AllocationRequest(reservation.getId(), reservation.getGender(), reservation.getContractType(),
+                reservation.getPreferredMoveInDate(), null, null);
+    }
+
+    public String getId() { return id; }
+    public String getGender() { return gender; }
+    public String getContractType() { return contractType; }
+    public Date getMoveInDate() { return moveInDate; }
+    public String getBuildingId() { return buildingId; }
+    public String getRoomType() { return roomType; }
+}
@@ -0,0 +1,45 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads pending reservations and runs the allocation solver against the rooms and
+ * tenants already held by RoomStore and TenantStore, so planning never downloads those
+ * collections. The plan is advisory: rooms are still assigned through
+ * RoomAssignmentService once the reservation has been approved.
+ */
+public class AllocationService {
+    private static AllocationService instance;
+
+    private AllocationService() {}
+
+    public static synchronized AllocationService getInstance() {
+        if (instance == null) instance = new AllocationService();
+        return instance;
+    }
+
+    public ApiFuture<AllocationPlan> planPendingReservations() {
+        ApiFuture<List<Reservation>> reservations = Repositories.reservations().findByStatus("Pending");
+        ApiFuture<List<Object>> all = ApiFutures.allAsList(List.of(reservations,
+                RoomStore.getInstance().whenLoaded(), TenantStore.getInstance().whenLoaded()));
+        // The stores are only read on the JavaFX thread; the solver then works on copies
+        ApiFuture<List<Room>> rooms = ApiFutures.transform(all,
+                loaded -> new ArrayList<>(RoomStore.getInstance().getRooms()), AppExecutors.fx());
+        ApiFuture<List<Tenant>> tenants = ApiFutures.transform(all,
+                loaded -> new ArrayList<>(TenantStore.getInstance().getTenants()), AppExecutors.fx());
+
+        return ApiFutures.transformAsync(ApiFutures.allAsList(List.of(rooms, tenants)), copied -> {
+            List<AllocationRequest> requests = new ArrayList<>();
+            for (Reservation reservation : reservations.get()) requests.add(AllocationRequest.from(reservation));
+            return ApiFutures.immediateFuture(new AllocationSolver().solve(requests, rooms.get(), tenants.get()));
+        }, AppExecutors.cpu());
+    }
+}
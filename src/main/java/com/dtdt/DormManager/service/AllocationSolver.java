@@ -0,0 +1,160 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Greedy bed allocation over indexed buckets of free beds. Occupancy comes from the
+ * tenants' roomID rather than the rooms' counters. Rooms with free beds are bucketed by
+ * building + room type + gender (a room takes the gender of its occupants; empty rooms
+ * sit in a gender-less bucket until their first allocation, and occupied rooms whose
+ * gender is unknown or mixed are left out). Each request
+ * first tops up a partly filled room of its gender, then opens an empty room, so rooms
+ * fill before new ones are started. Requests are served by earliest move-in date.
+ *
+ * <p>Every lookup touches only bucket heads, so a run is roughly
+ * O(rooms + requests x buckets) with buckets = buildings x room types. Not thread-safe;
+ * use one solver per run.
+ */
+public class AllocationSolver {
+
+    private static final Comparator<AllocationRequest> EARLIEST_MOVE_IN =
+            Comparator.comparing(AllocationRequest::getMoveInDate, Comparator.nullsLast(Comparator.<Date>naturalOrder()));
+
+    // building|type|gender -> rooms of that gender with a free bed
+    private final Map<String, ArrayDeque<Slot>> partialBuckets = new HashMap<>();
+    // gender -> keys of its non-empty partial buckets, in the order they were opened
+    private final Map<String, Set<String>> partialKeysByGender = new HashMap<>();
+    // building|type -> empty rooms
+    private final Map<String, ArrayDeque<Slot>> emptyBuckets = new LinkedHashMap<>();
+
+    /**
+     * @param rooms    the room inventory; only Available rooms with free beds are used
+     * @param tenants  current tenants; each one with a roomID occupies a bed there
+     */
+    public AllocationPlan solve(List<AllocationRequest> requests, List<Room> rooms, List<Tenant> tenants) {
+        long started = System.nanoTime();
+        index(rooms, tenants);
+
+        List<AllocationRequest> ordered = new ArrayList<>(requests);
+        ordered.sort(EARLIEST_MOVE_IN);
+
+        Map<String, Room> assignments = new LinkedHashMap<>();
+        List<AllocationRequest> unallocated = new ArrayList<>();
+        for (AllocationRequest request : ordered) {
+            Slot slot = take(request);
+            if (slot == null) unallocated.add(request);
+            else assignments.put(request.getId(), slot.room);
+        }
+        return new AllocationPlan(assignments, unallocated, System.nanoTime() - started);
+    }
+
+    private void index(List<Room> rooms, List<Tenant> tenants) {
+        partialBuckets.clear();
+        partialKeysByGender.clear();
+        emptyBuckets.clear();
+        Map<String, Occupants> occupantsByRoom = new HashMap<>();
+        for (Tenant tenant : tenants) {
+            if (tenant.getRoomID() == null) continue;
+            occupantsByRoom.computeIfAbsent(tenant.getRoomID(), k -> new Occupants()).add(tenant.getGenderType());
+        }
+
+        for (Room room : rooms) {
+            Occupants occupants = occupantsByRoom.get(room.getId());
+            int count = occupants == null ? 0 : occupants.count;
+            int free = room.getCapacity() - count;
+            if (free <= 0 || !"Available".equalsIgnoreCase(room.getStatus())) continue;
+            Slot slot = new Slot(room, free);
+            if (count == 0) {
+                emptyBuckets.computeIfAbsent(roomKey(room), k -> new ArrayDeque<>()).addLast(slot);
+            } else if (occupants.gender != null) {
+                addPartial(slot, occupants.gender);
+            }
+            // Otherwise the room is occupied but we can't tell by whom, so it isn't offered
+        }
+    }
+
+    private Slot take(AllocationRequest request) {
+        String gender = request.getGender();
+        Set<String> keys = partialKeysByGender.get(gender);
+        if (keys != null) {
+            for (String key : keys) {
+                ArrayDeque<Slot> bucket = partialBuckets.get(key);
+                if (!matches(bucket.peekFirst().room, request)) continue;
+                Slot slot = bucket.peekFirst();
+                if (--slot.free == 0) {
+                    bucket.pollFirst();
+                    if (bucket.isEmpty()) {
+                        partialBuckets.remove(key);
+                        keys.remove(key);
+                    }
+                }
+                return slot;
+            }
+        }
+
+        Iterator<Map.Entry<String, ArrayDeque<Slot>>> empties = emptyBuckets.entrySet().iterator();
+        while (empties.hasNext()) {
+            ArrayDeque<Slot> bucket = empties.next().getValue();
+            if (!matches(bucket.peekFirst().room, request)) continue;
+            Slot slot = bucket.pollFirst();
+            if (bucket.isEmpty()) empties.remove();
+            // The room now belongs to this gender; its remaining beds become a partial slot
+            if (--slot.free > 0) addPartial(slot, gender);
+            return slot;
+        }
+        return null;
+    }
+
+    private void addPartial(Slot slot, String gender) {
+        String key = roomKey(slot.room) + "|" + gender;
+        partialBuckets.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(slot);
+        partialKeysByGender.computeIfAbsent(gender, k -> new LinkedHashSet<>()).add(key);
+    }
+
+    // All rooms in a bucket share building and type, so checking the head is enough
+    private static boolean matches(Room room, AllocationRequest request) {
+        return (request.getBuildingId() == null || request.getBuildingId().equals(room.getBuildingId()))
+                && (request.getRoomType() == null || Objects.equals(request.getRoomType(), room.getRoomType()));
+    }
+
+    private static String roomKey(Room room) {
+        return room.getBuildingId() + "|" + room.getRoomType();
+    }
+
+    /** Tenants in one room; gender is null unless every one of them has the same known gender. */
+    private static final class Occupants {
+        int count;
+        String gender;
+        boolean unknown;
+
+        void add(String tenantGender) {
+            if (tenantGender == null || (count > 0 && !tenantGender.equals(gender))) unknown = true;
+            count++;
+            gender = unknown ? null : tenantGender;
+        }
+    }
+
+    private static final class Slot {
+        final Room room;
+        int free;
+
+        Slot(Room room, int free) {
+            this.room = room;
+            this.free = free;
+        }
+    }
+}
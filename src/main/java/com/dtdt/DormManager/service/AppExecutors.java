@@ -0,0 +1,207 @@
+package com.dtdt.DormManager.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The application's shared executors. Service and controller callbacks should name one of
+ * these instead of {@code Runnable::run} (which runs them on a Firestore thread) or a new
+ * executor; only the repository adapters use {@code Runnable::run}, to unwrap a result:
+ * <ul>
+ *   <li>{@link #io()} for callbacks that block on further reads or writes;</li>
+ *   <li>{@link #cpu()} for mapping and aggregating results;</li>
+ *   <li>{@link #fx()} for touching the scene graph;</li>
+ *   <li>{@link #fxBatched()} for list and card updates, flushed together once per pulse;</li>
+ *   <li>{@link #hashing()} for interactive password hashing (sign-in, password changes);</li>
+ *   <li>{@link #bulkHashing()} for hashing many passwords at once. It has its own, smaller
+ *       pool, so a bulk approval never fills the queue that logins wait in.</li>
+ * </ul>
+ * Pools are bounded. When the I/O queue is full the task is rejected, because the submitting
+ * thread may be the JavaFX thread or a Firestore callback thread, which must not block;
+ * {@code ApiFutures.transform}/{@code transformAsync} and {@link #supply} report that as a
+ * failed future. The other pools run the task on the submitting thread instead.
+ * All threads are daemons and {@link #shutdown()} stops them when the app exits; run with
+ * {@code -Ddorm.printExecutorMetrics=true} to print each pool's metrics at that point.
+ */
+public final class AppExecutors {
+    private static final int IO_THREADS = 16;
+    private static final int CPU_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final MeteredPool IO = new MeteredPool("io", IO_THREADS, new ThreadPoolExecutor.AbortPolicy());
+    private static final MeteredPool CPU = new MeteredPool("cpu", CPU_THREADS, new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final MeteredPool HASHING = new MeteredPool("hashing", CPU_THREADS, new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final MeteredPool BULK_HASHING = new MeteredPool("bulk-hashing", Math.max(1, CPU_THREADS / 2),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final ExecutorMetrics FX_METRICS = new ExecutorMetrics("fx");
+    private static final Executor FX = task -> Platform.runLater(FX_METRICS.track(task));
+    private static final ExecutorMetrics FX_BATCHED_METRICS = new ExecutorMetrics("fx-batched");
+    // Built on first use: its AnimationTimer needs the JavaFX toolkit, which headless runs never start
+    private static FxUpdateBatcher fxBatched;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            daemonThreads("scheduler"));
+
+    private AppExecutors() {}
+
+    public static Executor io() { return IO; }
+
+    public static Executor cpu() { return CPU; }
+
+    public static Executor hashing() { return HASHING; }
+
+    public static Executor bulkHashing() { return BULK_HASHING; }
+
+    /** Posts to the JavaFX thread, like {@code Platform::runLater}, with metrics. */
+    public static Executor fx() { return FX; }
+
+    /** Runs on the JavaFX thread at the next animation pulse, together with other queued updates. */
+    public static synchronized FxUpdateBatcher fxBatched() {
+        if (fxBatched == null) fxBatched = new FxUpdateBatcher(FX_BATCHED_METRICS);
+        return fxBatched;
+    }
+
+    /** Single timer thread; scheduled work should hand anything slow to {@link #io()}. */
+    public static ScheduledExecutorService scheduler() { return SCHEDULER; }
+
+    /**
+     * A view of the I/O pool that runs at most {@code maxConcurrent} of its tasks at once,
+     * for jobs that must not open too many writes in parallel.
+     */
+    public static Executor limitedIo(int maxConcurrent) {
+        return new LimitedExecutor(IO, Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Runs the task on the executor and completes the returned future with its result,
+     * or with the RejectedExecutionException if the executor is full.
+     */
+    public static <T> ApiFuture<T> supply(Executor executor, Callable<T> task) {
+        SettableApiFuture<T> result = SettableApiFuture.create();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.set(task.call());
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.setException(e);
+        }
+        return result;
+    }
+
+    public static List<ExecutorMetrics> metrics() {
+        return List.of(IO.metrics, CPU.metrics, HASHING.metrics, BULK_HASHING.metrics, FX_METRICS, FX_BATCHED_METRICS);
+    }
+
+    /** Stops accepting work and gives running tasks a moment to finish. */
+    public static void shutdown() {
+        SCHEDULER.shutdownNow();
+        for (MeteredPool pool : List.of(IO, CPU, HASHING, BULK_HASHING)) pool.shutdown();
+        try {
+            for (MeteredPool pool : List.of(IO, CPU, HASHING, BULK_HASHING)) pool.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (Boolean.getBoolean("dorm.printExecutorMetrics")) {
+            for (ExecutorMetrics metrics : metrics()) System.out.println(metrics);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class MeteredPool extends ThreadPoolExecutor {
+        final ExecutorMetrics metrics;
+
+        MeteredPool(String name, int threads, RejectedExecutionHandler whenFull) {
+            super(threads, threads, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                    daemonThreads(name), whenFull);
+            this.metrics = new ExecutorMetrics(name);
+            allowCoreThreadTimeOut(true); // idle sessions hold no threads
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            try {
+                super.execute(metrics.track(command));
+            } catch (RejectedExecutionException e) {
+                metrics.recordDropped();
+                throw e;
+            }
+        }
+    }
+
+    private static final class LimitedExecutor implements Executor {
+        private final Executor delegate;
+        private final int limit;
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private int running;
+
+        LimitedExecutor(Executor delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                if (running >= limit) {
+                    pending.add(task);
+                    return;
+                }
+                running++;
+            }
+            dispatch(task);
+        }
+
+        private void dispatch(Runnable task) {
+            try {
+                delegate.execute(wrapped(task));
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    running--; // Free the slot so a full pool can't shrink the limit for good
+                }
+                throw e;
+            }
+        }
+
+        private Runnable wrapped(Runnable task) {
+            return () -> {
+                try {
+                    task.run();
+                } finally {
+                    Runnable next;
+                    synchronized (this) {
+                        next = pending.poll();
+                        if (next == null) running--;
+                    }
+                    if (next != null) dispatch(next);
+                }
+            };
+        }
+    }
+}
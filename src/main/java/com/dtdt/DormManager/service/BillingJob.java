@@ -0,0 +1,118 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless billing run: generates the missing invoices for every active contract.
+ * Contracts are processed in chunks on the shared I/O pool, {@code parallelism} at a time; each chunk looks up
+ * which periods its contracts are already invoiced for (by contractId and monthYear, so
+ * invoices created before ids were deterministic count too) and creates the rest, so
+ * the job can be re-run safely and never overwrites a paid invoice.
+ */
+public class BillingJob {
+
+    static final int CONTRACTS_PER_CHUNK = 100;
+
+    private final int parallelism;
+
+    public BillingJob(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public Report run(Date asOf) throws Exception {
+        long started = System.nanoTime();
+        List<Contract> contracts = Repositories.contracts().findActive(asOf).get();
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger invalid = new AtomicInteger();
+        Executor pool = AppExecutors.limitedIo(parallelism);
+        List<ApiFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < contracts.size(); from += CONTRACTS_PER_CHUNK) {
+            List<Contract> chunk = contracts.subList(from, Math.min(from + CONTRACTS_PER_CHUNK, contracts.size()));
+            chunks.add(AppExecutors.supply(pool, () -> {
+                billChunk(chunk, created, skipped, invalid);
+                return null;
+            }));
+        }
+        for (ApiFuture<Void> chunk : chunks) chunk.get();
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return new Report(contracts.size(), invalid.get(), created.get(), skipped.get(), elapsedMillis);
+    }
+
+    private void billChunk(List<Contract> chunk, AtomicInteger created, AtomicInteger skipped, AtomicInteger invalid) throws Exception {
+        BillingService billing = BillingService.getInstance();
+        List<Invoice> candidates = new ArrayList<>();
+        for (Contract contract : chunk) {
+            if (contract.getId() == null || contract.getStartDate() == null || contract.getEndDate() == null) {
+                invalid.incrementAndGet();
+                continue;
+            }
+            candidates.addAll(billing.buildInvoices(contract, contract.getTenantId()));
+        }
+
+        Set<String> contractIds = new HashSet<>();
+        for (Invoice invoice : candidates) contractIds.add(invoice.getContractId());
+        Map<String, Set<String>> invoiced = Repositories.invoices().findInvoicedPeriods(contractIds).get();
+
+        List<Invoice> missing = new ArrayList<>();
+        for (Invoice invoice : candidates) {
+            Set<String> periods = invoiced.get(invoice.getContractId());
+            if (periods == null || !periods.contains(invoice.getMonthYear())) missing.add(invoice);
+        }
+        // Ids created by someone else since the check are skipped by saveAll too
+        int stored = missing.isEmpty() ? 0 : Repositories.invoices().saveAll(missing).get();
+        created.addAndGet(stored);
+        skipped.addAndGet(candidates.size() - stored);
+    }
+
+    /**
+     * Counts and timing for one run.
+     */
+    public static final class Report {
+        private final int contracts;
+        private final int invalidContracts;
+        private final int invoicesCreated;
+        private final int invoicesSkipped;
+        private final long elapsedMillis;
+
+        Report(int contracts, int invalidContracts, int invoicesCreated, int invoicesSkipped, long elapsedMillis) {
+            this.contracts = contracts;
+            this.invalidContracts = invalidContracts;
+            this.invoicesCreated = invoicesCreated;
+            this.invoicesSkipped = invoicesSkipped;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getContracts() { return contracts; }
+        public int getInvalidContracts() { return invalidContracts; }
+        public int getInvoicesCreated() { return invoicesCreated; }
+        public int getInvoicesSkipped() { return invoicesSkipped; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getContractsPerSecond() {
+            return elapsedMillis == 0 ? contracts : contracts * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Billing run: %d contracts (%d skipped as incomplete), %d invoices created, "
+                            + "%d already existed, %d ms (%.0f contracts/s)",
+                    contracts, invalidContracts, invoicesCreated, invoicesSkipped, elapsedMillis, getContractsPerSecond());
+        }
+    }
+}
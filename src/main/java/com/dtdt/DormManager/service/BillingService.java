@@ -0,0 +1,98 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds a contract's invoice schedule and stores it in one batched write. Invoice ids
+ * are derived from the contract id and billing month, so generating a schedule twice
+ * targets the same documents.
+ */
+public class BillingService {
+    private static BillingService instance;
+
+    private BillingService() {}
+
+    public static synchronized BillingService getInstance() {
+        if (instance == null) instance = new BillingService();
+        return instance;
+    }
+
+    /**
+     * Creates and saves every invoice for the contract. The returned future completes with
+     * the invoices once they are committed, so callers never show a half-written schedule.
+     */
+    public ApiFuture<List<Invoice>> generateInvoices(Contract contract, String tenantId) {
+        List<Invoice> invoices = buildInvoices(contract, tenantId);
+        return ApiFutures.transform(Repositories.invoices().saveAll(invoices), ignored -> invoices, AppExecutors.cpu());
+    }
+
+    /**
+     * Monthly contracts get one invoice per month due on the 5th; other contract types get
+     * a single full-semester invoice (six months of rent) due on the 5th of the start month.
+     */
+    public List<Invoice> buildInvoices(Contract contract, String tenantId) {
+        // SimpleDateFormat isn't thread-safe, so each call gets its own. The locale is pinned:
+        // BillingJob matches existing invoices by monthYear ("November 2025"), whatever the host
+        SimpleDateFormat monthYearFormatter = new SimpleDateFormat("MMMM yyyy", Locale.ENGLISH);
+        SimpleDateFormat monthKeyFormatter = new SimpleDateFormat("yyyy-MM", Locale.ROOT);
+        List<Invoice> invoices = new ArrayList<>();
+
+        if ("Monthly".equalsIgnoreCase(contract.getContractType())) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(contract.getStartDate());
+            Date endDate = contract.getEndDate();
+
+            while (cal.getTime().before(endDate) || cal.getTime().equals(endDate)) {
+                String monthYear = monthYearFormatter.format(cal.getTime());
+                String id = invoiceId(contract, monthKeyFormatter.format(cal.getTime()));
+                cal.set(Calendar.DAY_OF_MONTH, 5);
+                invoices.add(newInvoice(id, contract, tenantId, monthYear, contract.getRentAmount(), cal.getTime()));
+
+                cal.set(Calendar.DAY_OF_MONTH, 1);
+                cal.add(Calendar.MONTH, 1);
+            }
+        } else {
+            double totalRent = contract.getRentAmount() * 6; // Rate x 6 months
+
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(contract.getStartDate());
+            cal.set(Calendar.DAY_OF_MONTH, 5);
+
+            String monthYear = "Full Semester (" +
+                    monthYearFormatter.format(contract.getStartDate()) + " - " +
+                    monthYearFormatter.format(contract.getEndDate()) + ")";
+            invoices.add(newInvoice(invoiceId(contract, "semester"), contract, tenantId, monthYear, totalRent, cal.getTime()));
+        }
+        return invoices;
+    }
+
+    /** e.g. "{contractId}_2025-11" for a monthly invoice, "{contractId}_semester" for a full one. */
+    public static String invoiceId(Contract contract, String period) {
+        return contract.getId() + "_" + period;
+    }
+
+    private static Invoice newInvoice(String id, Contract contract, String tenantId, String monthYear, double amount, Date dueDate) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setTenantId(tenantId);
+        invoice.setContractId(contract.getId());
+        invoice.setMonthYear(monthYear);
+        invoice.setRentAmount(amount);
+        invoice.setLateFee(0);
+        invoice.setTotalAmount(amount);
+        invoice.setDueDate(dueDate);
+        invoice.setStatus("Pending");
+        return invoice;
+    }
+}
@@ -0,0 +1,36 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.StatsSummary;
+
+/**
+ * The headline numbers shown on the admin statistics page.
+ */
+public final class DashboardStats {
+
+    private final long totalResidents;
+    private final long totalCapacity;
+    private final long pendingMaintenance;
+    private final double paidRevenue;
+
+    public DashboardStats(long totalResidents, long totalCapacity, long pendingMaintenance, double paidRevenue) {
+        this.totalResidents = totalResidents;
+        this.totalCapacity = totalCapacity;
+        this.pendingMaintenance = pendingMaintenance;
+        this.paidRevenue = paidRevenue;
+    }
+
+    public static DashboardStats from(StatsSummary summary) {
+        return new DashboardStats(summary.getTotalResidents(), summary.getTotalCapacity(),
+                summary.getPendingMaintenance(), summary.getPaidRevenue());
+    }
+
+    public long getTotalResidents() { return totalResidents; }
+    public long getTotalCapacity() { return totalCapacity; }
+    public long getPendingMaintenance() { return pendingMaintenance; }
+    public double getPaidRevenue() { return paidRevenue; }
+
+    /** Residents as a percentage of total bed capacity (0 when there are no rooms). */
+    public double getOccupancyRate() {
+        return totalCapacity == 0 ? 0 : ((double) totalResidents / totalCapacity) * 100;
+    }
+}
@@ -0,0 +1,100 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-document reads keyed by path ({@code rooms/<id>}). Callers asking for the same
+ * document while a read is in flight share its future, and a successful result is reused
+ * until it expires, so moving between the tenant screens reads each document once.
+ * Failed reads are dropped so the next caller retries.
+ */
+public class DocumentCache {
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static DocumentCache instance;
+    private final Map<String, Entry<?>> entries = new ConcurrentHashMap<>();
+
+    private DocumentCache() {}
+
+    public static synchronized DocumentCache getInstance() {
+        if (instance == null) instance = new DocumentCache();
+        return instance;
+    }
+
+    public ApiFuture<Room> room(String id) {
+        return get("rooms/" + id, () -> Repositories.rooms().findById(id));
+    }
+
+    public ApiFuture<Contract> contract(String id) {
+        return get("contracts/" + id, () -> Repositories.contracts().findById(id));
+    }
+
+    /** The cached or in-flight read of {@code path}, starting one with {@code loader} if needed. */
+    @SuppressWarnings("unchecked")
+    public <T> ApiFuture<T> get(String path, Supplier<ApiFuture<T>> loader) {
+        Entry<?>[] started = new Entry<?>[1];
+        Entry<?> entry = entries.compute(path, (key, existing) -> {
+            if (existing != null && !existing.isExpired()) return existing;
+            started[0] = new Entry<>(loader.get());
+            return started[0];
+        });
+        if (entry == started[0]) {
+            // Outside compute: an already-finished future runs the listener immediately
+            entry.future.addListener(() -> {
+                if (entry.failed()) entries.remove(path, entry);
+            }, AppExecutors.cpu());
+        }
+        return (ApiFuture<T>) entry.future;
+    }
+
+    /** Drops the cached read of {@code path}; writers call this so the next read is fresh. */
+    public void invalidate(String path) {
+        entries.remove(path);
+    }
+
+    public void invalidateRoom(String id) {
+        if (id != null) invalidate("rooms/" + id);
+    }
+
+    public void invalidateContract(String id) {
+        if (id != null) invalidate("contracts/" + id);
+    }
+
+    /** Forgets everything, e.g. when a different user signs in. */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<T> {
+        final ApiFuture<T> future;
+        final long expiresAt;
+
+        Entry(ApiFuture<T> future) {
+            this.future = future;
+            this.expiresAt = System.currentTimeMillis() + TTL_MILLIS;
+        }
+
+        // Expiry only applies once the read has finished; an in-flight read is always shared.
+        // A failed read counts as expired even before the cleanup listener has removed it.
+        boolean isExpired() {
+            return future.isDone() && (System.currentTimeMillis() > expiresAt || failed());
+        }
+
+        boolean failed() {
+            try {
+                future.get();
+                return false;
+            } catch (Exception e) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.dtdt.DormManager.service;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one executor: tasks submitted, started, finished and dropped unrun, plus
+ * how long tasks waited in the queue and how long they ran. Safe to update from any thread.
+ */
+public final class ExecutorMetrics {
+    private final String name;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+    public ExecutorMetrics(String name) {
+        this.name = name;
+    }
+
+    /** Wraps a task so submitting, queueing and running it are recorded. */
+    Runnable track(Runnable task) {
+        long submittedAt = System.nanoTime();
+        submitted.increment();
+        return () -> {
+            long startedAt = System.nanoTime();
+            long waited = startedAt - submittedAt;
+            started.increment();
+            queueNanos.add(waited);
+            maxQueueNanos.accumulate(waited);
+            try {
+                task.run();
+            } finally {
+                runNanos.add(System.nanoTime() - startedAt);
+                completed.increment();
+            }
+        };
+    }
+
+    /** Records a tracked task that was discarded before it ran, e.g. replaced by a newer one. */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    public String getName() { return name; }
+
+    /** Tasks submitted but not yet started or dropped. */
+    public long getQueueDepth() { return submitted.sum() - started.sum() - dropped.sum(); }
+
+    public long getActive() { return started.sum() - completed.sum(); }
+
+    public long getCompleted() { return completed.sum(); }
+
+    public long getDropped() { return dropped.sum(); }
+
+    public double getAverageQueueMillis() {
+        long count = started.sum();
+        return count == 0 ? 0 : queueNanos.sum() / 1e6 / count;
+    }
+
+    public double getMaxQueueMillis() {
+        return maxQueueNanos.get() / 1e6;
+    }
+
+    public double getAverageRunMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : runNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d queued, %d active, %d completed, %d dropped, wait avg %.2f ms / max %.1f ms, run avg %.2f ms",
+                name, getQueueDepth(), getActive(), getCompleted(), getDropped(),
+                getAverageQueueMillis(), getMaxQueueMillis(), getAverageRunMillis());
+    }
+}
@@ -0,0 +1,101 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distinct values and how many rooms have each, per facet (building, floor, type, status).
+ * Adding or removing a room is constant time; listing a facet's values is linear in the
+ * number of distinct values.
+ */
+public final class FacetCounts {
+    public static final String BUILDING_ID = "buildingId";
+    public static final String BUILDING = "building";
+    public static final String FLOOR = "floor";
+    public static final String TYPE = "type";
+    public static final String STATUS = "status";
+
+    // Floors are numbers, so "10" sorts after "9"
+    private static final Comparator<String> VALUE_ORDER = Comparator
+            .comparing((String value) -> !isNumber(value))
+            .thenComparing(value -> isNumber(value) ? Long.parseLong(value) : 0L)
+            .thenComparing(String.CASE_INSENSITIVE_ORDER);
+
+    private final Map<String, Map<String, Integer>> counts = new HashMap<>();
+
+    /** Facets of a list of rooms, e.g. one loaded outside the store. */
+    public static FacetCounts of(List<Room> rooms) {
+        FacetCounts facets = new FacetCounts();
+        for (Room room : rooms) facets.addRoom(room);
+        return facets;
+    }
+
+    public void addRoom(Room room) {
+        add(BUILDING_ID, room.getBuildingId());
+        add(BUILDING, room.getBuildingName());
+        add(FLOOR, String.valueOf(room.getFloor()));
+        add(TYPE, room.getRoomType());
+        add(STATUS, room.getStatus());
+    }
+
+    public void add(String facet, String value) {
+        if (value == null) return;
+        counts.computeIfAbsent(facet, k -> new HashMap<>()).merge(value, 1, Integer::sum);
+    }
+
+    public void remove(String facet, String value) {
+        Map<String, Integer> values = value == null ? null : counts.get(facet);
+        if (values == null) return;
+        Integer count = values.get(value);
+        if (count == null) return;
+        if (count <= 1) values.remove(value);
+        else values.put(value, count - 1);
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    public int count(String facet, String value) {
+        Map<String, Integer> values = counts.get(facet);
+        Integer count = values == null ? null : values.get(value);
+        return count == null ? 0 : count;
+    }
+
+    /** Distinct values of a facet, numbers in numeric order and text alphabetically. */
+    public List<String> values(String facet) {
+        Map<String, Integer> values = counts.get(facet);
+        List<String> sorted = values == null ? new ArrayList<>() : new ArrayList<>(values.keySet());
+        sorted.sort(VALUE_ORDER);
+        return sorted;
+    }
+
+    /** How a combo shows a value, e.g. "Double (42)". */
+    public String label(String facet, String value) {
+        return value + " (" + count(facet, value) + ")";
+    }
+
+    public boolean isEmpty() {
+        for (Map<String, Integer> values : counts.values()) {
+            if (!values.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    private static boolean isNumber(String value) {
+        return value.matches("-?\\d{1,18}");
+    }
+
+    public FacetCounts copy() {
+        FacetCounts copy = new FacetCounts();
+        for (Map.Entry<String, Map<String, Integer>> entry : counts.entrySet()) {
+            copy.counts.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+}
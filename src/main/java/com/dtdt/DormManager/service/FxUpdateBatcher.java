@@ -0,0 +1,81 @@
+package com.dtdt.DormManager.service;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Buffers UI updates and runs them together once per animation pulse, so a burst of
+ * results costs one layout pass instead of one {@code Platform.runLater} each. Updates
+ * run in the order they were queued. Use it through {@link AppExecutors#fxBatched()}.
+ */
+public final class FxUpdateBatcher implements Executor {
+
+    private final ExecutorMetrics metrics;
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+    private boolean scheduled;
+
+    FxUpdateBatcher(ExecutorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Queues the update for the next pulse. */
+    @Override
+    public void execute(Runnable update) {
+        enqueue(new Object(), update);
+    }
+
+    /**
+     * Queues the update for the next pulse, replacing any update still pending under the
+     * same key, e.g. repeated "re-render this list" requests from one burst of changes.
+     */
+    public void coalesce(Object key, Runnable update) {
+        enqueue(key, update);
+    }
+
+    private void enqueue(Object key, Runnable update) {
+        boolean start;
+        synchronized (pending) {
+            // A replaced update never runs, so it leaves the queue as dropped
+            if (pending.put(key, metrics.track(update)) != null) metrics.recordDropped();
+            start = !scheduled;
+            scheduled = true;
+        }
+        if (!start) return;
+        // The timer may only be started from the FX thread
+        if (Platform.isFxApplicationThread()) pulse.start();
+        else Platform.runLater(pulse::start);
+    }
+
+    private void flush() {
+        List<Runnable> updates;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                scheduled = false;
+                pulse.stop();
+                return;
+            }
+            updates = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        // Updates queued while these run wait for the next pulse
+        for (Runnable update : updates) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
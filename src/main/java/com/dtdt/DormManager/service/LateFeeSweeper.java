@@ -0,0 +1,109 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.Repositories;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically marks past-due Pending invoices Overdue and adds the 10% late fee, for
+ * all tenants at once. Invoice rendering no longer writes anything; it shows whatever
+ * the last sweep stored.
+ */
+public class LateFeeSweeper {
+    public static final double LATE_FEE_RATE = 0.10;
+
+    private static LateFeeSweeper instance;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private ScheduledFuture<?> task;
+    private volatile Report lastReport;
+
+    private LateFeeSweeper() {}
+
+    public static synchronized LateFeeSweeper getInstance() {
+        if (instance == null) instance = new LateFeeSweeper();
+        return instance;
+    }
+
+    /**
+     * Runs a sweep now and then every {@code period}. Safe to call repeatedly. The shared
+     * timer only triggers sweeps; each one runs on the I/O pool, and a tick is skipped
+     * while the previous sweep is still going.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (task != null) return;
+        task = AppExecutors.scheduler().scheduleWithFixedDelay(() -> {
+            if (!sweeping.compareAndSet(false, true)) return;
+            try {
+                AppExecutors.io().execute(() -> {
+                    try {
+                        System.out.println(sweep(new Date()));
+                    } catch (Exception e) {
+                        // Keep the schedule alive; the next run retries
+                        e.printStackTrace();
+                    } finally {
+                        sweeping.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The I/O pool is saturated; skip this tick
+                sweeping.set(false);
+            }
+        }, 0, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (task == null) return;
+        task.cancel(false);
+        task = null;
+    }
+
+    /** The result of the most recent sweep, or null if none has finished yet. */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /** One blocking sweep; the query finds candidates and the writes re-check them. */
+    public Report sweep(Date asOf) throws Exception {
+        long started = System.nanoTime();
+        List<Invoice> due = Repositories.invoices().findPendingDueBefore(asOf).get();
+        List<String> ids = new ArrayList<>(due.size());
+        for (Invoice invoice : due) ids.add(invoice.getId());
+
+        int updated = ids.isEmpty() ? 0 : Repositories.invoices().applyLateFees(ids, LATE_FEE_RATE, asOf).get();
+        Report report = new Report(due.size(), updated, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * Counts and timing for one sweep.
+     */
+    public static final class Report {
+        private final int candidates;
+        private final int updated;
+        private final long elapsedMillis;
+
+        Report(int candidates, int updated, long elapsedMillis) {
+            this.candidates = candidates;
+            this.updated = updated;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getCandidates() { return candidates; }
+        public int getUpdated() { return updated; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Late-fee sweep: %d past-due invoices found, %d charged, %d ms",
+                    candidates, updated, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.UserRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the account for the sign-in form. The document-id, userId and email lookups are
+ * sent together, so a sign-in costs one round trip. Which document matched is remembered
+ * briefly, so a retry after a mistyped password only re-reads that one document; the
+ * account itself (and its password hash) is never cached.
+ */
+public class LoginService {
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private static LoginService instance;
+    private final Map<String, CachedMatch> cache = new ConcurrentHashMap<>();
+
+    private LoginService() {}
+
+    public static synchronized LoginService getInstance() {
+        if (instance == null) instance = new LoginService();
+        return instance;
+    }
+
+    /**
+     * Resolves to the account matching the ID (as document id, then userId) or else the
+     * email, or null. Completes on a Firestore thread.
+     */
+    public ApiFuture<User> findUser(String idInput, String emailInput) {
+        String cacheKey = idInput + "\n" + emailInput;
+        CachedMatch cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) return reread(cached, cacheKey, idInput, emailInput);
+            cache.remove(cacheKey, cached);
+        }
+        return lookUp(cacheKey, idInput, emailInput);
+    }
+
+    // A document deleted since it matched falls back to the full lookup
+    private ApiFuture<User> reread(CachedMatch cached, String cacheKey, String idInput, String emailInput) {
+        return ApiFutures.transformAsync(Repositories.users().findById(cached.documentId), user -> {
+            if (user != null) return ApiFutures.immediateFuture(user);
+            cache.remove(cacheKey, cached);
+            return lookUp(cacheKey, idInput, emailInput);
+        }, AppExecutors.cpu());
+    }
+
+    private ApiFuture<User> lookUp(String cacheKey, String idInput, String emailInput) {
+        UserRepository users = Repositories.users();
+        List<ApiFuture<User>> lookups = new ArrayList<>();
+        // Tenant documents are keyed by student ID, so this usually answers on its own
+        lookups.add(isDocumentId(idInput) ? users.findById(idInput) : ApiFutures.immediateFuture(null));
+        lookups.add(idInput.isEmpty() ? ApiFutures.immediateFuture(null) : users.findByUserId(idInput));
+        lookups.add(emailInput.isEmpty() ? ApiFutures.immediateFuture(null) : users.findByEmail(emailInput));
+
+        // A failed lookup comes back as null, so another one can still find the account
+        return ApiFutures.transformAsync(ApiFutures.successfulAsList(lookups), results -> {
+            for (User user : results) {
+                if (user != null) {
+                    if (user.getDocumentId() != null) cache.put(cacheKey, new CachedMatch(user.getDocumentId()));
+                    return ApiFutures.immediateFuture(user);
+                }
+            }
+            // Nothing matched: report a failed lookup rather than "no such account"
+            for (ApiFuture<User> lookup : lookups) lookup.get();
+            return ApiFutures.immediateFuture(null);
+        }, AppExecutors.cpu());
+    }
+
+    /** Drops cached lookups for this account, e.g. after its password changes. */
+    public void forget(User user) {
+        if (user == null) return;
+        cache.values().removeIf(cached -> Objects.equals(cached.documentId, user.getDocumentId()));
+    }
+
+    // Firestore rejects ids containing '/' and the reserved "." and ".."
+    private static boolean isDocumentId(String id) {
+        return !id.isEmpty() && !id.contains("/") && !id.equals(".") && !id.equals("..");
+    }
+
+    private static final class CachedMatch {
+        final String documentId;
+        final long expiresAt;
+
+        CachedMatch(String documentId) {
+            this.documentId = documentId;
+            this.expiresAt = System.currentTimeMillis() + CACHE_TTL_MILLIS;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dtdt.DormManager.service;
+
+import java.util.Arrays;
+
+/**
+ * A growable double[] indexed by absolute month number (year * 12 + month - 1).
+ * Adding to a month is O(1) amortized; the array only grows to cover months seen.
+ */
+final class MonthBuckets {
+    private int firstMonth;
+    private double[] values = new double[0];
+
+    void add(int month, double amount) {
+        ensureCovers(month);
+        values[month - firstMonth] += amount;
+    }
+
+    double get(int month) {
+        int offset = month - firstMonth;
+        return offset >= 0 && offset < values.length ? values[offset] : 0;
+    }
+
+    /** Sum of every bucket up to and including the given month. */
+    double sumThrough(int month) {
+        double total = 0;
+        int last = Math.min(month - firstMonth, values.length - 1);
+        for (int i = 0; i <= last; i++) total += values[i];
+        return total;
+    }
+
+    private void ensureCovers(int month) {
+        if (values.length == 0) {
+            firstMonth = month;
+            values = new double[12];
+            return;
+        }
+        if (month < firstMonth) {
+            // Grow downwards by at least a year so a run of older dates doesn't copy each time
+            int newFirst = Math.min(month, firstMonth - 12);
+            double[] grown = new double[values.length + (firstMonth - newFirst)];
+            System.arraycopy(values, 0, grown, firstMonth - newFirst, values.length);
+            values = grown;
+            firstMonth = newFirst;
+        } else if (month - firstMonth >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, month - firstMonth + 12));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.dtdt.DormManager.service;
+
+/**
+ * Offline timing for {@link Pbkdf2PasswordHasher} at several costs; needs no database.
+ * Run with {@code Main --hash-benchmark [iterations...]} and pick the highest cost whose
+ * verify time fits the sign-in latency budget, then set {@code -Ddorm.passwordIterations}.
+ */
+public final class PasswordHashBenchmark {
+
+    private static final int[] DEFAULT_COSTS = {100_000, 210_000, 310_000, 600_000};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    private PasswordHashBenchmark() {}
+
+    public static void run(int[] costs) {
+        if (costs.length == 0) costs = DEFAULT_COSTS;
+        System.out.printf("%12s %12s %12s%n", "iterations", "best ms", "avg ms");
+        for (int iterations : costs) {
+            Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(iterations);
+            String stored = hasher.hash("benchmark-password");
+            for (int i = 0; i < WARMUP_RUNS; i++) hasher.verify("benchmark-password", stored);
+
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long started = System.nanoTime();
+                hasher.verify("benchmark-password", stored);
+                long elapsed = System.nanoTime() - started;
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+            System.out.printf("%12d %12.1f %12.1f%n", iterations, best / 1e6, total / 1e6 / MEASURED_RUNS);
+        }
+    }
+}
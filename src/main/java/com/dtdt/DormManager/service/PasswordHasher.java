@@ -0,0 +1,15 @@
+package com.dtdt.DormManager.service;
+
+/**
+ * Produces and checks stored password hashes. Implementations encode their own
+ * parameters (salt, cost) in the hash string so they can be raised later.
+ */
+public interface PasswordHasher {
+
+    String hash(String password);
+
+    boolean verify(String password, String storedHash);
+
+    /** True when the stored hash uses an older scheme or a lower cost than this hasher. */
+    boolean needsRehash(String storedHash);
+}
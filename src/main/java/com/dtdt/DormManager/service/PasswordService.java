@@ -0,0 +1,78 @@
+package com.dtdt.DormManager.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs password hashing on the dedicated {@link AppExecutors#hashing()} pool. Hashing is
+ * slow on purpose, so it never runs on the JavaFX thread. Bulk approvals hash in parallel
+ * on {@link AppExecutors#bulkHashing()} so they don't hold up sign-ins.
+ * The PBKDF2 cost comes from the {@code dorm.passwordIterations} system property
+ * (see {@link PasswordHashBenchmark} for picking one).
+ */
+public class PasswordService {
+
+    private static PasswordService instance;
+    private final PasswordHasher hasher;
+
+    private PasswordService(PasswordHasher hasher) {
+        this.hasher = hasher;
+    }
+
+    public static synchronized PasswordService getInstance() {
+        if (instance == null) {
+            int iterations = Integer.getInteger("dorm.passwordIterations", Pbkdf2PasswordHasher.DEFAULT_ITERATIONS);
+            instance = new PasswordService(new Pbkdf2PasswordHasher(iterations));
+        }
+        return instance;
+    }
+
+    /** Hashes on the calling thread; for setup code that never runs on the JavaFX thread. */
+    public String hash(String password) {
+        return hasher.hash(password);
+    }
+
+    public ApiFuture<String> hashAsync(String password) {
+        return AppExecutors.supply(AppExecutors.hashing(), () -> hasher.hash(password));
+    }
+
+    /** Hashes of the passwords, in the same order. */
+    public ApiFuture<List<String>> hashAllAsync(List<String> passwords) {
+        List<ApiFuture<String>> hashes = new ArrayList<>(passwords.size());
+        for (String password : passwords) hashes.add(AppExecutors.supply(AppExecutors.bulkHashing(), () -> hasher.hash(password)));
+        return ApiFutures.allAsList(hashes);
+    }
+
+    /**
+     * Checks a password and, when it matches a legacy or lower-cost hash, also computes
+     * the replacement hash so the caller can store it.
+     */
+    public ApiFuture<Verification> verifyAsync(String password, String storedHash) {
+        return AppExecutors.supply(AppExecutors.hashing(), () -> {
+            if (!hasher.verify(password, storedHash)) return new Verification(false, null);
+            String upgradedHash = hasher.needsRehash(storedHash) ? hasher.hash(password) : null;
+            return new Verification(true, upgradedHash);
+        });
+    }
+
+    /**
+     * Result of a password check.
+     */
+    public static final class Verification {
+        private final boolean matched;
+        private final String upgradedHash;
+
+        Verification(boolean matched, String upgradedHash) {
+            this.matched = matched;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean isMatched() { return matched; }
+
+        /** New hash to store in place of the old one, or null when it is already current. */
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+}
@@ -0,0 +1,193 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.ReservationApproval;
+import com.dtdt.DormManager.repository.ReservationRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Approves reservations in bulk. Reservations are split into batches of
+ * {@link ReservationRepository#MAX_BATCH_APPROVALS}; each batch (password hashing plus
+ * one batched write) runs on the shared I/O pool, at most {@link #WORKERS} at a time, so
+ * hundreds of approvals never touch the JavaFX thread and never open more than a few writes at once.
+ */
+public class ReservationApprovalService {
+    private static final int WORKERS = 4;
+    private static final String PASSWORD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private static ReservationApprovalService instance;
+    private final Executor workers = AppExecutors.limitedIo(WORKERS);
+    private final SecureRandom random = new SecureRandom();
+
+    private ReservationApprovalService() {}
+
+    public static synchronized ReservationApprovalService getInstance() {
+        if (instance == null) instance = new ReservationApprovalService();
+        return instance;
+    }
+
+    /** Called from worker threads after each batch; processed counts approved, skipped and failed. */
+    public interface ProgressListener {
+        void onProgress(int processed, int total);
+    }
+
+    public ApiFuture<Report> approveAll(List<Reservation> reservations, ProgressListener progress) {
+        SettableApiFuture<Report> result = SettableApiFuture.create();
+        long started = System.nanoTime();
+        int total = reservations.size();
+        if (total == 0) {
+            result.set(new Report(0, Collections.emptySet(), Collections.emptyList(), 0, 0));
+            return result;
+        }
+
+        Set<String> approvedIds = ConcurrentHashMap.newKeySet();
+        List<Credential> credentials = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int batchSize = ReservationRepository.MAX_BATCH_APPROVALS;
+        AtomicInteger remainingBatches = new AtomicInteger((total + batchSize - 1) / batchSize);
+
+        for (int from = 0; from < total; from += batchSize) {
+            List<Reservation> batch = new ArrayList<>(reservations.subList(from, Math.min(from + batchSize, total)));
+            workers.execute(() -> {
+                try {
+                    approvedIds.addAll(approveBatch(batch, credentials));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failed.addAndGet(batch.size());
+                } finally {
+                    progress.onProgress(processed.addAndGet(batch.size()), total);
+                    if (remainingBatches.decrementAndGet() == 0) {
+                        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                        result.set(new Report(total, approvedIds, credentials, failed.get(), elapsedMillis));
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    private Set<String> approveBatch(List<Reservation> batch, List<Credential> credentials) throws Exception {
+        List<String> plainTextPasswords = new ArrayList<>(batch.size());
+        Map<String, String> passwords = new HashMap<>();
+        for (Reservation reservation : batch) {
+            String plainTextPassword = generateRandomPassword(8);
+            plainTextPasswords.add(plainTextPassword);
+            passwords.put(reservation.getId(), plainTextPassword);
+        }
+
+        // Salted hashes are slow, so the whole batch is hashed in parallel on the bulk hashing pool
+        List<String> hashes = PasswordService.getInstance().hashAllAsync(plainTextPasswords).get();
+        List<ReservationApproval> approvals = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Reservation reservation = batch.get(i);
+            approvals.add(new ReservationApproval(reservation.getId(), reservation.getStudentId(),
+                    tenantFields(reservation, hashes.get(i))));
+        }
+
+        Set<String> approved = Repositories.reservations().approveBatch(approvals).get();
+        for (Reservation reservation : batch) {
+            if (!approved.contains(reservation.getId())) continue;
+            credentials.add(new Credential(reservation.getFirstName() + " " + reservation.getLastName(),
+                    reservation.getStudentId(), passwords.get(reservation.getId())));
+        }
+        return approved;
+    }
+
+    private static Map<String, Object> tenantFields(Reservation reservation, String hashedPassword) {
+        Map<String, Object> tenant = new HashMap<>();
+        tenant.put("userId", reservation.getStudentId()); // Uses "userId"
+        tenant.put("roomID", null);
+        tenant.put("currentYear", reservation.getCurrentYear()); // Saves "1st Year" as a String
+        tenant.put("email", reservation.getEmail());
+        tenant.put("passwordHash", hashedPassword);
+        tenant.put("firstName", reservation.getFirstName());
+        tenant.put("lastName", reservation.getLastName());
+        tenant.put("fullName", reservation.getFirstName() + " " + reservation.getLastName());
+        tenant.put("genderType", reservation.getGender());
+        tenant.put("userType", "Tenant");
+        tenant.put("contractID", null);
+        return tenant;
+    }
+
+    private String generateRandomPassword(int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(PASSWORD_CHARS.charAt(random.nextInt(PASSWORD_CHARS.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The sign-in an approval created; the temporary password exists nowhere else, so the
+     * admin has to hand it over.
+     */
+    public static final class Credential {
+        private final String fullName;
+        private final String userId;
+        private final String temporaryPassword;
+
+        Credential(String fullName, String userId, String temporaryPassword) {
+            this.fullName = fullName;
+            this.userId = userId;
+            this.temporaryPassword = temporaryPassword;
+        }
+
+        public String getFullName() { return fullName; }
+        public String getUserId() { return userId; }
+        public String getTemporaryPassword() { return temporaryPassword; }
+    }
+
+    /**
+     * Outcome of one bulk approval.
+     */
+    public static final class Report {
+        private final int requested;
+        private final Set<String> approvedIds;
+        private final List<Credential> credentials;
+        private final int failed;
+        private final long elapsedMillis;
+
+        Report(int requested, Set<String> approvedIds, List<Credential> credentials, int failed, long elapsedMillis) {
+            this.requested = requested;
+            this.approvedIds = approvedIds;
+            this.credentials = List.copyOf(credentials);
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRequested() { return requested; }
+        public Set<String> getApprovedIds() { return approvedIds; }
+        /** One per approved reservation, in no particular order. */
+        public List<Credential> getCredentials() { return credentials; }
+        public int getApproved() { return approvedIds.size(); }
+        /** Left Pending because an account with that student id already exists. */
+        public int getSkipped() { return requested - approvedIds.size() - failed; }
+        public int getFailed() { return failed; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getApprovalsPerSecond() {
+            return elapsedMillis == 0 ? getApproved() : getApproved() * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Approved %d of %d (%d already had accounts, %d failed) in %d ms, %.0f/s",
+                    getApproved(), requested, getSkipped(), failed, elapsedMillis, getApprovalsPerSecond());
+        }
+    }
+}
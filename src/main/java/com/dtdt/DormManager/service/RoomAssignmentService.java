@@ -0,0 +1,96 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.RoomAssignment;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Assigns tenants to rooms. The room move, occupancy counters, room status, contract and
+ * tenant fields are committed together in one transaction; a full room fails the whole
+ * assignment with RoomUnavailableException instead of double-booking.
+ */
+public class RoomAssignmentService {
+    private static RoomAssignmentService instance;
+
+    private RoomAssignmentService() {}
+
+    public static synchronized RoomAssignmentService getInstance() {
+        if (instance == null) instance = new RoomAssignmentService();
+        return instance;
+    }
+
+    /**
+     * Assigns the tenant to the room. A semesterly contract ending on {@code contractEndDate}
+     * is created in the same transaction when the tenant has none yet.
+     */
+    public ApiFuture<RoomAssignment> assign(Tenant tenant, Room room, Date contractEndDate) {
+        Contract newContract = null;
+        if (tenant.getContractID() == null) {
+            if (contractEndDate == null) throw new IllegalArgumentException("A contract end date is required for a new contract.");
+            Date dateSigned = new Date();
+            newContract = new Contract();
+            newContract.setId(UUID.randomUUID().toString());
+            newContract.setTenantId(tenant.getUserId());
+            newContract.setRoomId(room.getId());
+            newContract.setContractType("Semesterly");
+            newContract.setRentAmount(room.getRate());
+            newContract.setDateSigned(dateSigned);
+            newContract.setStartDate(dateSigned);
+            newContract.setEndDate(contractEndDate);
+        }
+        ApiFuture<RoomAssignment> assignment =
+                Repositories.roomAssignments().assign(tenant.getDocumentId(), room.getId(), newContract);
+        // Both rooms' counters and the tenant's contract may have changed
+        String previousRoomId = tenant.getRoomID();
+        String contractId = newContract != null ? newContract.getId() : tenant.getContractID();
+        // Completes only once the stale reads are gone, so callers never see them again
+        return ApiFutures.transform(assignment, result -> {
+            DocumentCache documents = DocumentCache.getInstance();
+            documents.invalidateRoom(previousRoomId);
+            documents.invalidateRoom(room.getId());
+            documents.invalidateContract(contractId);
+            return result;
+        }, AppExecutors.cpu());
+    }
+
+    /**
+     * True if the room can take another tenant. {@code knownOccupants} is how many tenants
+     * the caller has seen in the room, which covers rooms whose counter hasn't been migrated
+     * yet; the assignment transaction still has the final say.
+     */
+    public static boolean hasFreeBed(Room room, int knownOccupants) {
+        return "Available".equalsIgnoreCase(room.getStatus()) && occupants(room, knownOccupants) < room.getCapacity();
+    }
+
+    /** The room's counter, or the tenants seen in it if that is higher. */
+    public static int occupants(Room room, int knownOccupants) {
+        return Math.max(room.getOccupantCount(), knownOccupants);
+    }
+
+    /**
+     * One-time backfill of occupantCount for rooms created before the counter existed.
+     * Each room is counted and written in its own transaction, which skips rooms that
+     * already have the field, so assignments running meanwhile are never overwritten.
+     * Resolves to the number of rooms written. Run it headless with {@code --migrate-occupancy}.
+     */
+    public ApiFuture<Integer> migrateOccupantCounts() {
+        return ApiFutures.transformAsync(Repositories.rooms().findAll(), rooms -> {
+            List<ApiFuture<Boolean>> migrations = new ArrayList<>();
+            for (Room room : rooms) migrations.add(Repositories.roomAssignments().migrateOccupantCount(room.getId()));
+            return ApiFutures.transform(ApiFutures.allAsList(migrations), written -> {
+                int count = 0;
+                for (Boolean migrated : written) if (migrated) count++;
+                return count;
+            }, AppExecutors.cpu());
+        }, AppExecutors.cpu());
+    }
+}
@@ -1,17 +1,44 @@
 package com.dtdt.DormManager.service;
 
 import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
+/**
+ * Process-wide room cache. Alongside the observable list it keeps secondary indexes
+ * (id, building, building+floor, status), per-building occupancy counters and facet
+ * counts for the filters, all maintained incrementally. Mutations and index reads happen on the JavaFX thread.
+ */
 public class RoomStore {
     private static RoomStore instance;
     private final ObservableList<Room> rooms = FXCollections.observableArrayList();
+    private ListenerRegistration liveSync;
+    private SettableApiFuture<Void> loaded = SettableApiFuture.create();
+
+    // id -> what the room looked like when it was indexed and where it sits in the list.
+    // Controllers mutate Room objects in place before re-adding them, so the old keys
+    // can't be read back from the room.
+    private final Map<String, IndexEntry> byId = new HashMap<>();
+    private final Map<String, Map<String, Room>> byBuilding = new HashMap<>();
+    private final Map<String, Map<String, Room>> byBuildingFloor = new HashMap<>();
+    private final Map<String, Map<String, Room>> byStatus = new HashMap<>();
+    private final Map<String, BuildingOccupancy> occupancyByBuilding = new HashMap<>();
+    private final FacetCounts facets = new FacetCounts();
+    private final Map<String, FacetCounts> facetsByBuilding = new HashMap<>();
+    private final Map<String, String> buildingNames = new HashMap<>();
 
     private RoomStore() {}
 
@@ -26,27 +53,279 @@ public class RoomStore {
 
     public void setRooms(List<Room> newRooms) {
         Platform.runLater(() -> {
-            rooms.setAll(newRooms == null ? List.of() : newRooms);
+            clearIndexes();
+            List<Room> list = newRooms == null ? List.of() : newRooms;
+            for (int i = 0; i < list.size(); i++) index(list.get(i), i);
+            rooms.setAll(list);
         });
     }
 
+    /** Adds the room, or replaces the entry with the same id if there is one. */
     public void addRoom(Room room) {
         if (room == null) return;
-        Platform.runLater(() -> rooms.add(room));
+        Platform.runLater(() -> upsert(room));
     }
 
     public void removeById(String id) {
         if (id == null) return;
-        Platform.runLater(() -> rooms.removeIf(r -> Objects.equals(r.getId(), id)));
+        Platform.runLater(() -> remove(id));
+    }
+
+    public Room getRoomById(String id) {
+        IndexEntry entry = id == null ? null : byId.get(id);
+        return entry == null ? null : entry.room;
     }
 
     public List<Room> getRoomsByBuilding(String buildingId) {
-        if (buildingId == null) return new ArrayList<>();
-        List<Room> result = new ArrayList<>();
-        for (Room r : rooms) {
-            if (Objects.equals(buildingId, r.getBuildingId())) result.add(r);
+        return copyOf(byBuilding.get(buildingId));
+    }
+
+    public List<Room> getRoomsByBuildingAndFloor(String buildingId, int floor) {
+        return copyOf(byBuildingFloor.get(floorKey(buildingId, floor)));
+    }
+
+    public List<Room> getRoomsByStatus(String status) {
+        return copyOf(byStatus.get(status));
+    }
+
+    /** Occupancy counters for a building; never null (unknown buildings report zero rooms). */
+    public BuildingOccupancy getOccupancy(String buildingId) {
+        BuildingOccupancy occupancy = occupancyByBuilding.get(buildingId);
+        return occupancy == null ? new BuildingOccupancy() : occupancy.copy();
+    }
+
+    /** Facet counts for one building, or for all rooms when buildingId is null. */
+    public FacetCounts getFacets(String buildingId) {
+        FacetCounts counts = buildingId == null ? facets : facetsByBuilding.get(buildingId);
+        return counts == null ? new FacetCounts() : counts.copy();
+    }
+
+    /** Building id -> name, as last seen on one of its rooms. */
+    public Map<String, String> getBuildingNames() {
+        return new HashMap<>(buildingNames);
+    }
+
+    /** The building's name as last seen on one of its rooms, or null. */
+    public String getBuildingName(String buildingId) {
+        return buildingId == null ? null : buildingNames.get(buildingId);
+    }
+
+    /**
+     * Starts the live sync if needed and completes (on the JavaFX thread) once the
+     * first snapshot has been applied. Completes immediately on later calls.
+     */
+    public synchronized ApiFuture<Void> whenLoaded() {
+        startLiveSync();
+        return loaded;
+    }
+
+    /**
+     * Subscribes once to the rooms collection. The first snapshot fills the store; after
+     * that only added/modified/removed documents are applied, so views that call this
+     * on every visit never re-download the collection. Safe to call repeatedly.
+     */
+    public synchronized void startLiveSync() {
+        if (liveSync != null) return;
+        if (loaded.isDone()) loaded = SettableApiFuture.create();
+        SettableApiFuture<Void> firstSnapshot = loaded;
+        liveSync = Repositories.rooms().listen(new EntityListener<>() {
+            @Override
+            public void onChanges(List<EntityChange<Room>> changes) {
+                Platform.runLater(() -> {
+                    applyChanges(changes);
+                    firstSnapshot.set(null);
+                });
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                System.err.println("Room live sync stopped: " + error.getMessage());
+                error.printStackTrace();
+                firstSnapshot.setException(error);
+                // The listener is dead after an error; allow the next view to resubscribe.
+                synchronized (RoomStore.this) {
+                    liveSync = null;
+                }
+            }
+        });
+    }
+
+    public synchronized void stopLiveSync() {
+        if (liveSync == null) return;
+        liveSync.remove();
+        liveSync = null;
+    }
+
+    public synchronized boolean isLiveSyncActive() {
+        return liveSync != null;
+    }
+
+    private void applyChanges(List<EntityChange<Room>> changes) {
+        for (EntityChange<Room> change : changes) {
+            if (change.getType() == EntityChange.Type.REMOVED) {
+                remove(change.getId());
+            } else {
+                upsert(change.getValue());
+            }
         }
-        return result;
     }
-}
 
+    private void upsert(Room room) {
+        IndexEntry previous = room.getId() == null ? null : byId.get(room.getId());
+        if (previous != null) {
+            unindex(previous);
+            index(room, previous.position);
+            rooms.set(previous.position, room);
+        } else {
+            index(room, rooms.size());
+            rooms.add(room);
+        }
+    }
+
+    // Views sort their own copy, so the last room can fill the gap instead of shifting the tail
+    private void remove(String id) {
+        IndexEntry entry = byId.get(id);
+        if (entry == null) return;
+        unindex(entry);
+        int last = rooms.size() - 1;
+        if (entry.position != last) {
+            Room moved = rooms.get(last);
+            rooms.set(entry.position, moved);
+            IndexEntry movedEntry = moved.getId() == null ? null : byId.get(moved.getId());
+            if (movedEntry != null) movedEntry.position = entry.position;
+        }
+        rooms.remove(last);
+    }
+
+    // --- Index maintenance ---
+
+    private void index(Room room, int position) {
+        if (room.getId() == null) return;
+        IndexEntry entry = new IndexEntry(room, position);
+        byId.put(entry.id, entry);
+        bucket(byBuilding, entry.buildingId).put(entry.id, room);
+        bucket(byBuildingFloor, floorKey(entry.buildingId, entry.floor)).put(entry.id, room);
+        bucket(byStatus, entry.status).put(entry.id, room);
+
+        BuildingOccupancy occupancy = occupancyByBuilding.computeIfAbsent(entry.buildingId, k -> new BuildingOccupancy());
+        occupancy.total++;
+        if (entry.occupied) occupancy.occupied++;
+
+        facets.addRoom(room);
+        if (entry.buildingId != null) {
+            facetsByBuilding.computeIfAbsent(entry.buildingId, k -> new FacetCounts()).addRoom(room);
+            if (entry.buildingName != null) buildingNames.put(entry.buildingId, entry.buildingName);
+        }
+    }
+
+    private void unindex(IndexEntry entry) {
+        byId.remove(entry.id);
+        removeFromBucket(byBuilding, entry.buildingId, entry.id);
+        removeFromBucket(byBuildingFloor, floorKey(entry.buildingId, entry.floor), entry.id);
+        removeFromBucket(byStatus, entry.status, entry.id);
+
+        BuildingOccupancy occupancy = occupancyByBuilding.get(entry.buildingId);
+        if (occupancy != null) {
+            occupancy.total--;
+            if (entry.occupied) occupancy.occupied--;
+            if (occupancy.total <= 0) occupancyByBuilding.remove(entry.buildingId);
+        }
+
+        removeFacets(facets, entry);
+        FacetCounts buildingFacets = facetsByBuilding.get(entry.buildingId);
+        if (buildingFacets != null) {
+            removeFacets(buildingFacets, entry);
+            if (buildingFacets.isEmpty()) {
+                facetsByBuilding.remove(entry.buildingId);
+                buildingNames.remove(entry.buildingId);
+            }
+        }
+    }
+
+    // Uses the indexed snapshot, since the room itself may already have been edited
+    private static void removeFacets(FacetCounts counts, IndexEntry entry) {
+        counts.remove(FacetCounts.BUILDING_ID, entry.buildingId);
+        counts.remove(FacetCounts.BUILDING, entry.buildingName);
+        counts.remove(FacetCounts.FLOOR, String.valueOf(entry.floor));
+        counts.remove(FacetCounts.TYPE, entry.roomType);
+        counts.remove(FacetCounts.STATUS, entry.status);
+    }
+
+    private void clearIndexes() {
+        byId.clear();
+        byBuilding.clear();
+        byBuildingFloor.clear();
+        byStatus.clear();
+        occupancyByBuilding.clear();
+        facets.clear();
+        facetsByBuilding.clear();
+        buildingNames.clear();
+    }
+
+    private static Map<String, Room> bucket(Map<String, Map<String, Room>> index, String key) {
+        return index.computeIfAbsent(key, k -> new LinkedHashMap<>());
+    }
+
+    private static void removeFromBucket(Map<String, Map<String, Room>> index, String key, String id) {
+        Map<String, Room> bucket = index.get(key);
+        if (bucket == null) return;
+        bucket.remove(id);
+        if (bucket.isEmpty()) index.remove(key);
+    }
+
+    private static List<Room> copyOf(Map<String, Room> bucket) {
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    private static String floorKey(String buildingId, int floor) {
+        return buildingId + "#" + floor;
+    }
+
+    private static final class IndexEntry {
+        final Room room;
+        final String id;
+        final String buildingId;
+        final String buildingName;
+        final int floor;
+        final String roomType;
+        final String status;
+        final boolean occupied;
+        int position;
+
+        IndexEntry(Room room, int position) {
+            this.room = room;
+            this.position = position;
+            this.id = room.getId();
+            this.buildingId = room.getBuildingId();
+            this.buildingName = room.getBuildingName();
+            this.floor = room.getFloor();
+            this.roomType = room.getRoomType();
+            this.status = room.getStatus();
+            this.occupied = "Occupied".equalsIgnoreCase(room.getStatus());
+        }
+    }
+
+    /**
+     * Room counts for one building.
+     */
+    public static final class BuildingOccupancy {
+        private int total;
+        private int occupied;
+
+        public int getTotal() { return total; }
+        public int getOccupied() { return occupied; }
+        public int getAvailable() { return total - occupied; }
+
+        /** Whole-number percentage, matching how the buildings view displays it. */
+        public int getOccupancyPercent() {
+            return total == 0 ? 0 : (occupied * 100) / total;
+        }
+
+        private BuildingOccupancy copy() {
+            BuildingOccupancy copy = new BuildingOccupancy();
+            copy.total = total;
+            copy.occupied = occupied;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard statistics. The repositories keep the stats documents up to date inside
+ * the same transaction as each counted write, so the dashboard reads one document.
+ * Until a rebuild has marked stats/summary as initialized (first run, or data imported
+ * from outside the app) it is rebuilt from count/sum aggregations and the rooms and
+ * tenants; increments landing before that only create partial, uninitialized documents.
+ * The recount is only committed if no counted write landed while it ran, so concurrent
+ * clients cannot overwrite each other's increments.
+ */
+public class StatsService {
+    private static final int REBUILD_ATTEMPTS = 5;
+
+    private static StatsService instance;
+
+    private StatsService() {}
+
+    public static synchronized StatsService getInstance() {
+        if (instance == null) instance = new StatsService();
+        return instance;
+    }
+
+    /** Reads stats/summary, rebuilding the stats documents first if it was never initialized. */
+    public ApiFuture<DashboardStats> loadDashboardStats() {
+        return ApiFutures.transform(loadSummary(), DashboardStats::from, AppExecutors.cpu());
+    }
+
+    public ApiFuture<StatsSummary> loadSummary() {
+        return loadSummary(REBUILD_ATTEMPTS);
+    }
+
+    private ApiFuture<StatsSummary> loadSummary(int attemptsLeft) {
+        ApiFuture<StatsSummary> summary = Repositories.stats().findSummary();
+        return ApiFutures.transformAsync(summary,
+                found -> found != null && found.isInitialized() ? ApiFutures.immediateFuture(found) : rebuild(found, attemptsLeft),
+                AppExecutors.cpu());
+    }
+
+    /**
+     * The stats document for one building, or null if it has none yet. Goes through
+     * {@link #loadSummary()} first so building documents are never read before a rebuild.
+     */
+    public ApiFuture<StatsSummary> loadBuildingStats(String buildingId) {
+        return ApiFutures.transformAsync(loadSummary(),
+                summary -> Repositories.stats().findByBuilding(buildingId), AppExecutors.cpu());
+    }
+
+    /**
+     * Recomputes every stats document from the source collections and stores them if the
+     * summary is still uninitialized at {@code before}'s revision; otherwise reads it again.
+     * This is the only path that reads whole collections, so it should run rarely.
+     */
+    private ApiFuture<StatsSummary> rebuild(StatsSummary before, int attemptsLeft) {
+        long revision = before == null ? 0 : before.getRevision();
+        ApiFuture<List<Room>> rooms = Repositories.rooms().findAll();
+        ApiFuture<List<Tenant>> tenants = Repositories.tenants().findAll();
+        ApiFuture<Long> pending = Repositories.maintenance().countByStatus("Pending");
+        ApiFuture<Double> revenue = Repositories.invoices().sumTotalAmountByStatus("Paid");
+
+        ApiFuture<List<Object>> all = ApiFutures.allAsList(List.of(rooms, tenants, pending, revenue));
+        return ApiFutures.transformAsync(all, values -> {
+            StatsSummary summary = new StatsSummary();
+            summary.setInitialized(true);
+            summary.setRevision(revision);
+            Map<String, StatsSummary> buildings = new LinkedHashMap<>();
+            Map<String, String> buildingByRoom = new HashMap<>();
+
+            for (Room room : rooms.get()) {
+                boolean occupied = "Occupied".equalsIgnoreCase(room.getStatus());
+                buildingByRoom.put(room.getId(), room.getBuildingId());
+                addRoom(summary, room.getCapacity(), occupied);
+                if (room.getBuildingId() != null) {
+                    addRoom(buildings.computeIfAbsent(room.getBuildingId(), k -> initialized()), room.getCapacity(), occupied);
+                }
+            }
+            for (Tenant tenant : tenants.get()) {
+                summary.setTotalResidents(summary.getTotalResidents() + 1);
+                String buildingId = tenant.getRoomID() == null ? null : buildingByRoom.get(tenant.getRoomID());
+                if (buildingId != null) {
+                    StatsSummary building = buildings.computeIfAbsent(buildingId, k -> initialized());
+                    building.setTotalResidents(building.getTotalResidents() + 1);
+                }
+            }
+            summary.setPendingMaintenance(pending.get());
+            summary.setPaidRevenue(revenue.get());
+
+            ApiFuture<StatsSummary> stored = Repositories.stats().initialize(summary, buildings, revision);
+            return ApiFutures.transformAsync(stored, result -> {
+                if (result != null) return ApiFutures.immediateFuture(result);
+                if (attemptsLeft > 1) return loadSummary(attemptsLeft - 1);
+                return ApiFutures.immediateFailedFuture(new IllegalStateException("Stats kept changing during the rebuild"));
+            }, AppExecutors.cpu());
+        }, AppExecutors.cpu());
+    }
+
+    private static StatsSummary initialized() {
+        StatsSummary stats = new StatsSummary();
+        stats.setInitialized(true);
+        return stats;
+    }
+
+    private static void addRoom(StatsSummary stats, int capacity, boolean occupied) {
+        stats.setTotalRooms(stats.getTotalRooms() + 1);
+        stats.setTotalCapacity(stats.getTotalCapacity() + capacity);
+        if (occupied) stats.setOccupiedRooms(stats.getOccupiedRooms() + 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Announcement;
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.MaintenanceRequest;
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+
+import java.util.List;
+
+/**
+ * Everything the tenant dashboard shows below its header, loaded in one go so the
+ * screen is filled in a single FX pulse. A read that fails leaves its section empty
+ * instead of failing the whole dashboard.
+ */
+public final class TenantDashboardData {
+    public static final int ANNOUNCEMENT_LIMIT = 5;
+
+    private final Room room;
+    private final Contract contract;
+    private final List<Announcement> announcements;
+    private final List<MaintenanceRequest> maintenanceRequests;
+
+    private TenantDashboardData(Room room, Contract contract, List<Announcement> announcements,
+                                List<MaintenanceRequest> maintenanceRequests) {
+        this.room = room;
+        this.contract = contract;
+        this.announcements = announcements;
+        this.maintenanceRequests = maintenanceRequests;
+    }
+
+    /** Issues the room, contract, announcement and maintenance reads together. */
+    public static ApiFuture<TenantDashboardData> load(Tenant tenant) {
+        DocumentCache documents = DocumentCache.getInstance();
+        ApiFuture<Room> room = tenant.getRoomID() == null
+                ? ApiFutures.immediateFuture(null) : documents.room(tenant.getRoomID());
+        ApiFuture<Contract> contract = tenant.getContractID() == null
+                ? ApiFutures.immediateFuture(null) : documents.contract(tenant.getContractID());
+        ApiFuture<List<Announcement>> announcements = Repositories.announcements().findRecent(ANNOUNCEMENT_LIMIT);
+        ApiFuture<List<MaintenanceRequest>> maintenance = Repositories.maintenance().findByTenant(tenant.getUserId());
+
+        // Failed reads come back as null
+        ApiFuture<List<Object>> all = ApiFutures.successfulAsList(List.of(room, contract, announcements, maintenance));
+        return ApiFutures.transform(all, results -> new TenantDashboardData(
+                (Room) results.get(0),
+                (Contract) results.get(1),
+                copyOf(results.get(2)),
+                copyOf(results.get(3))), AppExecutors.cpu());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> copyOf(Object list) {
+        return list == null ? List.of() : List.copyOf((List<T>) list);
+    }
+
+    /** Null when the tenant has no room or it could not be read. */
+    public Room getRoom() { return room; }
+
+    /** Null when the tenant has no contract or it could not be read. */
+    public Contract getContract() { return contract; }
+
+    public List<Announcement> getAnnouncements() { return announcements; }
+    public List<MaintenanceRequest> getMaintenanceRequests() { return maintenanceRequests; }
+}
@@ -0,0 +1,169 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Tenant;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Prefix index over tenant names, user ids and emails. Tokens are lowercased with accents
+ * stripped and kept in a sorted map, so each query word is one range lookup instead of a
+ * scan over every tenant. Not thread-safe; {@link TenantStore} updates it on the JavaFX thread.
+ */
+public final class TenantSearchIndex {
+
+    // Documents are numbered so a query can union/intersect postings as bit sets
+    private final Map<String, Integer> slotByDocument = new HashMap<>();
+    private final List<String> documentBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // token -> slots of the tenants that have it
+    private final NavigableMap<String, IntList> postings = new TreeMap<>();
+    private final Map<String, List<String>> tokensByDocument = new HashMap<>();
+
+    // Ranges for words of up to three letters span thousands of tokens, so those words are
+    // answered from a bit set per short prefix instead
+    private static final int SHORT_PREFIX_LENGTH = 3;
+    private final Map<String, BitSet> shortPrefixes = new HashMap<>();
+
+    public void put(Tenant tenant) {
+        String documentId = tenant.getDocumentId();
+        remove(documentId);
+        int slot = freeSlots.isEmpty() ? documentBySlot.size() : freeSlots.pop();
+        if (slot == documentBySlot.size()) documentBySlot.add(documentId);
+        else documentBySlot.set(slot, documentId);
+        slotByDocument.put(documentId, slot);
+
+        List<String> tokens = tokensOf(tenant);
+        tokensByDocument.put(documentId, tokens);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, k -> new IntList()).add(slot);
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, token.length()); length++) {
+                shortPrefixes.computeIfAbsent(token.substring(0, length), k -> new BitSet()).set(slot);
+            }
+        }
+    }
+
+    public void remove(String documentId) {
+        Integer slot = slotByDocument.remove(documentId);
+        if (slot == null) return;
+        for (String token : tokensByDocument.remove(documentId)) {
+            IntList slots = postings.get(token);
+            if (slots == null) continue;
+            slots.remove(slot);
+            if (slots.isEmpty()) postings.remove(token);
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, token.length()); length++) {
+                String prefix = token.substring(0, length);
+                BitSet bits = shortPrefixes.get(prefix);
+                if (bits == null) continue;
+                bits.clear(slot);
+                if (bits.isEmpty()) shortPrefixes.remove(prefix);
+            }
+        }
+        documentBySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Document ids of tenants with a token starting with every word of the query
+     * ("jo sm" finds John Smith), in indexing order. An empty query matches nothing.
+     */
+    public List<String> search(String query) {
+        List<String> result = new ArrayList<>();
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) return result;
+
+        BitSet matches = null;
+        for (String word : normalized.split("\\s+")) {
+            BitSet wordMatches = matchesFor(word);
+            if (matches == null) matches = (BitSet) wordMatches.clone();
+            else matches.and(wordMatches);
+            if (matches.isEmpty()) return result;
+        }
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            result.add(documentBySlot.get(slot));
+        }
+        return result;
+    }
+
+    /** Shared bit set for short words; callers must not modify it. */
+    private BitSet matchesFor(String word) {
+        if (word.length() <= SHORT_PREFIX_LENGTH) {
+            BitSet bits = shortPrefixes.get(word);
+            return bits == null ? new BitSet() : bits;
+        }
+        BitSet bits = new BitSet(documentBySlot.size());
+        for (IntList slots : postings.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+            slots.addTo(bits);
+        }
+        return bits;
+    }
+
+    /**
+     * Whole fields (so "john.sm" matches an email) plus their alphanumeric parts.
+     */
+    static List<String> tokensOf(Tenant tenant) {
+        Set<String> tokens = new HashSet<>();
+        addTokens(tokens, tenant.getFirstName());
+        addTokens(tokens, tenant.getLastName());
+        addTokens(tokens, tenant.getUserId());
+        addTokens(tokens, tenant.getEmail());
+        return new ArrayList<>(tokens);
+    }
+
+    private static void addTokens(Set<String> tokens, String field) {
+        if (field == null) return;
+        String normalized = normalize(field).trim();
+        if (normalized.isEmpty()) return;
+        tokens.add(normalized);
+        for (String part : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!part.isEmpty()) tokens.add(part);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    /** Unordered growable int array; posting lists are mostly tiny. */
+    private static final class IntList {
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) bits.set(values[i]);
+        }
+    }
+}
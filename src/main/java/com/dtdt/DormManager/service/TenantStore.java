@@ -0,0 +1,211 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.firestore.ListenerRegistration;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of tenant accounts (users with userType "Tenant"), shared by the
+ * admin views so the tenants query runs once per session. Kept fresh by a snapshot
+ * listener and indexed by document id, userId, roomID and search prefix. Reads happen on the
+ * JavaFX thread.
+ */
+public class TenantStore {
+    private static TenantStore instance;
+    private final ObservableList<Tenant> tenants = FXCollections.observableArrayList();
+    private ListenerRegistration liveSync;
+    private SettableApiFuture<Void> loaded = SettableApiFuture.create();
+
+    // document id -> the keys the tenant was indexed under (tenants are edited in place)
+    private final Map<String, IndexEntry> byDocumentId = new HashMap<>();
+    private final Map<String, Tenant> byUserId = new HashMap<>();
+    private final Map<String, Map<String, Tenant>> byRoomId = new HashMap<>();
+    private final TenantSearchIndex searchIndex = new TenantSearchIndex();
+
+    private TenantStore() {}
+
+    public static synchronized TenantStore getInstance() {
+        if (instance == null) instance = new TenantStore();
+        return instance;
+    }
+
+    public ObservableList<Tenant> getTenants() {
+        return tenants;
+    }
+
+    /**
+     * Starts the live sync if needed and completes (on the JavaFX thread) once the
+     * first snapshot has been applied. Completes immediately on later calls.
+     */
+    public synchronized ApiFuture<Void> whenLoaded() {
+        startLiveSync();
+        return loaded;
+    }
+
+    public synchronized void startLiveSync() {
+        if (liveSync != null) return;
+        if (loaded.isDone()) loaded = SettableApiFuture.create();
+        SettableApiFuture<Void> firstSnapshot = loaded;
+        liveSync = Repositories.tenants().listen(new EntityListener<>() {
+            @Override
+            public void onChanges(List<EntityChange<Tenant>> changes) {
+                Platform.runLater(() -> {
+                    applyChanges(changes);
+                    firstSnapshot.set(null);
+                });
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                System.err.println("Tenant live sync stopped: " + error.getMessage());
+                error.printStackTrace();
+                firstSnapshot.setException(error);
+                synchronized (TenantStore.this) {
+                    liveSync = null;
+                }
+            }
+        });
+    }
+
+    public synchronized void stopLiveSync() {
+        if (liveSync == null) return;
+        liveSync.remove();
+        liveSync = null;
+    }
+
+    /**
+     * Re-indexes a tenant after a local edit (e.g. a new roomID) without waiting for the
+     * snapshot listener. Applied immediately when called on the JavaFX thread.
+     */
+    public void putTenant(Tenant tenant) {
+        if (tenant == null || tenant.getDocumentId() == null) return;
+        runOnFxThread(() -> upsert(tenant));
+    }
+
+    public void removeByDocumentId(String documentId) {
+        if (documentId == null) return;
+        runOnFxThread(() -> remove(documentId));
+    }
+
+    public Tenant getByDocumentId(String documentId) {
+        IndexEntry entry = documentId == null ? null : byDocumentId.get(documentId);
+        return entry == null ? null : entry.tenant;
+    }
+
+    public Tenant getByUserId(String userId) {
+        return userId == null ? null : byUserId.get(userId);
+    }
+
+    public List<Tenant> getTenantsInRoom(String roomId) {
+        Map<String, Tenant> bucket = roomId == null ? null : byRoomId.get(roomId);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    public int countInRoom(String roomId) {
+        Map<String, Tenant> bucket = roomId == null ? null : byRoomId.get(roomId);
+        return bucket == null ? 0 : bucket.size();
+    }
+
+    /** Document ids of tenants matching every word of the query by prefix of name, userId or email. */
+    public Set<String> searchDocumentIds(String query) {
+        return new HashSet<>(searchIndex.search(query));
+    }
+
+    private void applyChanges(List<EntityChange<Tenant>> changes) {
+        for (EntityChange<Tenant> change : changes) {
+            if (change.getType() == EntityChange.Type.REMOVED) {
+                remove(change.getId());
+            } else {
+                Tenant tenant = change.getValue();
+                if (tenant.getDocumentId() == null) tenant.setDocumentId(change.getId());
+                upsert(tenant);
+            }
+        }
+    }
+
+    private void upsert(Tenant tenant) {
+        IndexEntry previous = byDocumentId.get(tenant.getDocumentId());
+        if (previous != null) {
+            unindex(previous);
+            index(tenant, previous.position);
+            tenants.set(previous.position, tenant);
+        } else {
+            index(tenant, tenants.size());
+            tenants.add(tenant);
+        }
+    }
+
+    // Swap-remove: the last tenant fills the gap, so no scan or shift of the list
+    private void remove(String documentId) {
+        IndexEntry entry = byDocumentId.get(documentId);
+        if (entry == null) return;
+        unindex(entry);
+        int last = tenants.size() - 1;
+        if (entry.position != last) {
+            Tenant moved = tenants.get(last);
+            tenants.set(entry.position, moved);
+            byDocumentId.get(moved.getDocumentId()).position = entry.position;
+        }
+        tenants.remove(last);
+    }
+
+    private void index(Tenant tenant, int position) {
+        IndexEntry entry = new IndexEntry(tenant, position);
+        byDocumentId.put(entry.documentId, entry);
+        searchIndex.put(tenant);
+        if (entry.userId != null) byUserId.put(entry.userId, tenant);
+        if (entry.roomId != null) {
+            byRoomId.computeIfAbsent(entry.roomId, k -> new LinkedHashMap<>()).put(entry.documentId, tenant);
+        }
+    }
+
+    private void unindex(IndexEntry entry) {
+        byDocumentId.remove(entry.documentId);
+        searchIndex.remove(entry.documentId);
+        if (entry.userId != null) byUserId.remove(entry.userId, entry.tenant);
+        if (entry.roomId != null) {
+            Map<String, Tenant> bucket = byRoomId.get(entry.roomId);
+            if (bucket != null) {
+                bucket.remove(entry.documentId);
+                if (bucket.isEmpty()) byRoomId.remove(entry.roomId);
+            }
+        }
+    }
+
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) action.run();
+        else Platform.runLater(action);
+    }
+
+    private static final class IndexEntry {
+        final Tenant tenant;
+        final String documentId;
+        final String userId;
+        final String roomId;
+        // Where the tenant sits in the observable list
+        int position;
+
+        IndexEntry(Tenant tenant, int position) {
+            this.tenant = tenant;
+            this.position = position;
+            this.documentId = tenant.getDocumentId();
+            this.userId = tenant.getUserId();
+            this.roomId = tenant.getRoomID();
+        }
+    }
+}
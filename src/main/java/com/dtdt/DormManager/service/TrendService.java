@@ -0,0 +1,195 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.EntityChange;
+import com.dtdt.DormManager.repository.EntityListener;
+import com.dtdt.DormManager.repository.Repositories;
+import com.google.cloud.firestore.ListenerRegistration;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly occupancy and revenue series, kept in month buckets that are updated per
+ * document change. Contracts add +1 at their start month and -1 after their end month,
+ * so an active-contract count is a running sum; paid invoices add their total to the
+ * month they were paid. A payment therefore touches one bucket and a contract two,
+ * instead of rescanning the history. Only paid invoices are listened to, since nothing
+ * else moves revenue. Changes are applied on the JavaFX thread.
+ */
+public class TrendService {
+    private static TrendService instance;
+
+    private final MonthBuckets contractChanges = new MonthBuckets();
+    private final MonthBuckets revenue = new MonthBuckets();
+    // What each document currently contributes, so an edit can be backed out exactly
+    private final Map<String, ContractSpan> contractSpans = new HashMap<>();
+    private final Map<String, Payment> payments = new HashMap<>();
+    private final ReadOnlyLongWrapper revision = new ReadOnlyLongWrapper();
+
+    private ListenerRegistration contractSync;
+    private ListenerRegistration invoiceSync;
+
+    private TrendService() {}
+
+    public static synchronized TrendService getInstance() {
+        if (instance == null) instance = new TrendService();
+        return instance;
+    }
+
+    /** Bumped on the JavaFX thread after each batch of changes has been applied. */
+    public ReadOnlyLongProperty revisionProperty() {
+        return revision.getReadOnlyProperty();
+    }
+
+    public synchronized void startLiveSync() {
+        if (contractSync == null) {
+            contractSync = Repositories.contracts().listen(new EntityListener<>() {
+                @Override
+                public void onChanges(List<EntityChange<Contract>> changes) {
+                    Platform.runLater(() -> applyContractChanges(changes));
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    System.err.println("Contract trend sync stopped: " + error.getMessage());
+                    error.printStackTrace();
+                    synchronized (TrendService.this) {
+                        contractSync = null;
+                    }
+                }
+            });
+        }
+        if (invoiceSync == null) {
+            invoiceSync = Repositories.invoices().listenByStatus("Paid", new EntityListener<>() {
+                @Override
+                public void onChanges(List<EntityChange<Invoice>> changes) {
+                    Platform.runLater(() -> applyInvoiceChanges(changes));
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    System.err.println("Invoice trend sync stopped: " + error.getMessage());
+                    error.printStackTrace();
+                    synchronized (TrendService.this) {
+                        invoiceSync = null;
+                    }
+                }
+            });
+        }
+    }
+
+    public synchronized void stopLiveSync() {
+        if (contractSync != null) contractSync.remove();
+        if (invoiceSync != null) invoiceSync.remove();
+        contractSync = null;
+        invoiceSync = null;
+    }
+
+    /** Number of contracts active in each of {@code count} months starting at {@code fromMonth}. */
+    public long[] getActiveContracts(int fromMonth, int count) {
+        long[] result = new long[count];
+        double running = contractChanges.sumThrough(fromMonth - 1);
+        for (int i = 0; i < count; i++) {
+            running += contractChanges.get(fromMonth + i);
+            result[i] = Math.round(running);
+        }
+        return result;
+    }
+
+    /** Revenue from invoices paid in each of {@code count} months starting at {@code fromMonth}. */
+    public double[] getRevenue(int fromMonth, int count) {
+        double[] result = new double[count];
+        for (int i = 0; i < count; i++) result[i] = revenue.get(fromMonth + i);
+        return result;
+    }
+
+    public static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    public static YearMonth toYearMonth(int monthIndex) {
+        return YearMonth.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1);
+    }
+
+    private static int monthIndex(Date date) {
+        return monthIndex(YearMonth.from(date.toInstant().atZone(ZoneId.systemDefault())));
+    }
+
+    private void applyContractChanges(List<EntityChange<Contract>> changes) {
+        for (EntityChange<Contract> change : changes) {
+            ContractSpan previous = contractSpans.remove(change.getId());
+            if (previous != null) addSpan(previous, -1);
+            if (change.getType() == EntityChange.Type.REMOVED) continue;
+
+            ContractSpan span = ContractSpan.of(change.getValue());
+            if (span != null) {
+                contractSpans.put(change.getId(), span);
+                addSpan(span, 1);
+            }
+        }
+        revision.set(revision.get() + 1);
+    }
+
+    private void applyInvoiceChanges(List<EntityChange<Invoice>> changes) {
+        for (EntityChange<Invoice> change : changes) {
+            Payment previous = payments.remove(change.getId());
+            if (previous != null) revenue.add(previous.month, -previous.amount);
+            if (change.getType() == EntityChange.Type.REMOVED) continue;
+
+            Payment payment = Payment.of(change.getValue());
+            if (payment != null) {
+                payments.put(change.getId(), payment);
+                revenue.add(payment.month, payment.amount);
+            }
+        }
+        revision.set(revision.get() + 1);
+    }
+
+    private void addSpan(ContractSpan span, int sign) {
+        contractChanges.add(span.startMonth, sign);
+        if (span.endMonth != ContractSpan.OPEN_ENDED) contractChanges.add(span.endMonth + 1, -sign);
+    }
+
+    /** Months a contract is active, inclusive; contracts without an end date stay active. */
+    private static final class ContractSpan {
+        static final int OPEN_ENDED = Integer.MAX_VALUE;
+        final int startMonth;
+        final int endMonth;
+
+        private ContractSpan(int startMonth, int endMonth) {
+            this.startMonth = startMonth;
+            this.endMonth = endMonth;
+        }
+
+        static ContractSpan of(Contract contract) {
+            if (contract == null || contract.getStartDate() == null) return null;
+            int start = monthIndex(contract.getStartDate());
+            int end = contract.getEndDate() == null ? OPEN_ENDED : monthIndex(contract.getEndDate());
+            return end < start ? null : new ContractSpan(start, end);
+        }
+    }
+
+    private static final class Payment {
+        final int month;
+        final double amount;
+
+        private Payment(int month, double amount) {
+            this.month = month;
+            this.amount = amount;
+        }
+
+        static Payment of(Invoice invoice) {
+            if (invoice == null || !"Paid".equals(invoice.getStatus()) || invoice.getDatePaid() == null) return null;
+            return new Payment(monthIndex(invoice.getDatePaid()), invoice.getTotalAmount());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.dtdt.DormManager;
+
+import com.dtdt.DormManager.model.Contract;
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.model.Room;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Model objects shared by the tests. Each factory sets only what the tests rely on.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /** An Available double room in building "b1". */
+    public static Room room(String id, int capacity) {
+        return room(id, "b1", capacity);
+    }
+
+    public static Room room(String id, String buildingId, int capacity) {
+        Room room = new Room();
+        room.setId(id);
+        room.setRoomNumber(id);
+        room.setBuildingId(buildingId);
+        room.setBuildingName("Building " + buildingId);
+        room.setRoomType("Double");
+        room.setCapacity(capacity);
+        room.setStatus("Available");
+        return room;
+    }
+
+    /** Fields of a tenant document without a room. */
+    public static Map<String, Object> tenantFields(String userId) {
+        return tenantFields(userId, null);
+    }
+
+    public static Map<String, Object> tenantFields(String userId, String roomId) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("userId", userId);
+        fields.put("userType", "Tenant");
+        fields.put("fullName", "Tenant " + userId);
+        if (roomId != null) fields.put("roomID", roomId);
+        return fields;
+    }
+
+    public static Invoice invoice(String id, String status, double totalAmount) {
+        Invoice invoice = new Invoice();
+        invoice.setId(id);
+        invoice.setStatus(status);
+        invoice.setRentAmount(totalAmount);
+        invoice.setTotalAmount(totalAmount);
+        return invoice;
+    }
+
+    /** A 500-a-month invoice for tenant "t1". */
+    public static Invoice invoice(String id, String contractId, String monthYear, String status) {
+        Invoice invoice = invoice(id, status, 500);
+        invoice.setTenantId("t1");
+        invoice.setContractId(contractId);
+        invoice.setMonthYear(monthYear);
+        return invoice;
+    }
+
+    /** A 500-a-month contract for tenant "t1". */
+    public static Contract monthlyContract(String id, Date start, Date end) {
+        Contract contract = new Contract();
+        contract.setId(id);
+        contract.setTenantId("t1");
+        contract.setContractType("Monthly");
+        contract.setRentAmount(500);
+        contract.setStartDate(start);
+        contract.setEndDate(end);
+        return contract;
+    }
+
+    /** Midnight local time; {@code month} is a {@link Calendar} constant. */
+    public static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day);
+        return calendar.getTime();
+    }
+}
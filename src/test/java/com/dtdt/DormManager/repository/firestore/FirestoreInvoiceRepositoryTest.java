@@ -0,0 +1,48 @@
+package com.dtdt.DormManager.repository.firestore;
+
+import com.dtdt.DormManager.model.Invoice;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.dtdt.DormManager.Fixtures.invoice;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FirestoreInvoiceRepositoryTest {
+
+    @Test
+    void chunksNeverSplitAContractsSchedule() {
+        List<Invoice> invoices = new ArrayList<>();
+        invoices.addAll(schedule("c1", 3));
+        invoices.addAll(schedule("c2", 3));
+        invoices.addAll(schedule("c3", 2));
+
+        List<List<Invoice>> chunks = FirestoreInvoiceRepository.chunkByContract(invoices, 5);
+
+        assertEquals(2, chunks.size());
+        assertEquals(List.of("c1_0", "c1_1", "c1_2"), ids(chunks.get(0)));
+        assertEquals(List.of("c2_0", "c2_1", "c2_2", "c3_0", "c3_1"), ids(chunks.get(1)));
+    }
+
+    @Test
+    void onlyAScheduleLongerThanTheLimitIsSplit() {
+        List<List<Invoice>> chunks = FirestoreInvoiceRepository.chunkByContract(schedule("c1", 7), 5);
+
+        assertEquals(2, chunks.size());
+        assertEquals(5, chunks.get(0).size());
+        assertEquals(2, chunks.get(1).size());
+    }
+
+    private static List<Invoice> schedule(String contractId, int months) {
+        List<Invoice> schedule = new ArrayList<>();
+        for (int i = 0; i < months; i++) schedule.add(invoice(contractId + "_" + i, contractId, "Month " + i, "Pending"));
+        return schedule;
+    }
+
+    private static List<String> ids(List<Invoice> chunk) {
+        List<String> ids = new ArrayList<>();
+        for (Invoice invoice : chunk) ids.add(invoice.getId());
+        return ids;
+    }
+}
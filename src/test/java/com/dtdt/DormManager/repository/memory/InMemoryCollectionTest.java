@@ -0,0 +1,82 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.repository.EntityChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.dtdt.DormManager.Fixtures.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class InMemoryCollectionTest {
+
+    private final InMemoryCollection<Room> rooms = new InMemoryCollection<>();
+
+    @Test
+    void changingAReturnedObjectDoesNotChangeTheStore() {
+        rooms.put("r1", room("r1", 2));
+
+        Room read = rooms.get("r1");
+        read.setCapacity(9);
+        rooms.findAll().get(0).setCapacity(9);
+        rooms.findWhere(room -> true).get(0).setCapacity(9);
+
+        assertEquals(2, rooms.get("r1").getCapacity());
+        assertNotSame(rooms.get("r1"), rooms.get("r1"));
+    }
+
+    @Test
+    void changingAnObjectAfterPutDoesNotChangeTheStore() {
+        Room room = room("r1", 2);
+        rooms.put("r1", room);
+        room.setCapacity(9);
+
+        assertEquals(2, rooms.get("r1").getCapacity());
+    }
+
+    @Test
+    void updateDoesNotTouchPreviouslyReturnedObjects() {
+        rooms.put("r1", room("r1", 2));
+        Room before = rooms.get("r1");
+
+        rooms.update("r1", Map.of("capacity", 4));
+
+        assertEquals(2, before.getCapacity());
+        assertEquals(4, rooms.get("r1").getCapacity());
+    }
+
+    @Test
+    void listenersReceiveTheirOwnCopies() {
+        List<EntityChange<Room>> first = new ArrayList<>();
+        List<EntityChange<Room>> second = new ArrayList<>();
+        rooms.listen(first::addAll);
+        rooms.listen(second::addAll);
+
+        rooms.put("r1", room("r1", 2));
+        first.get(0).getValue().setCapacity(9);
+
+        assertEquals(2, second.get(0).getValue().getCapacity());
+        assertEquals(2, rooms.get("r1").getCapacity());
+    }
+
+    @Test
+    void filteredListenerSeesDocumentsEnterAndLeaveTheQuery() {
+        List<EntityChange<Room>> changes = new ArrayList<>();
+        rooms.put("r1", room("r1", 2));
+        rooms.listenWhere(room -> room.getCapacity() > 2, changes::addAll);
+
+        rooms.update("r1", Map.of("capacity", 4));
+        rooms.update("r1", Map.of("capacity", 5));
+        rooms.update("r1", Map.of("capacity", 1));
+        rooms.put("r2", room("r2", 1));
+
+        assertEquals(3, changes.size());
+        assertEquals(EntityChange.Type.ADDED, changes.get(0).getType());
+        assertEquals(EntityChange.Type.MODIFIED, changes.get(1).getType());
+        assertEquals(EntityChange.Type.REMOVED, changes.get(2).getType());
+    }
+}
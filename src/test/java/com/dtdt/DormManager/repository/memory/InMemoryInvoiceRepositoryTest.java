@@ -0,0 +1,27 @@
+package com.dtdt.DormManager.repository.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.dtdt.DormManager.Fixtures.invoice;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryInvoiceRepositoryTest {
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+    private final InMemoryInvoiceRepository invoices = new InMemoryInvoiceRepository(database);
+    private final InMemoryStatsRepository stats = new InMemoryStatsRepository(database);
+
+    @Test
+    void saveAllLeavesExistingInvoicesAlone() throws Exception {
+        invoices.save(invoice("i1", "Paid", 500));
+
+        int created = invoices.saveAll(List.of(invoice("i1", "Pending", 700), invoice("i2", "Pending", 700))).get();
+
+        assertEquals(1, created);
+        assertEquals("Paid", invoices.findByStatus("Paid").get().get(0).getStatus());
+        assertEquals(500.0, stats.findSummary().get().getPaidRevenue(), 0.001);
+        assertEquals(1, invoices.findByStatus("Pending").get().size());
+    }
+}
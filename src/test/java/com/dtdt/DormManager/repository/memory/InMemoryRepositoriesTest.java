@@ -0,0 +1,35 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.service.PasswordService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRepositoriesTest {
+
+    private InMemoryDatabase database;
+    private InMemoryUserRepository users;
+
+    @BeforeEach
+    void setUp() {
+        database = InMemoryDatabase.withOwnerAccount();
+        users = new InMemoryUserRepository(database);
+    }
+
+    @Test
+    void ownerAccountCanSignIn() throws Exception {
+        User owner = users.findByUserId(InMemoryDatabase.OWNER_USER_ID).get();
+
+        assertNotNull(owner);
+        assertEquals("Owner", owner.getUserType());
+        PasswordService.Verification verification =
+                PasswordService.getInstance().verifyAsync(InMemoryDatabase.OWNER_PASSWORD, owner.getPasswordHash()).get();
+        assertTrue(verification.isMatched());
+        assertNull(verification.getUpgradedHash());
+    }
+}
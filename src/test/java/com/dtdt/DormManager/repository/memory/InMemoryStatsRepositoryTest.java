@@ -0,0 +1,75 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.dtdt.DormManager.Fixtures.invoice;
+import static com.dtdt.DormManager.Fixtures.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InMemoryStatsRepositoryTest {
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+    private final InMemoryRoomRepository rooms = new InMemoryRoomRepository(database);
+    private final InMemoryInvoiceRepository invoices = new InMemoryInvoiceRepository(database);
+    private final InMemoryStatsRepository stats = new InMemoryStatsRepository(database);
+
+    @Test
+    void roomUpdateAdjustsStats() throws Exception {
+        rooms.save(room("r1", 2));
+        rooms.update("r1", Map.of("capacity", 3));
+
+        StatsSummary summary = stats.findSummary().get();
+        assertEquals(1L, summary.getTotalRooms());
+        assertEquals(3L, summary.getTotalCapacity());
+        assertEquals(3, rooms.findById("r1").get().getCapacity());
+        assertEquals(3L, stats.findByBuilding("b1").get().getTotalCapacity());
+    }
+
+    @Test
+    void payingAnInvoiceCountsItsRevenueOnce() throws Exception {
+        invoices.save(invoice("i1", "Pending", 500));
+
+        invoices.update("i1", Map.of("status", "Paid"));
+        invoices.update("i1", Map.of("lateFee", 0.0));
+
+        assertEquals(500.0, stats.findSummary().get().getPaidRevenue(), 0.001);
+    }
+
+    @Test
+    void recountIsDroppedIfAWriteLandedSinceItStarted() throws Exception {
+        long revision = 0;
+        rooms.save(room("r1", 2));
+
+        assertNull(stats.initialize(recount(0), Map.of("b1", recount(0)), revision).get());
+        StatsSummary summary = stats.findSummary().get();
+        assertFalse(summary.isInitialized());
+        assertEquals(1L, summary.getTotalRooms());
+        assertEquals(1L, stats.findByBuilding("b1").get().getTotalRooms());
+    }
+
+    @Test
+    void firstRecountWinsAndLaterOnesGetIt() throws Exception {
+        rooms.save(room("r1", 2));
+        long revision = stats.findSummary().get().getRevision();
+
+        StatsSummary first = stats.initialize(recount(1), Map.of("b1", recount(1)), revision).get();
+        StatsSummary second = stats.initialize(recount(7), Map.of("b1", recount(7)), revision).get();
+
+        assertEquals(1L, first.getTotalRooms());
+        assertEquals(1L, second.getTotalRooms());
+        assertEquals(1L, stats.findSummary().get().getTotalRooms());
+        assertEquals(1L, stats.findByBuilding("b1").get().getTotalRooms());
+    }
+
+    private static StatsSummary recount(long totalRooms) {
+        StatsSummary summary = new StatsSummary();
+        summary.setInitialized(true);
+        summary.setTotalRooms(totalRooms);
+        return summary;
+    }
+}
@@ -0,0 +1,34 @@
+package com.dtdt.DormManager.repository.memory;
+
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Page;
+import org.junit.jupiter.api.Test;
+
+import static com.dtdt.DormManager.Fixtures.tenantFields;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTenantRepositoryTest {
+
+    private final InMemoryDatabase database = new InMemoryDatabase();
+    private final InMemoryTenantRepository tenants = new InMemoryTenantRepository(database);
+
+    @Test
+    void tenantsArePagedInDocumentIdOrder() throws Exception {
+        tenants.create("t3", tenantFields("t3"));
+        tenants.create("t1", tenantFields("t1"));
+        tenants.create("t2", tenantFields("t2"));
+
+        Page<Tenant> first = tenants.findPage(null, 2).get();
+        Page<Tenant> second = tenants.findPage(first.getNextCursor(), 2).get();
+
+        assertEquals("t1", first.getItems().get(0).getDocumentId());
+        assertEquals("t2", first.getItems().get(1).getDocumentId());
+        assertTrue(first.hasMore());
+        assertEquals(1, second.getItems().size());
+        assertEquals("t3", second.getItems().get(0).getDocumentId());
+        assertFalse(second.hasMore());
+        assertEquals(3L, tenants.count().get().longValue());
+    }
+}
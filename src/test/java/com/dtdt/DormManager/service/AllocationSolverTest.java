@@ -0,0 +1,93 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.dtdt.DormManager.Fixtures.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationSolverTest {
+
+    private static final Date JUNE = new Date(1_780_000_000_000L);
+    private static final Date JULY = new Date(1_782_600_000_000L);
+
+    @Test
+    void topsUpAPartlyFilledRoomBeforeOpeningAnEmptyOne() {
+        List<Room> rooms = List.of(room("empty", 2), room("partial", 2));
+        List<Tenant> tenants = List.of(tenant("partial", "Male"));
+
+        AllocationPlan plan = new AllocationSolver().solve(
+                List.of(request("a", "Male", JUNE), request("b", "Male", JULY)), rooms, tenants);
+
+        assertEquals("partial", plan.getRoomFor("a").getId());
+        assertEquals("empty", plan.getRoomFor("b").getId());
+    }
+
+    @Test
+    void neverMixesGendersInARoom() {
+        List<Room> rooms = List.of(room("female", 2), room("empty", 2));
+        List<Tenant> tenants = List.of(tenant("female", "Female"));
+
+        AllocationPlan plan = new AllocationSolver().solve(
+                List.of(request("a", "Male", JUNE), request("b", "Male", JULY), request("c", "Female", JULY)),
+                rooms, tenants);
+
+        assertEquals("empty", plan.getRoomFor("a").getId());
+        // The room "a" opened is now a male room with one bed left
+        assertEquals("empty", plan.getRoomFor("b").getId());
+        assertEquals("female", plan.getRoomFor("c").getId());
+    }
+
+    @Test
+    void skipsOccupiedRoomsWhoseGenderIsUnknown() {
+        List<Room> rooms = List.of(room("unknown", 2), room("mixed", 3));
+        List<Tenant> tenants = List.of(tenant("unknown", null), tenant("mixed", "Male"), tenant("mixed", "Female"));
+
+        AllocationPlan plan = new AllocationSolver().solve(List.of(request("a", "Male", JUNE)), rooms, tenants);
+
+        assertNull(plan.getRoomFor("a"));
+        assertEquals(1, plan.getUnallocated().size());
+    }
+
+    @Test
+    void leavesRequestsUnallocatedOnceBedsRunOut() {
+        // The counter says empty, but the tenants fill one of the two beds
+        Room room = room("r1", 2);
+        room.setOccupantCount(0);
+        List<Tenant> tenants = List.of(tenant("r1", "Male"));
+
+        AllocationPlan plan = new AllocationSolver().solve(
+                List.of(request("a", "Male", JUNE), request("b", "Male", JULY)), List.of(room), tenants);
+
+        assertEquals("r1", plan.getRoomFor("a").getId());
+        assertNull(plan.getRoomFor("b"));
+        assertEquals("b", plan.getUnallocated().get(0).getId());
+    }
+
+    @Test
+    void requestsWithoutAMoveInDateAreServedLast() {
+        AllocationPlan plan = new AllocationSolver().solve(
+                List.of(request("undated", "Male", null), request("dated", "Male", JULY)),
+                List.of(room("r1", 1)), List.of());
+
+        assertEquals("r1", plan.getRoomFor("dated").getId());
+        assertTrue(plan.getUnallocated().stream().anyMatch(r -> r.getId().equals("undated")));
+    }
+
+    private static AllocationRequest request(String id, String gender, Date moveIn) {
+        return new AllocationRequest(id, gender, "Monthly", moveIn, null, null);
+    }
+
+    private static Tenant tenant(String roomId, String gender) {
+        Tenant tenant = new Tenant();
+        tenant.setRoomID(roomId);
+        tenant.setGenderType(gender);
+        return tenant;
+    }
+}
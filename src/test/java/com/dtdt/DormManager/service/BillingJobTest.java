@@ -0,0 +1,66 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static com.dtdt.DormManager.Fixtures.date;
+import static com.dtdt.DormManager.Fixtures.invoice;
+import static com.dtdt.DormManager.Fixtures.monthlyContract;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BillingJobTest {
+
+    private Locale defaultLocale;
+
+    @BeforeEach
+    void setUp() {
+        Repositories.useInMemory(new InMemoryDatabase());
+        defaultLocale = Locale.getDefault();
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void secondRunCreatesNothingAndLeavesPaidInvoicesAlone() throws Exception {
+        Repositories.contracts().save(monthlyContract("c1", date(2025, Calendar.NOVEMBER, 1), date(2026, Calendar.JANUARY, 31))).get();
+        Repositories.invoices().save(invoice("3f2b9c1e-legacy", "c1", "November 2025", "Paid")).get();
+        BillingJob job = new BillingJob(2);
+
+        BillingJob.Report first = job.run(date(2025, Calendar.NOVEMBER, 15));
+        BillingJob.Report second = job.run(date(2025, Calendar.NOVEMBER, 15));
+
+        assertEquals(2, first.getInvoicesCreated());
+        assertEquals(1, first.getInvoicesSkipped());
+        assertEquals(0, second.getInvoicesCreated());
+        assertEquals(3, second.getInvoicesSkipped());
+        assertEquals(1, Repositories.invoices().findByStatus("Paid").get().size());
+        assertEquals(2, Repositories.invoices().findByStatus("Pending").get().size());
+        assertEquals(500.0, Repositories.stats().findSummary().get().getPaidRevenue(), 0.001);
+    }
+
+    @Test
+    void legacyInvoiceMatchesOnAHostWithAnotherLocale() throws Exception {
+        Locale.setDefault(Locale.GERMANY);
+        Repositories.contracts().save(monthlyContract("c1", date(2025, Calendar.NOVEMBER, 1), date(2025, Calendar.DECEMBER, 31))).get();
+        // Created before invoice ids were derived from the contract and month
+        Repositories.invoices().save(invoice("3f2b9c1e-legacy", "c1", "November 2025", "Pending")).get();
+
+        BillingJob.Report report = new BillingJob(1).run(date(2025, Calendar.NOVEMBER, 15));
+
+        assertEquals(1, report.getInvoicesCreated());
+        assertEquals(1, report.getInvoicesSkipped());
+        assertEquals(2, Repositories.invoices().findByStatus("Pending").get().size());
+        assertEquals("c1_2025-12", Repositories.invoices().findByTenant("t1").get().stream()
+                .filter(invoice -> "December 2025".equals(invoice.getMonthYear()))
+                .findFirst().get().getId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.dtdt.DormManager.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DocumentCacheTest {
+
+    private final DocumentCache cache = DocumentCache.getInstance();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache.clear();
+    }
+
+    @Test
+    void callersShareAnInFlightRead() throws Exception {
+        SettableApiFuture<String> read = SettableApiFuture.create();
+
+        ApiFuture<String> first = cache.get("rooms/r1", () -> load(read));
+        ApiFuture<String> second = cache.get("rooms/r1", () -> load(read));
+        read.set("room");
+
+        assertEquals(1, reads.get());
+        assertSame(first, second);
+        assertEquals("room", cache.get("rooms/r1", () -> load(SettableApiFuture.create())).get());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void failedReadIsRetriedByTheNextCaller() throws Exception {
+        SettableApiFuture<String> failed = SettableApiFuture.create();
+        cache.get("rooms/r1", () -> load(failed));
+        failed.setException(new IllegalStateException("offline"));
+
+        SettableApiFuture<String> retry = SettableApiFuture.create();
+        retry.set("room");
+
+        assertEquals("room", cache.get("rooms/r1", () -> load(retry)).get());
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void invalidatedPathIsReadAgain() throws Exception {
+        SettableApiFuture<String> before = SettableApiFuture.create();
+        before.set("old");
+        SettableApiFuture<String> after = SettableApiFuture.create();
+        after.set("new");
+
+        cache.get("rooms/r1", () -> load(before)).get();
+        cache.invalidateRoom("r1");
+
+        assertEquals("new", cache.get("rooms/r1", () -> load(after)).get());
+        assertEquals(2, reads.get());
+    }
+
+    private ApiFuture<String> load(ApiFuture<String> result) {
+        reads.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.dtdt.DormManager.Fixtures.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FacetCountsTest {
+
+    @Test
+    void countsRoomsPerValueAndDropsValuesThatReachZero() {
+        FacetCounts facets = FacetCounts.of(List.of(room("r1", "b1", 2), room("r2", "b1", 2), room("r3", "b2", 2)));
+
+        assertEquals(2, facets.count(FacetCounts.BUILDING_ID, "b1"));
+        assertEquals(3, facets.count(FacetCounts.TYPE, "Double"));
+        assertEquals("Double (3)", facets.label(FacetCounts.TYPE, "Double"));
+
+        facets.remove(FacetCounts.BUILDING_ID, "b2");
+        facets.remove(FacetCounts.BUILDING_ID, "b2");
+
+        assertEquals(List.of("b1"), facets.values(FacetCounts.BUILDING_ID));
+        assertEquals(0, facets.count(FacetCounts.BUILDING_ID, "b2"));
+    }
+
+    @Test
+    void floorsSortNumericallyAndTextAlphabetically() {
+        FacetCounts facets = new FacetCounts();
+        for (String floor : List.of("10", "2", "9", "Ground")) facets.add(FacetCounts.FLOOR, floor);
+        for (String type : List.of("single", "Double", "Quad")) facets.add(FacetCounts.TYPE, type);
+
+        assertEquals(List.of("2", "9", "10", "Ground"), facets.values(FacetCounts.FLOOR));
+        assertEquals(List.of("Double", "Quad", "single"), facets.values(FacetCounts.TYPE));
+    }
+
+    @Test
+    void copyIsIndependentAndNullValuesAreIgnored() {
+        Room unnamed = room("r1", 2);
+        unnamed.setBuildingName(null);
+        FacetCounts facets = FacetCounts.of(List.of(unnamed));
+        FacetCounts copy = facets.copy();
+
+        copy.remove(FacetCounts.TYPE, "Double");
+
+        assertTrue(facets.values(FacetCounts.BUILDING).isEmpty());
+        assertEquals(1, facets.count(FacetCounts.TYPE, "Double"));
+        assertEquals(0, copy.count(FacetCounts.TYPE, "Double"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Invoice;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.dtdt.DormManager.Fixtures.date;
+import static com.dtdt.DormManager.Fixtures.invoice;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LateFeeSweeperTest {
+
+    @BeforeEach
+    void setUp() {
+        Repositories.useInMemory(new InMemoryDatabase());
+    }
+
+    @Test
+    void secondSweepChargesNothing() throws Exception {
+        save(pending("i1", date(2025, Calendar.NOVEMBER, 5)));
+        save(pending("i2", date(2025, Calendar.DECEMBER, 5)));
+
+        LateFeeSweeper.Report first = LateFeeSweeper.getInstance().sweep(date(2025, Calendar.NOVEMBER, 20));
+        LateFeeSweeper.Report second = LateFeeSweeper.getInstance().sweep(date(2025, Calendar.NOVEMBER, 20));
+
+        assertEquals(1, first.getUpdated());
+        assertEquals(0, second.getCandidates());
+        assertEquals(0, second.getUpdated());
+        Invoice charged = Repositories.invoices().findByStatus("Overdue").get().get(0);
+        assertEquals("i1", charged.getId());
+        assertEquals(50.0, charged.getLateFee(), 0.001);
+        assertEquals(550.0, charged.getTotalAmount(), 0.001);
+    }
+
+    @Test
+    void staleCandidatesAreRecheckedBeforeCharging() throws Exception {
+        save(pending("i1", date(2025, Calendar.NOVEMBER, 5)));
+        save(pending("i2", date(2025, Calendar.NOVEMBER, 5)));
+        Repositories.invoices().update("i2", Map.of("status", "Paid")).get();
+
+        // Two sweeps that found the same candidates before either wrote
+        List<String> ids = List.of("i1", "i2");
+        int first = Repositories.invoices().applyLateFees(ids, LateFeeSweeper.LATE_FEE_RATE, date(2025, Calendar.NOVEMBER, 20)).get();
+        int second = Repositories.invoices().applyLateFees(ids, LateFeeSweeper.LATE_FEE_RATE, date(2025, Calendar.NOVEMBER, 20)).get();
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(550.0, Repositories.invoices().findByStatus("Overdue").get().get(0).getTotalAmount(), 0.001);
+        assertEquals(0.0, Repositories.invoices().findByStatus("Paid").get().get(0).getLateFee(), 0.001);
+    }
+
+    private static Invoice pending(String id, Date dueDate) {
+        Invoice invoice = invoice(id, "c1", "November 2025", "Pending");
+        invoice.setDueDate(dueDate);
+        return invoice;
+    }
+
+    private static void save(Invoice invoice) throws Exception {
+        Repositories.invoices().save(invoice).get();
+    }
+}
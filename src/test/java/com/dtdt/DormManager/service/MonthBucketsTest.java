@@ -0,0 +1,41 @@
+package com.dtdt.DormManager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MonthBucketsTest {
+
+    private static final int NOV_2025 = TrendService.monthIndex(YearMonth.of(2025, 11));
+
+    private final MonthBuckets buckets = new MonthBuckets();
+
+    @Test
+    void editedPaymentIsBackedOutOfItsOldMonth() {
+        // Paid in November for 500, then edited to 550 paid in December
+        buckets.add(NOV_2025, 500);
+        buckets.add(NOV_2025, -500);
+        buckets.add(NOV_2025 + 1, 550);
+
+        assertEquals(0.0, buckets.get(NOV_2025), 0.001);
+        assertEquals(550.0, buckets.get(NOV_2025 + 1), 0.001);
+        assertEquals(550.0, buckets.sumThrough(NOV_2025 + 1), 0.001);
+    }
+
+    @Test
+    void growsInBothDirectionsWithoutLosingBuckets() {
+        buckets.add(NOV_2025, 1);
+        buckets.add(NOV_2025 - 30, 2);
+        buckets.add(NOV_2025 + 40, 4);
+
+        assertEquals(1.0, buckets.get(NOV_2025), 0.001);
+        assertEquals(2.0, buckets.get(NOV_2025 - 30), 0.001);
+        assertEquals(4.0, buckets.get(NOV_2025 + 40), 0.001);
+        assertEquals(0.0, buckets.get(NOV_2025 - 100), 0.001);
+        assertEquals(3.0, buckets.sumThrough(NOV_2025), 0.001);
+        assertEquals(7.0, buckets.sumThrough(NOV_2025 + 100), 0.001);
+        assertEquals(0.0, buckets.sumThrough(NOV_2025 - 31), 0.001);
+    }
+}
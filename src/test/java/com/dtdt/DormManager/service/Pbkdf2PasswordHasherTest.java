@@ -0,0 +1,84 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Pbkdf2PasswordHasherTest {
+
+    // Far below the default so the tests stay fast; the scheme is the same
+    private static final int ITERATIONS = 1_000;
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(ITERATIONS);
+
+    @Test
+    void hashVerifiesWithTheSamePassword() {
+        String stored = hasher.hash("s3cret!");
+
+        assertTrue(stored.startsWith("pbkdf2-sha512$" + ITERATIONS + "$"));
+        assertTrue(hasher.verify("s3cret!", stored));
+        assertFalse(hasher.needsRehash(stored));
+    }
+
+    @Test
+    void hashRejectsAWrongPassword() {
+        String stored = hasher.hash("s3cret!");
+
+        assertFalse(hasher.verify("s3cret", stored));
+        assertFalse(hasher.verify("", stored));
+        assertFalse(hasher.verify(null, stored));
+    }
+
+    @Test
+    void samePasswordGetsADifferentSaltEachTime() {
+        assertNotEquals(hasher.hash("s3cret!"), hasher.hash("s3cret!"));
+    }
+
+    @Test
+    void legacySha256HashVerifiesAndNeedsRehash() {
+        String legacy = User.hashPassword("s3cret!");
+
+        assertTrue(hasher.verify("s3cret!", legacy));
+        assertTrue(hasher.verify("s3cret!", legacy.toUpperCase()));
+        assertFalse(hasher.verify("wrong", legacy));
+        assertTrue(hasher.needsRehash(legacy));
+    }
+
+    @Test
+    void hashFromFewerIterationsVerifiesAndNeedsRehash() {
+        String weaker = new Pbkdf2PasswordHasher(ITERATIONS / 2).hash("s3cret!");
+
+        assertTrue(hasher.verify("s3cret!", weaker));
+        assertTrue(hasher.needsRehash(weaker));
+        assertFalse(new Pbkdf2PasswordHasher(ITERATIONS / 2).needsRehash(hasher.hash("s3cret!")));
+    }
+
+    @Test
+    void malformedStoredHashesNeverVerify() {
+        String[] malformed = {
+                "",
+                "not-a-hash",
+                "pbkdf2-sha512$1000$c2FsdA",
+                "pbkdf2-sha256$1000$c2FsdA$aGFzaA",
+                "pbkdf2-sha512$many$c2FsdA$aGFzaA",
+                "abc123",
+        };
+        for (String stored : malformed) {
+            assertFalse(hasher.verify("s3cret!", stored), stored);
+            assertTrue(hasher.needsRehash(stored), stored);
+        }
+        // Well-formed apart from a salt that is not Base64
+        assertFalse(hasher.verify("s3cret!", "pbkdf2-sha512$1000$***$aGFzaA"));
+        assertFalse(hasher.verify("s3cret!", null));
+        assertTrue(hasher.needsRehash(null));
+    }
+
+    @Test
+    void iterationsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new Pbkdf2PasswordHasher(0));
+    }
+}
@@ -0,0 +1,50 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Reservation;
+import com.dtdt.DormManager.model.User;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationApprovalServiceTest {
+
+    @BeforeEach
+    void setUp() {
+        Repositories.useInMemory(new InMemoryDatabase());
+    }
+
+    @Test
+    void reportCarriesTemporaryPasswordsOfCreatedAccountsOnly() throws Exception {
+        Repositories.tenants().create("s1", Map.of("userId", "s1", "userType", "Tenant")).get();
+        List<Reservation> reservations = List.of(reservation("r1", "s1"), reservation("r2", "s2"));
+        for (Reservation reservation : reservations) Repositories.reservations().save(reservation).get();
+
+        ReservationApprovalService.Report report = ReservationApprovalService.getInstance()
+                .approveAll(reservations, (processed, total) -> { }).get();
+
+        assertEquals(1, report.getApproved());
+        assertEquals(1, report.getSkipped());
+        assertEquals(1, report.getCredentials().size());
+        ReservationApprovalService.Credential credential = report.getCredentials().get(0);
+        assertEquals("s2", credential.getUserId());
+        User created = Repositories.users().findById("s2").get();
+        assertTrue(PasswordService.getInstance().verifyAsync(credential.getTemporaryPassword(), created.getPasswordHash()).get().isMatched());
+    }
+
+    private static Reservation reservation(String id, String studentId) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setStudentId(studentId);
+        reservation.setFirstName("First " + studentId);
+        reservation.setLastName("Last");
+        reservation.setStatus("Pending");
+        return reservation;
+    }
+}
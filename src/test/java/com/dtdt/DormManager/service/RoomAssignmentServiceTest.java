@@ -0,0 +1,97 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Room;
+import com.dtdt.DormManager.model.Tenant;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.RoomAssignment;
+import com.dtdt.DormManager.repository.RoomUnavailableException;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+
+import static com.dtdt.DormManager.Fixtures.room;
+import static com.dtdt.DormManager.Fixtures.tenantFields;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomAssignmentServiceTest {
+
+    @BeforeEach
+    void setUp() {
+        Repositories.useInMemory(new InMemoryDatabase());
+    }
+
+    @Test
+    void assignFillsARoomAndThenRejectsTheNextTenant() throws Exception {
+        Repositories.rooms().save(room("r1", 1)).get();
+        tenant("t1", null);
+        tenant("t2", null);
+
+        Repositories.roomAssignments().assign("t1", "r1", null).get();
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> Repositories.roomAssignments().assign("t2", "r1", null).get());
+
+        assertTrue(error.getCause() instanceof RoomUnavailableException);
+        Room room = Repositories.rooms().findById("r1").get();
+        assertEquals(1, room.getOccupantCount());
+        assertEquals("Occupied", room.getStatus());
+        assertEquals("r1", Repositories.tenants().findById("t1").get().getRoomID());
+        assertNull(Repositories.tenants().findById("t2").get().getRoomID());
+    }
+
+    @Test
+    void migrationCountsTenantsIntoRoomsWithoutACounter() throws Exception {
+        Repositories.rooms().save(room("r1", 2)).get();
+        Repositories.rooms().save(room("r2", 2)).get();
+        tenant("t1", "r1");
+        tenant("t2", "r1");
+
+        int written = RoomAssignmentService.getInstance().migrateOccupantCounts().get();
+
+        assertEquals(2, written);
+        assertEquals(2, Repositories.rooms().findById("r1").get().getOccupantCount());
+        assertEquals("Occupied", Repositories.rooms().findById("r1").get().getStatus());
+        assertEquals(0, Repositories.rooms().findById("r2").get().getOccupantCount());
+        tenant("t3", null);
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> Repositories.roomAssignments().assign("t3", "r1", null).get());
+        assertTrue(error.getCause() instanceof RoomUnavailableException);
+    }
+
+    @Test
+    void assignmentDropsCachedReadsOfTheRoomAndContract() throws Exception {
+        Repositories.rooms().save(room("r1", 2)).get();
+        tenant("t1", null);
+        DocumentCache documents = DocumentCache.getInstance();
+        documents.clear();
+        assertEquals(0, documents.room("r1").get().getOccupantCount());
+
+        Tenant tenant = Repositories.tenants().findById("t1").get();
+        RoomAssignment assignment = RoomAssignmentService.getInstance()
+                .assign(tenant, Repositories.rooms().findById("r1").get(), new Date()).get();
+
+        assertEquals(1, documents.room("r1").get().getOccupantCount());
+        assertNotNull(documents.contract(assignment.getContractId()).get());
+    }
+
+    @Test
+    void freeBedCheckUsesTheHigherOfCounterAndKnownTenants() {
+        Room room = room("r1", 2);
+
+        assertTrue(RoomAssignmentService.hasFreeBed(room, 1));
+        assertFalse(RoomAssignmentService.hasFreeBed(room, 2));
+        room.setOccupantCount(2);
+        assertFalse(RoomAssignmentService.hasFreeBed(room, 0));
+    }
+
+    private static void tenant(String id, String roomId) throws Exception {
+        Repositories.tenants().create(id, tenantFields(id, roomId)).get();
+    }
+}
@@ -0,0 +1,49 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.StatsSummary;
+import com.dtdt.DormManager.repository.Repositories;
+import com.dtdt.DormManager.repository.memory.InMemoryDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.dtdt.DormManager.Fixtures.room;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsServiceTest {
+
+    @BeforeEach
+    void setUp() {
+        Repositories.useInMemory(new InMemoryDatabase());
+    }
+
+    @Test
+    void partialSummaryFromIncrementsIsRebuilt() throws Exception {
+        // Writes before the first rebuild leave a partial summary behind
+        Repositories.rooms().save(room("r1", "b1", 2)).get();
+        Repositories.rooms().save(room("r2", "b1", 3)).get();
+        Repositories.tenants().create("t1", Map.of("userId", "t1", "userType", "Tenant", "roomID", "r1")).get();
+        assertFalse(Repositories.stats().findSummary().get().isInitialized());
+
+        StatsSummary summary = StatsService.getInstance().loadSummary().get();
+
+        assertTrue(summary.isInitialized());
+        assertEquals(2L, summary.getTotalRooms());
+        assertEquals(5L, summary.getTotalCapacity());
+        assertEquals(1L, summary.getTotalResidents());
+    }
+
+    @Test
+    void initializedSummaryKeepsCountingIncrementally() throws Exception {
+        StatsService.getInstance().loadSummary().get();
+
+        Repositories.rooms().save(room("r1", "b1", 2)).get();
+
+        StatsSummary summary = StatsService.getInstance().loadSummary().get();
+        assertEquals(1L, summary.getTotalRooms());
+        assertEquals(2L, StatsService.getInstance().loadBuildingStats("b1").get().getTotalCapacity());
+    }
+}
@@ -0,0 +1,65 @@
+package com.dtdt.DormManager.service;
+
+import com.dtdt.DormManager.model.Tenant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantSearchIndexTest {
+
+    private final TenantSearchIndex index = new TenantSearchIndex();
+
+    @Test
+    void everyWordMustPrefixSomeToken() {
+        index.put(tenant("d1", "John", "Smith", "2021-001", "john.smith@uni.edu"));
+        index.put(tenant("d2", "Joanna", "Reyes", "2021-002", "jreyes@uni.edu"));
+
+        assertEquals(List.of("d1", "d2"), index.search("jo"));
+        assertEquals(List.of("d1"), index.search("jo sm"));
+        assertEquals(List.of("d1"), index.search("  SMI   john "));
+        assertTrue(index.search("jo xyz").isEmpty());
+        assertTrue(index.search("   ").isEmpty());
+    }
+
+    @Test
+    void matchesUserIdsEmailsAndAccentedNames() {
+        index.put(tenant("d1", "Jos\u00e9", "Pe\u00f1a", "2021-001", "jose.pena@uni.edu"));
+
+        assertEquals(List.of("d1"), index.search("jose pena"));
+        assertEquals(List.of("d1"), index.search("2021-0"));
+        assertEquals(List.of("d1"), index.search("jose.pe"));
+        assertEquals(List.of("d1"), index.search("uni"));
+    }
+
+    @Test
+    void removedAndReindexedTenantsLeaveNoStaleTokens() {
+        index.put(tenant("d1", "John", "Smith", "2021-001", null));
+        index.put(tenant("d2", "Mary", "Cruz", "2021-002", null));
+
+        index.put(tenant("d1", "John", "Santos", "2021-001", null));
+        index.remove("d2");
+
+        assertTrue(index.search("smith").isEmpty());
+        assertTrue(index.search("sm").isEmpty());
+        assertEquals(List.of("d1"), index.search("santos"));
+        assertTrue(index.search("mary").isEmpty());
+
+        // The freed slot is reused without resurrecting the old tenant
+        index.put(tenant("d3", "Ana", "Lim", "2021-003", null));
+        assertEquals(List.of("d3"), index.search("ana"));
+        assertTrue(index.search("cruz").isEmpty());
+    }
+
+    private static Tenant tenant(String documentId, String firstName, String lastName, String userId, String email) {
+        Tenant tenant = new Tenant();
+        tenant.setDocumentId(documentId);
+        tenant.setFirstName(firstName);
+        tenant.setLastName(lastName);
+        tenant.setUserId(userId);
+        tenant.setEmail(email);
+        return tenant;
+    }
+}